@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.benchmarks;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentItem;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+
+/**
+ * Generates Camel route files of a given size, with a target endpoint in the middle of them on which the features are invoked.
+ * Some routes can be made invalid with an unknown option on their consumer endpoint, so that diagnostics are reported.
+ */
+public class BenchmarkDocuments {
+	
+	public enum Language {
+		SPRING_XML, BLUEPRINT_XML, JAVA
+	}
+	
+	public enum Size {
+		SMALL(1), MEDIUM(100), LARGE(10000);
+		
+		private final int routes;
+
+		private Size(int routes) {
+			this.routes = routes;
+		}
+		
+		public int getRoutes() {
+			return routes;
+		}
+	}
+	
+	private final TextDocumentItem textDocumentItem;
+	private final Position targetPosition;
+	
+	private BenchmarkDocuments(TextDocumentItem textDocumentItem, Position targetPosition) {
+		this.textDocumentItem = textDocumentItem;
+		this.targetPosition = targetPosition;
+	}
+	
+	/**
+	 * @param targetUri the uri of the target endpoint, the target position is at its end
+	 */
+	public static BenchmarkDocuments create(Language language, int routes, String targetUri) {
+		return create(language, routes, targetUri, 0);
+	}
+	
+	/**
+	 * @param invalidEvery one route out of this number has an invalid endpoint, 0 for none
+	 */
+	public static BenchmarkDocuments create(Language language, int routes, String targetUri, int invalidEvery) {
+		switch (language) {
+		case SPRING_XML:
+			return createXml("", "<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n", "</camelContext>\n", routes, targetUri, invalidEvery);
+		case BLUEPRINT_XML:
+			return createXml("<blueprint xmlns=\"http://www.osgi.org/xmlns/blueprint/v1.0.0\">\n",
+					"<camelContext xmlns=\"http://camel.apache.org/schema/blueprint\">\n", "</camelContext>\n</blueprint>\n", routes, targetUri, invalidEvery);
+		default:
+			return createJava(routes, targetUri, invalidEvery);
+		}
+	}
+	
+	private static String timerOptions(int route, int invalidEvery) {
+		return invalidEvery > 0 && route % invalidEvery == 0 ? "?perid=1000" : "?period=1000";
+	}
+	
+	private static BenchmarkDocuments createXml(String root, String camelContext, String end, int routes, String targetUri, int invalidEvery) {
+		StringBuilder text = new StringBuilder(root).append(camelContext);
+		int line = root.isEmpty() ? 1 : 2;
+		Position targetPosition = null;
+		for (int route = 0; route < routes; route++) {
+			if (route == routes / 2) {
+				String from = "    <from uri=\"" + targetUri + "\"/>\n";
+				text.append("  <route id=\"target\">\n").append(from).append("  </route>\n");
+				targetPosition = new Position(line + 1, from.indexOf("uri=\"") + 5 + targetUri.length());
+				line += 3;
+			}
+			text.append("  <route id=\"route-").append(route).append("\">\n")
+				.append("    <from uri=\"timer:timer-").append(route).append(timerOptions(route, invalidEvery)).append("\"/>\n")
+				.append("    <to uri=\"log:log-").append(route).append("?level=INFO\"/>\n")
+				.append("  </route>\n");
+			line += 4;
+		}
+		text.append(end);
+		return new BenchmarkDocuments(new TextDocumentItem("file:///benchmark/camel-context.xml", CamelLanguageServer.LANGUAGE_ID, 1, text.toString()), targetPosition);
+	}
+	
+	private static BenchmarkDocuments createJava(int routes, String targetUri, int invalidEvery) {
+		StringBuilder text = new StringBuilder("package benchmark;\n\n")
+				.append("import org.apache.camel.builder.RouteBuilder;\n\n")
+				.append("public class BenchmarkRoutes extends RouteBuilder {\n\n")
+				.append("\t@Override\n")
+				.append("\tpublic void configure() throws Exception {\n");
+		int line = 8;
+		Position targetPosition = null;
+		for (int route = 0; route < routes; route++) {
+			if (route == routes / 2) {
+				String from = "\t\tfrom(\"" + targetUri + "\").to(\"log:target\");\n";
+				text.append(from);
+				targetPosition = new Position(line, from.indexOf("from(\"") + 6 + targetUri.length());
+				line++;
+			}
+			text.append("\t\tfrom(\"timer:timer-").append(route).append(timerOptions(route, invalidEvery)).append("\").routeId(\"route-").append(route).append("\")\n")
+				.append("\t\t\t.to(\"log:log-").append(route).append("?level=INFO\");\n");
+			line += 2;
+		}
+		text.append("\t}\n}\n");
+		return new BenchmarkDocuments(new TextDocumentItem("file:///benchmark/BenchmarkRoutes.java", CamelLanguageServer.LANGUAGE_ID, 1, text.toString()), targetPosition);
+	}
+
+	public TextDocumentItem getTextDocumentItem() {
+		return textDocumentItem;
+	}
+	
+	public Position getTargetPosition() {
+		return targetPosition;
+	}
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.cameltooling.lsp.internal.benchmarks.BenchmarkDocuments.Language;
+import com.github.cameltooling.lsp.internal.benchmarks.BenchmarkDocuments.Size;
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
+import com.github.cameltooling.lsp.internal.completion.CamelEndpointCompletionProcessor;
+
+/**
+ * Time to compute the completion of a Camel URI, on documents with 1, 100 and 10k routes.
+ * The component models are cached after the first invocation, as in a running server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionBenchmark {
+	
+	private static final CancelChecker NOT_CANCELLED = () -> {};
+	
+	public enum Kind {
+		SCHEME(""),
+		OPTION_NAME("timer:benchmark?"),
+		OPTION_VALUE("timer:benchmark?fixedRate=");
+		
+		private final String uri;
+
+		private Kind(String uri) {
+			this.uri = uri;
+		}
+	}
+	
+	@Param({"SPRING_XML", "JAVA"})
+	public Language language;
+	
+	@Param
+	public Size size;
+	
+	@Param
+	public Kind kind;
+	
+	private CamelEndpointCompletionProcessor completionProcessor;
+	private Position position;
+	
+	@Setup
+	public void setup() {
+		BenchmarkDocuments document = BenchmarkDocuments.create(language, size.getRoutes(), kind.uri);
+		completionProcessor = new CamelEndpointCompletionProcessor(document.getTextDocumentItem(), CompletableFuture.completedFuture(new CachingCamelCatalog()));
+		position = document.getTargetPosition();
+	}
+
+	@Benchmark
+	public List<CompletionItem> completion() throws Exception {
+		return completionProcessor.getCompletions(position, NOT_CANCELLED).get();
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CompletionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+}
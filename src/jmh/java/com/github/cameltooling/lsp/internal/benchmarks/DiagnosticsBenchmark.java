@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.benchmarks.BenchmarkDocuments.Language;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
+
+/**
+ * Throughput of the validation of a saved document, one route out of ten having an invalid endpoint.
+ * The diagnostics are published to a stub client, the persistent diagnostic cache is not used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DiagnosticsBenchmark {
+	
+	@Param
+	public Language language;
+	
+	@Param({"10", "1000", "10000"})
+	public int routes;
+	
+	private CamelLanguageServer server;
+	private DiagnosticService diagnosticService;
+	private DidSaveTextDocumentParams params;
+	
+	@Setup
+	public void setup() throws Exception {
+		server = StubLanguageClient.startServer(new StubLanguageClient());
+		diagnosticService = new DiagnosticService(server.getTextDocumentService().getCamelCatalog(), server);
+		BenchmarkDocuments document = BenchmarkDocuments.create(language, routes, "timer:target?period=1000", 10);
+		params = new DidSaveTextDocumentParams(new TextDocumentIdentifier(document.getTextDocumentItem().getUri()), document.getTextDocumentItem().getText());
+	}
+	
+	@TearDown
+	public void tearDown() {
+		server.shutdown();
+	}
+
+	@Benchmark
+	public void compute() {
+		diagnosticService.compute(params);
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new ScalingReport("routes").print(new Runner(new OptionsBuilder()
+				.include(DiagnosticsBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run());
+	}
+
+}
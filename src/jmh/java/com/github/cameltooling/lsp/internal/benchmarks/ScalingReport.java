@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+
+/**
+ * Prints how the cost of a throughput benchmark grows with the size of the document: the cost per route relative
+ * to the smallest document is 1 while the path is linear, and grows from the size where it stops being linear.
+ */
+public class ScalingReport {
+	
+	private final String sizeParam;
+	
+	/**
+	 * @param sizeParam the numeric parameter holding the size of the document
+	 */
+	public ScalingReport(String sizeParam) {
+		this.sizeParam = sizeParam;
+	}
+
+	public void print(Collection<RunResult> results) {
+		Map<String, List<RunResult>> series = new LinkedHashMap<>();
+		for (RunResult result : results) {
+			series.computeIfAbsent(seriesName(result.getParams()), key -> new ArrayList<>()).add(result);
+		}
+		System.out.println();
+		System.out.println(String.format("%-70s %10s %16s %18s", "Benchmark", sizeParam, "ops/s", "cost per " + sizeParam));
+		series.forEach((name, runs) -> {
+			runs.sort(Comparator.comparingInt(this::size));
+			double smallestCost = cost(runs.get(0));
+			for (RunResult run : runs) {
+				System.out.println(String.format("%-70s %10d %16.3f %17.2fx", name, size(run), run.getPrimaryResult().getScore(), cost(run) / smallestCost));
+			}
+		});
+	}
+	
+	private String seriesName(BenchmarkParams params) {
+		StringBuilder name = new StringBuilder(params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.', params.getBenchmark().lastIndexOf('.') - 1) + 1));
+		for (String key : params.getParamsKeys()) {
+			if (!sizeParam.equals(key)) {
+				name.append(' ').append(key).append('=').append(params.getParam(key));
+			}
+		}
+		return name.toString();
+	}
+	
+	private int size(RunResult run) {
+		return Integer.parseInt(run.getParams().getParam(sizeParam));
+	}
+
+	/**
+	 * @return the time of one operation divided by the size of the document
+	 */
+	private double cost(RunResult run) {
+		return 1 / run.getPrimaryResult().getScore() / size(run);
+	}
+
+}
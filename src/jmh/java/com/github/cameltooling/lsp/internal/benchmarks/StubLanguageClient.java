@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+
+/**
+ * Language client ignoring everything but the diagnostics, which are kept so that the benchmarks can return them.
+ */
+public class StubLanguageClient implements LanguageClient {
+	
+	private volatile List<PublishDiagnosticsParams> lastDiagnostics = Collections.emptyList();
+
+	@Override
+	public void telemetryEvent(Object object) {
+		// not used by the benchmarks
+	}
+
+	@Override
+	public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+		lastDiagnostics = Collections.singletonList(diagnostics);
+	}
+
+	@Override
+	public void showMessage(MessageParams messageParams) {
+		// not used by the benchmarks
+	}
+
+	@Override
+	public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+		return CompletableFuture.completedFuture(null);
+	}
+
+	@Override
+	public void logMessage(MessageParams message) {
+		// not used by the benchmarks
+	}
+	
+	public List<PublishDiagnosticsParams> getLastDiagnostics() {
+		return lastDiagnostics;
+	}
+	
+	/**
+	 * @return a server connected to a stub client, once all the component models of its catalog are loaded
+	 */
+	public static CamelLanguageServer startServer(StubLanguageClient client) throws Exception {
+		CamelLanguageServer server = new CamelLanguageServer();
+		server.connect(client);
+		server.getTextDocumentService().getCatalogLoader().getFullyLoaded().get(1, TimeUnit.MINUTES);
+		return server;
+	}
+
+}
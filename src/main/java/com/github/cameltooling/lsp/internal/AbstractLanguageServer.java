@@ -16,39 +16,20 @@
  */
 package com.github.cameltooling.lsp.internal;
 
-import java.io.IOException;
-
 import org.eclipse.lsp4j.services.WorkspaceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.cameltooling.lsp.internal.liveness.ParentProcessMonitor;
+
 /**
  * @author lhein
  */
 public abstract class AbstractLanguageServer {
-	
-	private static final String OS = System.getProperty("os.name").toLowerCase();
-	
-	private final class CamelServerRunnable implements Runnable {
-		@Override
-		public void run() {
-			LOGGER.info("Starting Camel Language Server...");
-			while (!shutdown && parentProcessStillRunning()) {
-				try {
-					Thread.sleep(1000);
-				} catch (InterruptedException e) {
-					LOGGER.error(e.getMessage(), e);
-					Thread.currentThread().interrupt();
-				}
-			}
-			LOGGER.info("Camel Language Server - Client vanished...");
-		}
-	}
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLanguageServer.class);
 	
-	private Thread runner;
-	private volatile boolean shutdown;
+	private final ParentProcessMonitor parentProcessMonitor = new ParentProcessMonitor();
 	private long parentProcessId;
 	private WorkspaceService workspaceService;
 	private CamelTextDocumentService textDocumentService;
@@ -59,46 +40,28 @@ public abstract class AbstractLanguageServer {
 	 * @return	the exit code of the process
 	 */
 	public int startServer() {
-		runner = new Thread(new CamelServerRunnable(), "Camel Language Client Watcher");
-		runner.start();
+		LOGGER.info("Starting Camel Language Server...");
+		watchParentProcess();
 		return 0;
 	}
 	
 	/**
-	 * Checks whether the parent process is still running.
-	 * If not, then we assume it has crashed, and we have to terminate the Camel Language Server.
-	 *
-	 * @return true if the parent process is still running
+	 * Watches the parent process, if it terminates we assume it has crashed, and we have to terminate the Camel Language Server.
+	 * 
+	 * @return the name of the strategy used to watch the parent process, null if it is not watched
 	 */
-	protected boolean parentProcessStillRunning() {
-		// Wait until parent process id is available
-		
-		if (parentProcessId == 0) {
-			LOGGER.info("Waiting for a client connection...");
-		} else {
-			LOGGER.info("Checking for client process pid: {}", parentProcessId);
-		}
-		
-		if (parentProcessId == 0) return true;
-
-		String command;
-		if (OS.indexOf("win") != -1) { // && "x86".equals(ARCH)
-			command = "cmd /c \"tasklist /FI \"PID eq " + parentProcessId + "\" | findstr " + parentProcessId + "\"";
-		} else {
-			command = "ps -p " + parentProcessId;
-		}
-		try {
-			Process process = Runtime.getRuntime().exec(command);
-			int processResult = process.waitFor();
-			return processResult == 0;
-		} catch (IOException e) {
-			LOGGER.error(e.getMessage(), e);
-			return true;
-		} catch (InterruptedException e) {
-			LOGGER.error(e.getMessage(), e);
-			Thread.currentThread().interrupt();
-			return true;
+	protected synchronized String watchParentProcess() {
+		if (parentProcessId <= 0 || !ParentProcessMonitor.isEnabled()) {
+			return null;
 		}
+		return parentProcessMonitor.start(parentProcessId, this::parentProcessExited);
+	}
+	
+	/**
+	 * Called when the parent process is not running anymore.
+	 */
+	protected void parentProcessExited() {
+		shutdownServer();
 	}
 
 	/**
@@ -106,7 +69,7 @@ public abstract class AbstractLanguageServer {
 	 */
 	public void stopServer() {
 		LOGGER.info("Stopping language server");
-		runner.interrupt();
+		parentProcessMonitor.stop();
 	}
 
 	/**
@@ -114,7 +77,6 @@ public abstract class AbstractLanguageServer {
 	 */
 	public void shutdownServer() {
 		LOGGER.info("Shutting down language server");
-		shutdown = true;
 	}
 
 	/**
@@ -16,21 +16,45 @@
  */
 package com.github.cameltooling.lsp.internal;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.ExecuteCommandOptions;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
 import org.eclipse.lsp4j.MessageParams;
 import org.eclipse.lsp4j.MessageType;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageClientAware;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.WorkspaceService;
 
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticCache;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticsDispatcher;
+import com.github.cameltooling.lsp.internal.executor.RequestBudgets;
+import com.github.cameltooling.lsp.internal.executor.ServerExecutors;
+import com.github.cameltooling.lsp.internal.index.WorkspaceIndexer;
+import com.github.cameltooling.lsp.internal.index.WorkspaceSymbolIndex;
+import com.github.cameltooling.lsp.internal.metrics.ExecutorMetrics;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
+import com.github.cameltooling.lsp.internal.metrics.RequestMetrics;
+import com.github.cameltooling.lsp.internal.metrics.TelemetryReporter;
+import com.github.cameltooling.lsp.internal.trace.RequestSpan;
+import com.github.cameltooling.lsp.internal.trace.RequestTracer;
+import com.github.cameltooling.lsp.internal.workspace.WorkspaceValidator;
+
 /**
  * this is the actual server implementation
  * 
@@ -41,10 +65,43 @@ public class CamelLanguageServer extends AbstractLanguageServer implements Langu
 	public static final String LANGUAGE_ID = "LANGUAGE_ID_APACHE_CAMEL";
 	
 	private LanguageClient client;
+	private static final AtomicInteger SESSION_COUNTER = new AtomicInteger();
+	
+	private final SharedServerResources sharedResources;
+	private final boolean ownsSharedResources;
+	private final int sessionId = SESSION_COUNTER.incrementAndGet();
+	private Runnable exitHandler = () -> System.exit(0);
+	private final RequestMetrics requestMetrics = new RequestMetrics();
+	private final RequestBudgets requestBudgets = new RequestBudgets(requestMetrics);
+	private final RequestTracer requestTracer = new RequestTracer(LatencyMetrics.getInstance());
+	private final TelemetryReporter telemetryReporter = new TelemetryReporter(this::getMetrics, requestTracer::getFinishedCount, metrics -> getClient().telemetryEvent(metrics));
+	private String rootUri;
+	private WorkspaceValidator workspaceValidator;
+	private DiagnosticCache diagnosticCache;
+	private DiagnosticsDispatcher diagnosticsDispatcher = new DiagnosticsDispatcher(this::getClient);
+	private final WorkspaceSymbolIndex workspaceSymbolIndex = new WorkspaceSymbolIndex();
+	private final WorkspaceIndexer workspaceIndexer;
 	
 	public CamelLanguageServer() {
+		this(new SharedServerResources(), true);
+	}
+	
+	/**
+	 * Creates a session of a server serving several clients from the same process.
+	 */
+	public CamelLanguageServer(SharedServerResources sharedResources) {
+		this(sharedResources, false);
+	}
+	
+	private CamelLanguageServer(SharedServerResources sharedResources, boolean ownsSharedResources) {
+		this.sharedResources = sharedResources;
+		this.ownsSharedResources = ownsSharedResources;
+		this.workspaceIndexer = WorkspaceIndexer.isEnabled() ? new WorkspaceIndexer(this, workspaceSymbolIndex) : null;
 		super.setTextDocumentService(new CamelTextDocumentService(this));
-		super.setWorkspaceService(new CamelWorkspaceService());
+		super.setWorkspaceService(new CamelWorkspaceService(this));
+		sharedResources.getMemoryAccounting().register(getTextDocumentService());
+		sharedResources.getMemoryAccounting().register(diagnosticsDispatcher);
+		sharedResources.getMemoryAccounting().register(workspaceSymbolIndex);
 	}
 	
 	@Override
@@ -56,7 +113,12 @@ public class CamelLanguageServer extends AbstractLanguageServer implements Langu
 	@Override
 	public void exit() {
 		super.stopServer();
-		System.exit(0);
+		exitHandler.run();
+	}
+	
+	@Override
+	protected void parentProcessExited() {
+		exit();
 	}
 	
 	@Override
@@ -65,31 +127,108 @@ public class CamelLanguageServer extends AbstractLanguageServer implements Langu
 		Integer processId = params.getProcessId();
 		if(processId != null) {
 			setParentProcessId(processId.longValue());
+			String livenessStrategy = watchParentProcess();
+			if (livenessStrategy != null) {
+				sendLogMessageNotification(MessageType.Info, "Watching client process " + processId + " with " + livenessStrategy);
+			}
 		} else {
 			sendLogMessageNotification(MessageType.Info, "Missing Parent process ID!!");
 			setParentProcessId(0);
 		}
+		rootUri = retrieveRootUri(params);
 		
 		ServerCapabilities capabilities = createServerCapabilities();
 		InitializeResult result = new InitializeResult(capabilities);
 		return CompletableFuture.completedFuture(result);
 	}
 
+	@SuppressWarnings("deprecation")
+	private String retrieveRootUri(InitializeParams params) {
+		if (params.getRootUri() != null) {
+			return params.getRootUri();
+		} else if (params.getRootPath() != null) {
+			return Paths.get(params.getRootPath()).toUri().toString();
+		}
+		return null;
+	}
+	
+	@Override
+	public void initialized(InitializedParams params) {
+		telemetryReporter.start();
+		sharedResources.getMemoryAccounting().start();
+		if (rootUri != null && WorkspaceCacheDirectory.isEnabled()) {
+			diagnosticCache = sharedResources.getDiagnosticCache(rootUri);
+		}
+		if (rootUri != null && WorkspaceValidator.isEnabled()) {
+			workspaceValidator = new WorkspaceValidator(this, new DiagnosticService(getTextDocumentService().getCamelCatalog(), this));
+			workspaceValidator.start(rootUri);
+		}
+		if (workspaceIndexer != null) {
+			workspaceIndexer.start(rootUri);
+		}
+	}
+
 	private ServerCapabilities createServerCapabilities() {
 		ServerCapabilities capabilities = new ServerCapabilities();
 		capabilities.setTextDocumentSync(TextDocumentSyncKind.Full);
 		capabilities.setCompletionProvider(new CompletionOptions(Boolean.TRUE, Arrays.asList(".","?","&", "\"", "=")));
 		capabilities.setHoverProvider(Boolean.TRUE);
 		capabilities.setDocumentSymbolProvider(Boolean.TRUE);
+		capabilities.setWorkspaceSymbolProvider(workspaceIndexer != null);
+		capabilities.setReferencesProvider(workspaceIndexer != null);
+		capabilities.setDefinitionProvider(workspaceIndexer != null);
+		capabilities.setExecuteCommandProvider(new ExecuteCommandOptions(CamelWorkspaceService.COMMANDS));
 		return capabilities;
 	}
 
 	@Override
 	public CompletableFuture<Object> shutdown() {
+		if (workspaceValidator != null) {
+			workspaceValidator.stop();
+		}
+		if (workspaceIndexer != null) {
+			workspaceIndexer.stop();
+		}
+		diagnosticsDispatcher.stop();
+		telemetryReporter.stop();
+		sharedResources.getMemoryAccounting().unregister(getTextDocumentService());
+		sharedResources.getMemoryAccounting().unregister(diagnosticsDispatcher);
+		sharedResources.getMemoryAccounting().unregister(workspaceSymbolIndex);
+		if (ownsSharedResources) {
+			sharedResources.shutdown();
+		}
+		requestBudgets.shutdown();
 		super.shutdownServer();
 		return CompletableFuture.completedFuture(new Object());
 	}
 	
+	/**
+	 * Dumps the spans of the last traced requests.
+	 */
+	@JsonRequest("camel/traces")
+	public CompletableFuture<List<RequestSpan>> traces() {
+		return CompletableFuture.completedFuture(requestTracer.getSpans());
+	}
+	
+	/**
+	 * @return the latency histograms of the methods and phases, the budget overruns and the executor metrics
+	 */
+	@JsonRequest("camel/metrics")
+	public CompletableFuture<Map<String, Object>> metrics() {
+		return CompletableFuture.completedFuture(getMetrics());
+	}
+	
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>(LatencyMetrics.getInstance().toMap());
+		metrics.put("budgetExceeded", requestMetrics.getBudgetExceededCounts());
+		Map<String, Object> executors = new LinkedHashMap<>();
+		for (ExecutorMetrics executorMetrics : getExecutors().getMetrics()) {
+			executors.put(executorMetrics.getName(), executorMetrics.toMap());
+		}
+		metrics.put("executors", executors);
+		return metrics;
+	}
+	
 	@Override
 	public WorkspaceService getWorkspaceService() {
 		return super.getWorkspaceService();
@@ -125,4 +264,85 @@ public class CamelLanguageServer extends AbstractLanguageServer implements Langu
 		return client;
 	}
 	
+	/**
+	 * @return the executors running the interactive, structural and background work of the server
+	 */
+	public ServerExecutors getExecutors() {
+		return sharedResources.getExecutors();
+	}
+	
+	public SharedServerResources getSharedResources() {
+		return sharedResources;
+	}
+	
+	/**
+	 * @return identifies this session among the ones sharing the same resources
+	 */
+	public int getSessionId() {
+		return sessionId;
+	}
+	
+	/**
+	 * @param exitHandler called on exit notification, terminates the JVM by default
+	 */
+	public void setExitHandler(Runnable exitHandler) {
+		this.exitHandler = exitHandler;
+	}
+	
+	/**
+	 * @return the latency budgets applied to interactive requests
+	 */
+	public RequestBudgets getRequestBudgets() {
+		return requestBudgets;
+	}
+	
+	/**
+	 * @return the per method counters of the requests answered by the server
+	 */
+	public RequestMetrics getRequestMetrics() {
+		return requestMetrics;
+	}
+	
+	/**
+	 * @return the spans of the last sampled requests
+	 */
+	public RequestTracer getRequestTracer() {
+		return requestTracer;
+	}
+	
+	/**
+	 * @return the queue through which all diagnostics are sent to the client
+	 */
+	public DiagnosticsDispatcher getDiagnosticsDispatcher() {
+		return diagnosticsDispatcher;
+	}
+	
+	/**
+	 * @return the persistent diagnostic cache of the workspace, null if there is no workspace or if the cache is disabled
+	 */
+	public DiagnosticCache getDiagnosticCache() {
+		return diagnosticCache;
+	}
+	
+	/**
+	 * @return the route ids and endpoint URIs of the workspace
+	 */
+	public WorkspaceSymbolIndex getWorkspaceSymbolIndex() {
+		return workspaceSymbolIndex;
+	}
+	
+	/**
+	 * @return keeps the symbol index up to date, null if the indexing of the workspace is disabled
+	 */
+	public WorkspaceIndexer getWorkspaceIndexer() {
+		return workspaceIndexer;
+	}
+	
+	/**
+	 * @return the root uri of the workspace provided by the client on initialization, null if none
+	 */
+	public String getRootUri() {
+		return rootUri;
+	}
+	
 }
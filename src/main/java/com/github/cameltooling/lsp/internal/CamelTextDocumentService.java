@@ -17,13 +17,14 @@
 package com.github.cameltooling.lsp.internal;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.catalog.CamelCatalog;
-import org.apache.camel.catalog.DefaultCamelCatalog;
 import org.eclipse.lsp4j.CodeActionParams;
 import org.eclipse.lsp4j.CodeLens;
 import org.eclipse.lsp4j.CodeLensParams;
@@ -56,149 +57,315 @@ import org.eclipse.lsp4j.services.TextDocumentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.cameltooling.lsp.internal.catalog.StagedCatalogLoader;
 import com.github.cameltooling.lsp.internal.completion.CamelEndpointCompletionProcessor;
+import com.github.cameltooling.lsp.internal.definition.DefinitionProcessor;
 import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
 import com.github.cameltooling.lsp.internal.documentsymbol.DocumentSymbolProcessor;
+import com.github.cameltooling.lsp.internal.executor.CancellableRequest;
+import com.github.cameltooling.lsp.internal.executor.RequestBudgets;
+import com.github.cameltooling.lsp.internal.executor.ServerExecutors;
 import com.github.cameltooling.lsp.internal.hover.HoverProcessor;
+import com.github.cameltooling.lsp.internal.index.IndexedSymbol;
+import com.github.cameltooling.lsp.internal.index.WorkspaceIndexer;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccountable;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+import com.github.cameltooling.lsp.internal.memory.MemoryEstimates;
+import com.github.cameltooling.lsp.internal.references.ReferencesProcessor;
+import com.github.cameltooling.lsp.internal.trace.RequestSpan;
+import com.github.cameltooling.lsp.internal.trace.RequestTracer;
 
 /**
  * @author lhein
  */
-public class CamelTextDocumentService implements TextDocumentService {
+public class CamelTextDocumentService implements TextDocumentService, MemoryAccountable {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CamelTextDocumentService.class);
-	private Map<String, TextDocumentItem> openedDocuments = new HashMap<>();
+	private Map<String, TextDocumentItem> openedDocuments = new ConcurrentHashMap<>();
+	private StagedCatalogLoader catalogLoader;
 	private CompletableFuture<CamelCatalog> camelCatalog;
+	private AtomicInteger interactiveRequestsInProgress = new AtomicInteger();
 	private CamelLanguageServer camelLanguageServer;
 
 	public CamelTextDocumentService(CamelLanguageServer camelLanguageServer) {
 		this.camelLanguageServer = camelLanguageServer;
-		camelCatalog = CompletableFuture.supplyAsync(() -> new DefaultCamelCatalog(true));
+		catalogLoader = camelLanguageServer.getSharedResources().getCatalogLoader();
+		camelCatalog = catalogLoader.getCatalog();
 	}
 
 	@Override
 	public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams completionParams) {
 		String uri = completionParams.getTextDocument().getUri();
-		LOGGER.info("completion: {}", uri);
 		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
-		return new CamelEndpointCompletionProcessor(textDocumentItem, camelCatalog).getCompletions(completionParams.getPosition()).thenApply(Either::forLeft);
+		RequestSpan span = startSpan("completion", uri, textDocumentItem);
+		CompletableFuture<Either<List<CompletionItem>, CompletionList>> request = CancellableRequest.composeAsync(getExecutors().getInteractive(), cancelChecker -> {
+			span.started();
+			return new CamelEndpointCompletionProcessor(textDocumentItem, camelCatalog).getCompletions(completionParams.getPosition(), cancelChecker).thenApply(Either::forLeft);
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return trackInteractiveRequest(camelLanguageServer.getRequestBudgets().withBudget(RequestBudgets.COMPLETION, request, () -> {
+			span.budgetExceeded();
+			return Either.forRight(new CompletionList(true, Collections.emptyList()));
+		}));
 	}
 
 	@Override
 	public CompletableFuture<CompletionItem> resolveCompletionItem(CompletionItem unresolved) {
-		LOGGER.info("resolveCompletionItem: {}", unresolved.getDetail());
+		getTracer().trace("resolveCompletionItem", null, null);
 		return CompletableFuture.completedFuture(unresolved);
 	}
 
 	@Override
 	public CompletableFuture<Hover> hover(TextDocumentPositionParams position) {
-		LOGGER.info("hover: {}", position.getTextDocument());
-		TextDocumentItem textDocumentItem = openedDocuments.get(position.getTextDocument().getUri());
-		return new HoverProcessor(textDocumentItem, camelCatalog).getHover(position.getPosition());
+		String uri = position.getTextDocument().getUri();
+		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
+		RequestSpan span = startSpan("hover", uri, textDocumentItem);
+		CompletableFuture<Hover> request = CancellableRequest.composeAsync(getExecutors().getInteractive(), cancelChecker -> {
+			span.started();
+			return new HoverProcessor(textDocumentItem, camelCatalog).getHover(position.getPosition(), cancelChecker);
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return trackInteractiveRequest(camelLanguageServer.getRequestBudgets().withBudget(RequestBudgets.HOVER, request, () -> {
+			span.budgetExceeded();
+			return null;
+		}));
 	}
 
 	@Override
 	public CompletableFuture<SignatureHelp> signatureHelp(TextDocumentPositionParams position) {
-		LOGGER.info("signatureHelp: {}", position.getTextDocument());
+		getTracer().trace("signatureHelp", position.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(null);
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Location>> definition(TextDocumentPositionParams position) {
-		LOGGER.info("definition: {}", position.getTextDocument());
-		return CompletableFuture.completedFuture(Collections.emptyList());
+		String uri = position.getTextDocument().getUri();
+		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
+		RequestSpan span = startSpan("definition", uri, textDocumentItem);
+		CompletableFuture<List<? extends Location>> request = CancellableRequest.computeAsync(getExecutors().getStructural(), cancelChecker -> {
+			span.started();
+			return new DefinitionProcessor(camelLanguageServer.getWorkspaceSymbolIndex()).getDefinitions(uri, getDocumentSymbols(uri, textDocumentItem), position.getPosition());
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return request;
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
-		LOGGER.info("references: {}", params.getTextDocument());
-		return CompletableFuture.completedFuture(Collections.emptyList());
+		String uri = params.getTextDocument().getUri();
+		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
+		RequestSpan span = startSpan("references", uri, textDocumentItem);
+		boolean includeDeclaration = params.getContext() == null || params.getContext().isIncludeDeclaration();
+		CompletableFuture<List<? extends Location>> request = CancellableRequest.computeAsync(getExecutors().getStructural(), cancelChecker -> {
+			span.started();
+			return new ReferencesProcessor(camelLanguageServer.getWorkspaceSymbolIndex()).getReferences(uri, getDocumentSymbols(uri, textDocumentItem), params.getPosition(), includeDeclaration);
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return request;
 	}
 
 	@Override
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(TextDocumentPositionParams position) {
-		LOGGER.info("documentHighlight: {}", position.getTextDocument());
+		getTracer().trace("documentHighlight", position.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<List<? extends SymbolInformation>> documentSymbol(DocumentSymbolParams params) {
-		LOGGER.info("documentSymbol: {}", params.getTextDocument());
-		return new DocumentSymbolProcessor(openedDocuments.get(params.getTextDocument().getUri())).getDocumentSymbols();
+		String uri = params.getTextDocument().getUri();
+		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
+		RequestSpan span = startSpan("documentSymbol", uri, textDocumentItem);
+		CompletableFuture<List<? extends SymbolInformation>> request = CancellableRequest.computeAsync(getExecutors().getStructural(), cancelChecker -> {
+			span.started();
+			return new DocumentSymbolProcessor(textDocumentItem).getDocumentSymbols(cancelChecker);
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return request;
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Command>> codeAction(CodeActionParams params) {
-		LOGGER.info("codeAction: {}", params.getTextDocument());
+		getTracer().trace("codeAction", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
-		LOGGER.info("codeLens: {}", params.getTextDocument());
+		getTracer().trace("codeLens", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
-		LOGGER.info("resolveCodeLens: {}", unresolved.getCommand().getCommand());
+		getTracer().trace("resolveCodeLens", null, null);
 		return CompletableFuture.completedFuture(null);
 	}
 
 	@Override
 	public CompletableFuture<List<? extends TextEdit>> formatting(DocumentFormattingParams params) {
-		LOGGER.info("formatting: {}", params.getTextDocument());
+		getTracer().trace("formatting", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<List<? extends TextEdit>> rangeFormatting(DocumentRangeFormattingParams params) {
-		LOGGER.info("rangeFormatting: {}", params.getTextDocument());
+		getTracer().trace("rangeFormatting", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<List<? extends TextEdit>> onTypeFormatting(DocumentOnTypeFormattingParams params) {
-		LOGGER.info("onTypeFormatting: {}", params.getTextDocument());
+		getTracer().trace("onTypeFormatting", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	@Override
 	public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
-		LOGGER.info("rename: {}", params.getTextDocument());
+		getTracer().trace("rename", params.getTextDocument().getUri(), null);
 		return CompletableFuture.completedFuture(null);
 	}
 
 	@Override
 	public void didOpen(DidOpenTextDocumentParams params) {
 		TextDocumentItem textDocument = params.getTextDocument();
-		LOGGER.info("didOpen: {}", textDocument);
+		RequestSpan span = startSpan("didOpen", textDocument.getUri(), textDocument);
 		openedDocuments.put(textDocument.getUri(), textDocument);
+		catalogLoader.warmUp(textDocument.getText());
+		getExecutors().documentVersionChanged(versionKey(textDocument.getUri()), textDocument.getVersion());
+		indexDocument(textDocument);
+		span.finished();
 	}
 
 	@Override
 	public void didChange(DidChangeTextDocumentParams params) {
-		LOGGER.info("didChange: {}", params.getTextDocument());
+		Integer version = params.getTextDocument().getVersion();
+		RequestSpan span = getTracer().start("didChange", params.getTextDocument().getUri(), version);
 		List<TextDocumentContentChangeEvent> contentChanges = params.getContentChanges();
-		TextDocumentItem textDocumentItem = openedDocuments.get(params.getTextDocument().getUri());
-		if (!contentChanges.isEmpty()) {
-			textDocumentItem.setText(contentChanges.get(0).getText());
+		// the stored item is replaced rather than updated, requests in progress keep the text they started with
+		TextDocumentItem textDocumentItem = openedDocuments.computeIfPresent(params.getTextDocument().getUri(), (uri, current) -> new TextDocumentItem(uri, current.getLanguageId(),
+				version != null ? version : current.getVersion(),
+				contentChanges.isEmpty() ? current.getText() : contentChanges.get(0).getText()));
+		if (textDocumentItem != null && version != null) {
+			getExecutors().documentVersionChanged(versionKey(textDocumentItem.getUri()), version);
 		}
+		if (textDocumentItem != null) {
+			indexDocument(textDocumentItem);
+		}
+		span.finished();
 	}
 
 	@Override
 	public void didClose(DidCloseTextDocumentParams params) {
-		LOGGER.info("didClose: {}", params.getTextDocument());
+		getTracer().trace("didClose", params.getTextDocument().getUri(), null);
 		openedDocuments.remove(params.getTextDocument().getUri());
+		getExecutors().documentClosed(versionKey(params.getTextDocument().getUri()));
+		WorkspaceIndexer indexer = camelLanguageServer.getWorkspaceIndexer();
+		if (indexer != null) {
+			indexer.documentClosed(params.getTextDocument().getUri());
+		}
 	}
 
 	@Override
 	public void didSave(DidSaveTextDocumentParams params) {
-		LOGGER.info("didSave: {}", params.getTextDocument());
-		new DiagnosticService(camelCatalog, camelLanguageServer).compute(params);
+		String uri = params.getTextDocument().getUri();
+		TextDocumentItem textDocumentItem = openedDocuments.get(uri);
+		Integer version = textDocumentItem != null ? textDocumentItem.getVersion() : null;
+		RequestSpan span = getTracer().start("didSave", uri, version);
+		try {
+			// not tagged with the version: the validation reads the latest editor content when it runs, so an edit does not make it outdated
+			getExecutors().submitBackground(versionKey(uri), null, () -> {
+				span.started();
+				try {
+					new DiagnosticService(camelCatalog, camelLanguageServer).compute(params);
+					span.finished();
+				} catch (RuntimeException e) {
+					span.finished(e);
+					throw e;
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			span.finished(e);
+			LOGGER.warn("Cannot validate {}: {}", uri, e.getMessage());
+		}
 	}
 	
 	public TextDocumentItem getOpenedDocument(String uri) {
 		return openedDocuments.get(uri);
 	}
+	
+	@Override
+	public String getMemoryPoolName() {
+		return MemoryAccounting.DOCUMENTS;
+	}
+	
+	@Override
+	public int getEntryCount() {
+		return openedDocuments.size();
+	}
+	
+	/**
+	 * Opened documents belong to the client until they are closed, they are accounted but never evicted.
+	 */
+	@Override
+	public long getEstimatedBytes() {
+		long bytes = 0;
+		for (TextDocumentItem document : openedDocuments.values()) {
+			bytes += MemoryEstimates.MAP_ENTRY + MemoryEstimates.ofDocument(document);
+		}
+		return bytes;
+	}
+	
+	public CompletableFuture<CamelCatalog> getCamelCatalog() {
+		return camelCatalog;
+	}
+	
+	public StagedCatalogLoader getCatalogLoader() {
+		return catalogLoader;
+	}
+	
+	/**
+	 * @return the number of completion and hover requests not answered yet, background work is expected to yield to them
+	 */
+	public int getInteractiveRequestsInProgress() {
+		return interactiveRequestsInProgress.get();
+	}
+	
+	/**
+	 * Versions are numbered by each client, the executors may be shared by several sessions.
+	 */
+	private String versionKey(String uri) {
+		return camelLanguageServer.getSessionId() + "@" + uri;
+	}
+	
+	private List<IndexedSymbol> getDocumentSymbols(String uri, TextDocumentItem textDocumentItem) {
+		WorkspaceIndexer indexer = camelLanguageServer.getWorkspaceIndexer();
+		return indexer != null ? indexer.getDocumentSymbols(uri, textDocumentItem) : Collections.emptyList();
+	}
+	
+	private void indexDocument(TextDocumentItem textDocument) {
+		WorkspaceIndexer indexer = camelLanguageServer.getWorkspaceIndexer();
+		if (indexer != null) {
+			indexer.documentChanged(versionKey(textDocument.getUri()), textDocument);
+		}
+	}
+	
+	private RequestTracer getTracer() {
+		return camelLanguageServer.getRequestTracer();
+	}
+	
+	private RequestSpan startSpan(String method, String uri, TextDocumentItem textDocumentItem) {
+		return getTracer().start(method, uri, textDocumentItem != null ? textDocumentItem.getVersion() : null);
+	}
+	
+	private ServerExecutors getExecutors() {
+		return camelLanguageServer.getExecutors();
+	}
+	
+	private <T> CompletableFuture<T> trackInteractiveRequest(CompletableFuture<T> request) {
+		if (!request.isDone()) {
+			interactiveRequestsInProgress.incrementAndGet();
+			request.whenComplete((result, exception) -> interactiveRequestsInProgress.decrementAndGet());
+		}
+		return request;
+	}
 }
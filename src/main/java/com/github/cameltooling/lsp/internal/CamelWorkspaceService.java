@@ -16,12 +16,15 @@
  */
 package com.github.cameltooling.lsp.internal;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.ExecuteCommandParams;
 import org.eclipse.lsp4j.FileEvent;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
@@ -29,17 +32,54 @@ import org.eclipse.lsp4j.services.WorkspaceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.cameltooling.lsp.internal.executor.CancellableRequest;
+import com.github.cameltooling.lsp.internal.index.IndexedSymbol;
+import com.github.cameltooling.lsp.internal.index.WorkspaceIndexer;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+import com.github.cameltooling.lsp.internal.trace.RequestSpan;
+
 /**
  * @author lhein
  */
 public class CamelWorkspaceService implements WorkspaceService {
 	
+	/**
+	 * Returns the estimated footprint of the memory pools of the server.
+	 */
+	public static final String MEMORY_COMMAND = "camel.memory";
+	/**
+	 * Evicts entries of the memory pools over their soft limit, then returns the footprint of the pools.
+	 */
+	public static final String MEMORY_TRIM_COMMAND = "camel.memory.trim";
+	/**
+	 * Maximum number of symbols returned for a workspace symbol query, the client filters them further while the user types.
+	 */
+	public static final int MAX_WORKSPACE_SYMBOLS = 1000;
+	public static final List<String> COMMANDS = Collections.unmodifiableList(Arrays.asList(MEMORY_COMMAND, MEMORY_TRIM_COMMAND));
+	
 	private static final Logger LOGGER = LoggerFactory.getLogger(CamelWorkspaceService.class);
+	
+	private final CamelLanguageServer camelLanguageServer;
+	
+	public CamelWorkspaceService(CamelLanguageServer camelLanguageServer) {
+		this.camelLanguageServer = camelLanguageServer;
+	}
 
 	@Override
 	public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams params) {
-		LOGGER.info("SERVER: symbolQuery: {}", params.getQuery());
-		return CompletableFuture.completedFuture(Collections.emptyList());
+		RequestSpan span = camelLanguageServer.getRequestTracer().start("workspaceSymbol", null, null);
+		if (camelLanguageServer.getWorkspaceIndexer() == null) {
+			span.finished();
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		CompletableFuture<List<? extends SymbolInformation>> request = CancellableRequest.computeAsync(camelLanguageServer.getExecutors().getStructural(), cancelChecker -> {
+			span.started();
+			List<IndexedSymbol> symbols = camelLanguageServer.getWorkspaceSymbolIndex().search(params.getQuery(), MAX_WORKSPACE_SYMBOLS);
+			cancelChecker.checkCanceled();
+			return symbols.stream().map(IndexedSymbol::toSymbolInformation).collect(Collectors.toList());
+		});
+		request.whenComplete((result, exception) -> span.finished(exception));
+		return request;
 	}
 
 	@Override
@@ -50,7 +90,27 @@ public class CamelWorkspaceService implements WorkspaceService {
 
 	@Override
 	public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
-		List<FileEvent> settings = params.getChanges();
-		LOGGER.info("SERVER: changeWatchedFiles: size -> {}", settings.size());
+		List<FileEvent> changes = params.getChanges();
+		LOGGER.info("SERVER: changeWatchedFiles: size -> {}", changes.size());
+		WorkspaceIndexer indexer = camelLanguageServer.getWorkspaceIndexer();
+		if (indexer != null) {
+			indexer.filesChanged(changes);
+		}
+	}
+	
+	@Override
+	public CompletableFuture<Object> executeCommand(ExecuteCommandParams params) {
+		MemoryAccounting memoryAccounting = camelLanguageServer.getSharedResources().getMemoryAccounting();
+		switch (params.getCommand()) {
+		case MEMORY_TRIM_COMMAND:
+			memoryAccounting.enforceSoftLimits();
+			return CompletableFuture.completedFuture(memoryAccounting.toMap());
+		case MEMORY_COMMAND:
+			return CompletableFuture.completedFuture(memoryAccounting.toMap());
+		default:
+			CompletableFuture<Object> unknownCommand = new CompletableFuture<>();
+			unknownCommand.completeExceptionally(new IllegalArgumentException("Unknown command " + params.getCommand()));
+			return unknownCommand;
+		}
 	}
 }
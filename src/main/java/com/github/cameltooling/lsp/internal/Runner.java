@@ -16,17 +16,43 @@
  */
 package com.github.cameltooling.lsp.internal;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.services.LanguageClient;
 
+import com.github.cameltooling.lsp.internal.metrics.SerializationTiming;
+import com.github.cameltooling.lsp.internal.replay.SessionRecorder;
+
 /**
  * @author lhein
  */
 public class Runner {
 
-	public static void main(String[] args) {
+	private static final String SOCKET_OPTION = "--socket";
+	private static final String RECORD_OPTION = "--record";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 2 && SOCKET_OPTION.equals(args[0])) {
+			SocketServer socketServer = new SocketServer();
+			socketServer.start(Integer.parseInt(args[1]));
+			socketServer.acceptConnections();
+			return;
+		}
+		InputStream in = System.in;
+		OutputStream out = System.out;
+		if (args.length == 2 && RECORD_OPTION.equals(args[0])) {
+			SessionRecorder recorder = new SessionRecorder(Paths.get(args[1]));
+			in = recorder.record(in);
+			out = recorder.record(out);
+		}
 		CamelLanguageServer server = new CamelLanguageServer();
-		Launcher<LanguageClient> launcher = Launcher.createLauncher(server, LanguageClient.class, System.in, System.out);
+		Launcher<LanguageClient> launcher = Launcher.createLauncher(server, LanguageClient.class, in, out,
+				Executors.newCachedThreadPool(), new SerializationTiming());
 		server.connect(launcher.getRemoteProxy());
 		launcher.startListening();
 	}
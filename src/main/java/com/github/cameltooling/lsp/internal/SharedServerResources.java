@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+import com.github.cameltooling.lsp.internal.catalog.StagedCatalogLoader;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticCache;
+import com.github.cameltooling.lsp.internal.executor.ServerExecutors;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+
+/**
+ * Resources shared by all the sessions served by the same process: the executors, the Camel catalog with its
+ * component models, the diagnostic caches of the workspaces and the memory accounting. Documents stay isolated in each session.
+ */
+public class SharedServerResources {
+	
+	private final ServerExecutors executors = new ServerExecutors();
+	private final MemoryAccounting memoryAccounting = new MemoryAccounting();
+	private final StagedCatalogLoader catalogLoader = new StagedCatalogLoader(executors.getBackground(), memoryAccounting);
+	private final Map<String, DiagnosticCache> diagnosticCaches = new ConcurrentHashMap<>();
+	
+	public ServerExecutors getExecutors() {
+		return executors;
+	}
+	
+	public StagedCatalogLoader getCatalogLoader() {
+		return catalogLoader;
+	}
+	
+	/**
+	 * @return the estimated footprint of the catalog and of the documents and diagnostics of every session
+	 */
+	public MemoryAccounting getMemoryAccounting() {
+		return memoryAccounting;
+	}
+	
+	/**
+	 * @return the persistent diagnostic cache of the workspace, shared by all sessions opened on it
+	 */
+	public DiagnosticCache getDiagnosticCache(String rootUri) {
+		return diagnosticCaches.computeIfAbsent(rootUri,
+				uri -> new DiagnosticCache(new WorkspaceCacheDirectory(uri).resolve("diagnostics"), WorkspaceCacheDirectory.getServerVersion()));
+	}
+	
+	public void shutdown() {
+		memoryAccounting.stop();
+		executors.shutdown();
+	}
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.metrics.SerializationTiming;
+
+/**
+ * Serves many LSP connections from one long-lived process, for instance several editor windows.
+ * Each connection gets its own {@link CamelLanguageServer} session with its own opened documents,
+ * while the catalog, the executors and the caches are shared through {@link SharedServerResources}.
+ * 
+ * The server only listens on the loopback interface.
+ */
+public class SocketServer {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(SocketServer.class);
+	
+	private final SharedServerResources sharedResources = new SharedServerResources();
+	private final AtomicInteger sessionCount = new AtomicInteger();
+	private final ExecutorService sessionWatchers = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Camel LSP session watcher");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private ServerSocket serverSocket;
+	
+	/**
+	 * @param port the port to listen on, 0 to pick a free one
+	 * @return the port listened on
+	 */
+	public int start(int port) throws IOException {
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		LOGGER.info("Camel Language Server listening on port {}", serverSocket.getLocalPort());
+		return serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * Accepts connections until the server socket is closed.
+	 */
+	public void acceptConnections() {
+		while (!serverSocket.isClosed()) {
+			try {
+				startSession(serverSocket.accept());
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					LOGGER.warn("Cannot accept connection", e);
+				}
+			}
+		}
+	}
+	
+	public int getSessionCount() {
+		return sessionCount.get();
+	}
+	
+	public void stop() {
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			LOGGER.debug("Cannot close server socket", e);
+		}
+		sessionWatchers.shutdownNow();
+		sharedResources.shutdown();
+	}
+
+	private void startSession(Socket socket) throws IOException {
+		CamelLanguageServer server = new CamelLanguageServer(sharedResources);
+		server.setExitHandler(() -> close(socket));
+		ExecutorService messageExecutor = Executors.newCachedThreadPool();
+		Launcher<LanguageClient> launcher = Launcher.createLauncher(server, LanguageClient.class, socket.getInputStream(), socket.getOutputStream(),
+				messageExecutor, new SerializationTiming());
+		server.connect(launcher.getRemoteProxy());
+		sessionCount.incrementAndGet();
+		LOGGER.info("Session {} opened from {}", server.getSessionId(), socket.getRemoteSocketAddress());
+		sessionWatchers.execute(() -> {
+			try {
+				launcher.startListening().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				LOGGER.debug("Session " + server.getSessionId() + " ended abnormally", e);
+			} finally {
+				server.shutdown();
+				// a client disconnecting without exit notification must not leave its parent process watched
+				server.stopServer();
+				close(socket);
+				messageExecutor.shutdown();
+				sessionCount.decrementAndGet();
+				LOGGER.info("Session {} closed", server.getSessionId());
+			}
+		});
+	}
+
+	private void close(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			LOGGER.debug("Cannot close socket", e);
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+
+/**
+ * Location of the data persisted by the server for a given workspace.
+ * By default, it is stored in the user home so that nothing is written inside the workspace itself.
+ */
+public class WorkspaceCacheDirectory {
+	
+	public static final String CACHE_DIRECTORY_PROPERTY = "camel.lsp.cache.dir";
+	public static final String ENABLED_PROPERTY = "camel.lsp.cache";
+	private static final String DEVELOPMENT_VERSION = "dev";
+	
+	private final Path directory;
+
+	public WorkspaceCacheDirectory(String rootUri) {
+		String baseDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY, Paths.get(System.getProperty("user.home"), ".camel-lsp", "cache").toString());
+		this.directory = Paths.get(baseDirectory, hash(rootUri));
+	}
+	
+	public static boolean isEnabled() {
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.TRUE.toString()));
+	}
+	
+	public Path getDirectory() {
+		return directory;
+	}
+	
+	public Path resolve(String name) {
+		return directory.resolve(name);
+	}
+	
+	/**
+	 * @return the version of the server, used to invalidate persisted data produced by another version
+	 */
+	public static String getServerVersion() {
+		String version = CamelLanguageServer.class.getPackage().getImplementationVersion();
+		return version != null ? version : DEVELOPMENT_VERSION;
+	}
+
+	/**
+	 * @param content the content to hash
+	 * @return the hexadecimal SHA-256 of the content
+	 */
+	public static String hash(String content) {
+		return hash(content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is a mandatory algorithm of the Java platform", e);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+
+import com.github.cameltooling.lsp.internal.memory.MemoryAccountable;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+import com.github.cameltooling.lsp.internal.memory.MemoryEstimates;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
+import com.github.cameltooling.model.ComponentModel;
+import com.github.cameltooling.model.util.ModelHelper;
+
+/**
+ * Camel catalog keeping the component models generated from the JSON schemas, so that each schema is parsed only once
+ * whether it is requested by a feature or preloaded by the {@link StagedCatalogLoader}.
+ * The least recently used models are evicted when the cache goes over its soft limit, they are generated again on demand.
+ */
+public class CachingCamelCatalog extends DefaultCamelCatalog implements MemoryAccountable {
+	
+	private final Map<String, CachedModel> componentModels = new ConcurrentHashMap<>();
+	private final AtomicLong accessClock = new AtomicLong();
+	private final AtomicLong estimatedBytes = new AtomicLong();
+
+	public CachingCamelCatalog() {
+		super(true);
+	}
+	
+	/**
+	 * @return the model of the component, generated from its JSON schema if not loaded yet
+	 */
+	public ComponentModel getComponentModel(String componentName) {
+		CachedModel cachedModel = componentModels.computeIfAbsent(componentName, this::generateComponentModel);
+		cachedModel.lastAccess = accessClock.incrementAndGet();
+		return cachedModel.model;
+	}
+
+	private CachedModel generateComponentModel(String componentName) {
+		String schema = componentJSonSchema(componentName);
+		// the model keeps most of the schema text, split in descriptions, names and default values
+		CachedModel cachedModel = new CachedModel(ModelHelper.generateComponentModel(schema, true),
+				MemoryEstimates.MAP_ENTRY + MemoryEstimates.ofString(componentName) + MemoryEstimates.ofString(schema));
+		estimatedBytes.addAndGet(cachedModel.estimatedBytes);
+		return cachedModel;
+	}
+	
+	public boolean isComponentModelLoaded(String componentName) {
+		return componentModels.containsKey(componentName);
+	}
+	
+	public int getLoadedComponentModelCount() {
+		return componentModels.size();
+	}
+	
+	@Override
+	public String getMemoryPoolName() {
+		return MemoryAccounting.COMPONENT_MODELS;
+	}
+	
+	@Override
+	public int getEntryCount() {
+		return componentModels.size();
+	}
+	
+	@Override
+	public long getEstimatedBytes() {
+		return estimatedBytes.get();
+	}
+	
+	@Override
+	public int evictTo(long targetBytes) {
+		// the access times are copied so that the order does not change while sorting
+		Map<CachedModel, Long> lastAccesses = new IdentityHashMap<>();
+		List<Map.Entry<String, CachedModel>> entries = new ArrayList<>(componentModels.entrySet());
+		for (Map.Entry<String, CachedModel> entry : entries) {
+			lastAccesses.put(entry.getValue(), entry.getValue().lastAccess);
+		}
+		entries.sort(Comparator.comparing(entry -> lastAccesses.get(entry.getValue())));
+		int evicted = 0;
+		for (Map.Entry<String, CachedModel> entry : entries) {
+			if (estimatedBytes.get() <= targetBytes) {
+				break;
+			}
+			if (componentModels.remove(entry.getKey(), entry.getValue())) {
+				estimatedBytes.addAndGet(-entry.getValue().estimatedBytes);
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+	
+	/**
+	 * @return the model of the component, from the cache when the catalog is a {@link CachingCamelCatalog}
+	 */
+	public static ComponentModel getComponentModel(CamelCatalog camelCatalog, String componentName) {
+		long start = System.nanoTime();
+		ComponentModel componentModel;
+		if (camelCatalog instanceof CachingCamelCatalog) {
+			componentModel = ((CachingCamelCatalog) camelCatalog).getComponentModel(componentName);
+		} else {
+			componentModel = ModelHelper.generateComponentModel(camelCatalog.componentJSonSchema(componentName), true);
+		}
+		LatencyMetrics.recordPhase(LatencyMetrics.MODEL_LOOKUP, start);
+		return componentModel;
+	}
+	
+	private static final class CachedModel {
+		
+		private final ComponentModel model;
+		private final long estimatedBytes;
+		private volatile long lastAccess;
+		
+		private CachedModel(ComponentModel model, long estimatedBytes) {
+			this.model = model;
+			this.estimatedBytes = estimatedBytes;
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+
+/**
+ * Loads the Camel catalog in stages so that features do not wait for every component schema:
+ * <ol>
+ * <li>the catalog and the list of component names, after which all features are available</li>
+ * <li>the models of the components referenced in opened documents</li>
+ * <li>the models of all other components, in small batches on the background executor</li>
+ * </ol>
+ * Component models not loaded yet are generated on demand by {@link CachingCamelCatalog}.
+ * The last stage stops early when the component models reach their soft limit.
+ */
+public class StagedCatalogLoader {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(StagedCatalogLoader.class);
+	private static final int BATCH_SIZE = 20;
+	
+	private final Executor executor;
+	private final MemoryAccounting memoryAccounting;
+	private final CompletableFuture<CachingCamelCatalog> catalog;
+	private final CompletableFuture<Void> fullyLoaded = new CompletableFuture<>();
+	private List<String> componentNames;
+
+	public StagedCatalogLoader(Executor executor) {
+		this(executor, new MemoryAccounting());
+	}
+
+	public StagedCatalogLoader(Executor executor, MemoryAccounting memoryAccounting) {
+		this.executor = executor;
+		this.memoryAccounting = memoryAccounting;
+		long start = System.nanoTime();
+		this.catalog = CompletableFuture.supplyAsync(() -> {
+			CachingCamelCatalog camelCatalog = new CachingCamelCatalog();
+			memoryAccounting.register(camelCatalog);
+			componentNames = new ArrayList<>(camelCatalog.findComponentNames());
+			LOGGER.info("Camel catalog {} with {} components available in {} ms", camelCatalog.getCatalogVersion(), componentNames.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			return camelCatalog;
+		}, executor);
+		catalog.thenRun(() -> loadBatch(0, start));
+	}
+	
+	/**
+	 * @return completed once the catalog and the component names are loaded
+	 */
+	public CompletableFuture<CamelCatalog> getCatalog() {
+		return catalog.thenApply(CamelCatalog.class::cast);
+	}
+	
+	/**
+	 * @return completed once the models of all components are loaded, or once the preloading stopped at the soft limit
+	 */
+	public CompletableFuture<Void> getFullyLoaded() {
+		return fullyLoaded;
+	}
+
+	/**
+	 * Loads first the models of the components referenced in the given document.
+	 */
+	public void warmUp(String documentText) {
+		if (documentText == null) {
+			return;
+		}
+		catalog.thenAccept(camelCatalog -> execute(() -> {
+			for (String componentName : componentNames) {
+				if (!camelCatalog.isComponentModelLoaded(componentName) && documentText.contains(componentName + ":")) {
+					loadComponentModel(camelCatalog, componentName);
+				}
+			}
+		}));
+	}
+
+	private void loadBatch(int index, long start) {
+		execute(() -> {
+			CachingCamelCatalog camelCatalog = catalog.join();
+			int end = Math.min(index + BATCH_SIZE, componentNames.size());
+			for (String componentName : componentNames.subList(index, end)) {
+				loadComponentModel(camelCatalog, componentName);
+			}
+			if (end < componentNames.size() && memoryAccounting.isOverSoftLimit(MemoryAccounting.COMPONENT_MODELS)) {
+				LOGGER.info("Camel component models preloading stopped at the soft limit, {} of {} components loaded", camelCatalog.getLoadedComponentModelCount(), componentNames.size());
+				fullyLoaded.complete(null);
+			} else if (end < componentNames.size()) {
+				loadBatch(end, start);
+			} else {
+				LOGGER.info("All {} Camel component models loaded in {} ms", componentNames.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				fullyLoaded.complete(null);
+			}
+		});
+	}
+
+	private void loadComponentModel(CachingCamelCatalog camelCatalog, String componentName) {
+		try {
+			camelCatalog.getComponentModel(componentName);
+		} catch (RuntimeException e) {
+			LOGGER.debug("Cannot load model of component " + componentName, e);
+		}
+	}
+
+	private void execute(Runnable task) {
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Camel catalog warm-up stopped: {}", e.getMessage());
+		}
+	}
+
+}
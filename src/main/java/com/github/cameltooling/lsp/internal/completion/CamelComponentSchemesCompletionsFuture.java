@@ -22,21 +22,33 @@ import java.util.stream.Collectors;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
-import com.github.cameltooling.model.util.ModelHelper;
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
+import com.github.cameltooling.model.ComponentModel;
 
 public final class CamelComponentSchemesCompletionsFuture implements Function<CamelCatalog, List<CompletionItem>> {
 	
 	private String filterString;
+	private CancelChecker cancelChecker;
 	
-	public CamelComponentSchemesCompletionsFuture(String filterText) {
+	public CamelComponentSchemesCompletionsFuture(String filterText, CancelChecker cancelChecker) {
 		this.filterString = filterText;
+		this.cancelChecker = cancelChecker;
 	}
 	
 	@Override
 	public List<CompletionItem> apply(CamelCatalog catalog) {
-		return catalog.findComponentNames().stream()
-				.map(componentName -> ModelHelper.generateComponentModel(catalog.componentJSonSchema(componentName), true))
+		List<ComponentModel> componentModels = catalog.findComponentNames().stream()
+				.filter(this::mayMatchFilter)
+				.map(componentName -> {
+					cancelChecker.checkCanceled();
+					return CachingCamelCatalog.getComponentModel(catalog, componentName);
+				})
+				.collect(Collectors.toList());
+		long filterStart = System.nanoTime();
+		List<CompletionItem> completionItems = componentModels.stream()
 				.map(componentModel -> {
 					CompletionItem completionItem = new CompletionItem(componentModel.getSyntax());
 					completionItem.setDocumentation(componentModel.getDescription());
@@ -45,5 +57,18 @@ public final class CamelComponentSchemesCompletionsFuture implements Function<Ca
 				})
 				.filter(FilterPredicateUtils.matchesCompletionFilter(filterString))
 				.collect(Collectors.toList());
+		LatencyMetrics.recordPhase(LatencyMetrics.FILTER, filterStart);
+		return completionItems;
+	}
+
+	/**
+	 * The syntax of a component starts with its name followed by a colon, components which cannot match the filter
+	 * are discarded before their model is loaded.
+	 */
+	private boolean mayMatchFilter(String componentName) {
+		if (filterString == null || filterString.trim().isEmpty()) {
+			return true;
+		}
+		return componentName.startsWith(filterString) || filterString.startsWith(componentName + ":");
 	}
 }
\ No newline at end of file
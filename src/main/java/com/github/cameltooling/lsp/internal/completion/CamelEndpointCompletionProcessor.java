@@ -18,17 +18,20 @@ package com.github.cameltooling.lsp.internal.completion;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.cameltooling.lsp.internal.instancemodel.CamelURIInstance;
 import com.github.cameltooling.lsp.internal.instancemodel.CamelUriElementInstance;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
 import com.github.cameltooling.lsp.internal.parser.ParserFileHelper;
 import com.github.cameltooling.lsp.internal.parser.ParserFileHelperFactory;
 
@@ -43,16 +46,22 @@ public class CamelEndpointCompletionProcessor {
 		this.camelCatalog = camelCatalog;
 	}
 
-	public CompletableFuture<List<CompletionItem>> getCompletions(Position position) {
+	public CompletableFuture<List<CompletionItem>> getCompletions(Position position, CancelChecker cancelChecker) {
 		if(textDocumentItem != null) {
 			try {
+				long parseStart = System.nanoTime();
 				ParserFileHelper parserFileHelper = new ParserFileHelperFactory().getCorrespondingParserFileHelper(textDocumentItem, position.getLine());
+				cancelChecker.checkCanceled();
 				if (parserFileHelper != null) {
 					String camelComponentUri = parserFileHelper.getCamelComponentUri(textDocumentItem, position);
 					CamelURIInstance camelURIInstance = parserFileHelper.createCamelURIInstance(textDocumentItem, position, camelComponentUri);
 					int positionInCamelUri = parserFileHelper.getPositionInCamelURI(textDocumentItem, position);
-					return getCompletions(camelURIInstance, positionInCamelUri);
+					LatencyMetrics.recordPhase(LatencyMetrics.PARSE, parseStart);
+					cancelChecker.checkCanceled();
+					return getCompletions(camelURIInstance, positionInCamelUri, cancelChecker);
 				}
+			} catch (CancellationException e) {
+				throw e;
 			} catch (Exception e) {
 				LOGGER.error("Error searching for corresponding node elements", e);
 			}
@@ -60,9 +69,9 @@ public class CamelEndpointCompletionProcessor {
 		return CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
-	private CompletableFuture<List<CompletionItem>> getCompletions(CamelURIInstance camelURIInstance, int positionInCamelUri) {
+	private CompletableFuture<List<CompletionItem>> getCompletions(CamelURIInstance camelURIInstance, int positionInCamelUri, CancelChecker cancelChecker) {
 		CamelUriElementInstance camelUriElementInstance = camelURIInstance.getSpecificElement(positionInCamelUri);
-		return camelUriElementInstance.getCompletions(camelCatalog, positionInCamelUri);
+		return camelUriElementInstance.getCompletions(camelCatalog, positionInCamelUri, cancelChecker);
 	}
 
 }
@@ -24,10 +24,12 @@ import java.util.stream.Stream;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
 import com.github.cameltooling.lsp.internal.instancemodel.OptionParamURIInstance;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
 import com.github.cameltooling.model.EndpointOptionModel;
-import com.github.cameltooling.model.util.ModelHelper;
 
 public class CamelOptionNamesCompletionsFuture implements Function<CamelCatalog, List<CompletionItem>>  {
 
@@ -36,19 +38,23 @@ public class CamelOptionNamesCompletionsFuture implements Function<CamelCatalog,
 	private String filterString;
 	private int positionInCamelURI;
 	private Set<OptionParamURIInstance> alreadyDefinedOptions;
+	private CancelChecker cancelChecker;
 
-	public CamelOptionNamesCompletionsFuture(String camelComponentName, boolean isProducer, String filterText, int positionInCamelURI, Set<OptionParamURIInstance> alreadyDefinedOptions) {
+	public CamelOptionNamesCompletionsFuture(String camelComponentName, boolean isProducer, String filterText, int positionInCamelURI, Set<OptionParamURIInstance> alreadyDefinedOptions, CancelChecker cancelChecker) {
 		this.camelComponentName = camelComponentName;
 		this.isProducer = isProducer;
 		this.filterString = filterText;
 		this.positionInCamelURI = positionInCamelURI;
 		this.alreadyDefinedOptions = alreadyDefinedOptions;
+		this.cancelChecker = cancelChecker;
 	}
 
 	@Override
 	public List<CompletionItem> apply(CamelCatalog catalog) {
-		Stream<EndpointOptionModel> endpointOptions = ModelHelper.generateComponentModel(catalog.componentJSonSchema(camelComponentName), true).getEndpointOptions().stream();
-		return endpointOptions
+		cancelChecker.checkCanceled();
+		Stream<EndpointOptionModel> endpointOptions = CachingCamelCatalog.getComponentModel(catalog, camelComponentName).getEndpointOptions().stream();
+		long filterStart = System.nanoTime();
+		List<CompletionItem> completionItems = endpointOptions
 				.filter(endpoint -> "parameter".equals(endpoint.getKind()))
 				// filter wrong option groups
 				.filter(FilterPredicateUtils.matchesProducerConsumerGroups(isProducer))
@@ -65,9 +71,12 @@ public class CamelOptionNamesCompletionsFuture implements Function<CamelCatalog,
 					return completionItem;
 				})
 				// filter duplicated uri options
+				.peek(completionItem -> cancelChecker.checkCanceled())
 				.filter(FilterPredicateUtils.removeDuplicatedOptions(alreadyDefinedOptions, positionInCamelURI))
 				.filter(FilterPredicateUtils.matchesCompletionFilter(filterString))
 				.collect(Collectors.toList());
+		LatencyMetrics.recordPhase(LatencyMetrics.FILTER, filterStart);
+		return completionItems;
 	}
 
 }
@@ -26,34 +26,47 @@ import java.util.stream.Stream;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
 import com.github.cameltooling.lsp.internal.instancemodel.OptionParamValueURIInstance;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
 import com.github.cameltooling.model.EndpointOptionModel;
-import com.github.cameltooling.model.util.ModelHelper;
 
 public class CamelOptionValuesCompletionsFuture implements Function<CamelCatalog, List<CompletionItem>> {
 
 	private static final String BOOLEAN_TYPE = "boolean";
 	private OptionParamValueURIInstance optionParamValueURIInstance;
 	private String filterString;
+	private CancelChecker cancelChecker;
 
-	public CamelOptionValuesCompletionsFuture(OptionParamValueURIInstance optionParamValueURIInstance, String filterText) {
+	public CamelOptionValuesCompletionsFuture(OptionParamValueURIInstance optionParamValueURIInstance, String filterText, CancelChecker cancelChecker) {
 		this.optionParamValueURIInstance = optionParamValueURIInstance;
 		this.filterString = filterText;
+		this.cancelChecker = cancelChecker;
 	}
 
 	@Override
 	public List<CompletionItem> apply(CamelCatalog camelCatalog) {
+		cancelChecker.checkCanceled();
 		Optional<EndpointOptionModel> endpointModel = retrieveEndpointOptionModel(camelCatalog);
 		if(endpointModel.isPresent()) {
-			EndpointOptionModel endpointOptionModel = endpointModel.get();
-			String enums = endpointOptionModel.getEnums();
-			if (enums != null && !enums.isEmpty()) {
-				return computeCompletionForEnums(enums);
-			} else if(BOOLEAN_TYPE.equals(endpointOptionModel.getType())) {
-				Stream<CompletionItem> values = Stream.of(new CompletionItem(Boolean.TRUE.toString()), new CompletionItem(Boolean.FALSE.toString()));
-				return values.filter(FilterPredicateUtils.matchesCompletionFilter(filterString)).collect(Collectors.toList());
-			}
+			cancelChecker.checkCanceled();
+			long filterStart = System.nanoTime();
+			List<CompletionItem> completionItems = computeCompletionForValues(endpointModel.get());
+			LatencyMetrics.recordPhase(LatencyMetrics.FILTER, filterStart);
+			return completionItems;
+		}
+		return Collections.emptyList();
+	}
+
+	private List<CompletionItem> computeCompletionForValues(EndpointOptionModel endpointOptionModel) {
+		String enums = endpointOptionModel.getEnums();
+		if (enums != null && !enums.isEmpty()) {
+			return computeCompletionForEnums(enums);
+		} else if(BOOLEAN_TYPE.equals(endpointOptionModel.getType())) {
+			Stream<CompletionItem> values = Stream.of(new CompletionItem(Boolean.TRUE.toString()), new CompletionItem(Boolean.FALSE.toString()));
+			return values.filter(FilterPredicateUtils.matchesCompletionFilter(filterString)).collect(Collectors.toList());
 		}
 		return Collections.emptyList();
 	}
@@ -69,7 +82,7 @@ public class CamelOptionValuesCompletionsFuture implements Function<CamelCatalog
 	private Optional<EndpointOptionModel> retrieveEndpointOptionModel(CamelCatalog camelCatalog) {
 		String componentName = optionParamValueURIInstance.getOptionParamURIInstance().getComponentName();
 		String keyName = optionParamValueURIInstance.getOptionParamURIInstance().getKey().getKeyName();
-		List<EndpointOptionModel> endpointOptions = ModelHelper.generateComponentModel(camelCatalog.componentJSonSchema(componentName), true).getEndpointOptions();
+		List<EndpointOptionModel> endpointOptions = CachingCamelCatalog.getComponentModel(camelCatalog, componentName).getEndpointOptions();
 		return endpointOptions.stream()
 				.filter(endpoint -> keyName.equals(endpoint.getName()))
 				.findAny();
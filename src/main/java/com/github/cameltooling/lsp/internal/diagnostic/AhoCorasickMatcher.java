@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton reporting all occurrences of a set of patterns in a single pass over a text.
+ */
+public class AhoCorasickMatcher {
+	
+	@FunctionalInterface
+	public interface MatchListener {
+		/**
+		 * @param patternIndex index of the matched pattern in the list provided at construction
+		 * @param startOffset offset in the scanned text where the match starts
+		 */
+		void onMatch(int patternIndex, int startOffset);
+	}
+	
+	private static final int[] NO_OUTPUT = new int[0];
+	
+	private final List<String> patterns;
+	private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+	private final List<int[]> outputs = new ArrayList<>();
+	private int[] failureLinks;
+
+	public AhoCorasickMatcher(List<String> patterns) {
+		this.patterns = patterns;
+		createState();
+		for (int patternIndex = 0; patternIndex < patterns.size(); patternIndex++) {
+			addPattern(patternIndex, patterns.get(patternIndex));
+		}
+		computeFailureLinks();
+	}
+	
+	public List<String> getPatterns() {
+		return patterns;
+	}
+
+	public void scan(CharSequence text, MatchListener listener) {
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			state = nextState(state, text.charAt(i));
+			for (int patternIndex : outputs.get(state)) {
+				listener.onMatch(patternIndex, i + 1 - patterns.get(patternIndex).length());
+			}
+		}
+	}
+
+	private int createState() {
+		transitions.add(new HashMap<>(4));
+		outputs.add(NO_OUTPUT);
+		return transitions.size() - 1;
+	}
+
+	private void addPattern(int patternIndex, String pattern) {
+		if (pattern == null || pattern.isEmpty()) {
+			return;
+		}
+		int state = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			Integer next = transitions.get(state).get(pattern.charAt(i));
+			if (next == null) {
+				next = createState();
+				transitions.get(state).put(pattern.charAt(i), next);
+			}
+			state = next;
+		}
+		outputs.set(state, append(outputs.get(state), patternIndex));
+	}
+
+	private void computeFailureLinks() {
+		failureLinks = new int[transitions.size()];
+		Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+				int child = transition.getValue();
+				int fallback = state == 0 ? 0 : nextState(failureLinks[state], transition.getKey());
+				failureLinks[child] = fallback;
+				int[] inheritedOutput = outputs.get(fallback);
+				for (int patternIndex : inheritedOutput) {
+					outputs.set(child, append(outputs.get(child), patternIndex));
+				}
+				queue.add(child);
+			}
+		}
+	}
+
+	private int nextState(int state, char c) {
+		int current = state;
+		while (true) {
+			Integer next = transitions.get(current).get(c);
+			if (next != null) {
+				return next;
+			}
+			if (current == 0) {
+				return 0;
+			}
+			current = failureLinks[current];
+		}
+	}
+
+	private static int[] append(int[] array, int value) {
+		int[] res = Arrays.copyOf(array, array.length + 1);
+		res[array.length] = value;
+		return res;
+	}
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.cache.CacheFiles;
+import com.github.cameltooling.lsp.internal.cache.CacheFiles.CacheFileOutput;
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+
+/**
+ * Persists the diagnostics of each file so that they can be republished without parsing after a restart.
+ * An entry is valid only for the same file content, Camel catalog version and server version.
+ */
+public class DiagnosticCache {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticCache.class);
+	private static final int MAGIC = 0xCA3E1D1A;
+	private static final int FORMAT_VERSION = 1;
+	private static final String ENTRY_SUFFIX = ".diag";
+	
+	private final Path directory;
+	private final String serverVersion;
+
+	public DiagnosticCache(Path directory, String serverVersion) {
+		this.directory = directory;
+		this.serverVersion = serverVersion;
+	}
+	
+	/**
+	 * @param uri the uri of the file
+	 * @param contentHash the hash of the current content of the file
+	 * @param catalogVersion the version of the Camel catalog used for validation
+	 * @return the diagnostics computed previously for the same content and versions, empty if there are none
+	 */
+	public Optional<List<Diagnostic>> get(String uri, String contentHash, String catalogVersion) {
+		Path entry = entryFile(uri);
+		if (!Files.isRegularFile(entry)) {
+			return Optional.empty();
+		}
+		try {
+			// not mapped, the entry is rewritten in place when the file changes
+			ByteBuffer buffer = CacheFiles.read(entry);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !key(uri, contentHash, catalogVersion).equals(CacheFiles.readString(buffer))) {
+				return Optional.empty();
+			}
+			int size = buffer.getInt();
+			List<Diagnostic> diagnostics = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				diagnostics.add(readDiagnostic(buffer));
+			}
+			return Optional.of(diagnostics);
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+			LOGGER.debug("Ignoring unreadable diagnostic cache entry for " + uri, e);
+			return Optional.empty();
+		}
+	}
+	
+	public void put(String uri, String contentHash, String catalogVersion, List<Diagnostic> diagnostics) {
+		try (CacheFileOutput output = new CacheFileOutput()) {
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			CacheFiles.writeString(output, key(uri, contentHash, catalogVersion));
+			output.writeInt(diagnostics.size());
+			for (Diagnostic diagnostic : diagnostics) {
+				writeDiagnostic(output, diagnostic);
+			}
+			CacheFiles.writeAtomically(entryFile(uri), output.toByteArray());
+		} catch (IOException e) {
+			LOGGER.debug("Cannot store diagnostics of " + uri, e);
+		}
+	}
+
+	private Path entryFile(String uri) {
+		return directory.resolve(WorkspaceCacheDirectory.hash(uri) + ENTRY_SUFFIX);
+	}
+
+	private String key(String uri, String contentHash, String catalogVersion) {
+		return uri + "|" + contentHash + "|" + catalogVersion + "|" + serverVersion;
+	}
+
+	private Diagnostic readDiagnostic(ByteBuffer buffer) {
+		Position start = new Position(buffer.getInt(), buffer.getInt());
+		Position end = new Position(buffer.getInt(), buffer.getInt());
+		int severity = buffer.getInt();
+		String message = CacheFiles.readString(buffer);
+		String source = CacheFiles.readString(buffer);
+		return new Diagnostic(new Range(start, end), message, severity > 0 ? DiagnosticSeverity.forValue(severity) : null, source, null);
+	}
+
+	private void writeDiagnostic(CacheFileOutput output, Diagnostic diagnostic) throws IOException {
+		Range range = diagnostic.getRange();
+		output.writeInt(range.getStart().getLine());
+		output.writeInt(range.getStart().getCharacter());
+		output.writeInt(range.getEnd().getLine());
+		output.writeInt(range.getEnd().getCharacter());
+		output.writeInt(diagnostic.getSeverity() != null ? diagnostic.getSeverity().getValue() : 0);
+		CacheFiles.writeString(output, diagnostic.getMessage());
+		CacheFiles.writeString(output, diagnostic.getSource());
+	}
+
+}
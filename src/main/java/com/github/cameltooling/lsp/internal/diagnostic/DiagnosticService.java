@@ -16,16 +16,20 @@
  */
 package com.github.cameltooling.lsp.internal.diagnostic;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.StringReader;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -38,8 +42,6 @@ import org.apache.camel.parser.model.CamelEndpointDetails;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
-import org.eclipse.lsp4j.Position;
-import org.eclipse.lsp4j.PublishDiagnosticsParams;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextDocumentItem;
 import org.jboss.forge.roaster.Roaster;
@@ -49,7 +51,8 @@ import org.slf4j.LoggerFactory;
 
 import com.github.cameltooling.lsp.internal.CamelEndpointDetailsWrapper;
 import com.github.cameltooling.lsp.internal.CamelLanguageServer;
-import com.github.cameltooling.lsp.internal.parser.ParserXMLFileHelper;
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+import com.github.cameltooling.lsp.internal.parser.DocumentOffsetIndex;
 import com.github.cameltooling.model.diagnostic.BooleanErrorMsg;
 import com.github.cameltooling.model.diagnostic.CamelDiagnosticEndpointMessage;
 import com.github.cameltooling.model.diagnostic.EnumErrorMsg;
@@ -72,72 +75,143 @@ public class DiagnosticService {
 	}
 
 	public void compute(DidSaveTextDocumentParams params) {
+		if (!camelCatalog.isDone()) {
+			// validate once the catalog is available instead of blocking a worker while it loads
+			camelCatalog.thenRunAsync(() -> compute(params), camelLanguageServer.getExecutors().getBackground());
+			return;
+		}
+		String uri = params.getTextDocument().getUri();
 		String camelText = retrieveFullText(params);
-		Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors = computeCamelErrors(camelText, params);
-		List<Diagnostic> diagnostics = converToLSPDiagnostics(camelText, endpointErrors, camelLanguageServer.getTextDocumentService().getOpenedDocument(params.getTextDocument().getUri()));
-		PublishDiagnosticsParams diagnosticParam = new PublishDiagnosticsParams(params.getTextDocument().getUri(), diagnostics);
-		camelLanguageServer.getClient().publishDiagnostics(diagnosticParam);
+		if (camelText == null) {
+			LOGGER.debug("Skipping validation of {}, its saved content is not available", uri);
+			return;
+		}
+		List<Diagnostic> diagnostics = computeDiagnostics(uri, camelText);
+		camelLanguageServer.getDiagnosticsDispatcher().publishNow(uri, diagnostics);
+	}
+	
+	/**
+	 * Computes the diagnostics of a document without publishing them.
+	 * 
+	 * @param uri	the uri of the document
+	 * @param camelText	the full text of the document
+	 * @return the diagnostics for the Camel endpoints of the document
+	 */
+	public List<Diagnostic> computeDiagnostics(String uri, String camelText) {
+		Optional<List<Diagnostic>> cachedDiagnostics = getCachedDiagnostics(uri, camelText);
+		if (cachedDiagnostics.isPresent()) {
+			return cachedDiagnostics.get();
+		}
+		CamelCatalog camelCatalogResolved = resolveCatalog(uri);
+		if (camelCatalogResolved == null) {
+			return new ArrayList<>();
+		}
+		Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors = computeCamelErrors(uri, camelText, camelCatalogResolved);
+		List<Diagnostic> diagnostics = converToLSPDiagnostics(camelText, endpointErrors, uri.endsWith(".xml"));
+		DiagnosticCache diagnosticCache = camelLanguageServer.getDiagnosticCache();
+		if (diagnosticCache != null) {
+			diagnosticCache.put(uri, WorkspaceCacheDirectory.hash(camelText), camelCatalogResolved.getCatalogVersion(), diagnostics);
+		}
+		return diagnostics;
+	}
+	
+	/**
+	 * @param uri	the uri of the document
+	 * @param camelText	the full text of the document
+	 * @return the diagnostics persisted for this exact content by a previous validation, without parsing the document
+	 */
+	public Optional<List<Diagnostic>> getCachedDiagnostics(String uri, String camelText) {
+		DiagnosticCache diagnosticCache = camelLanguageServer.getDiagnosticCache();
+		if (diagnosticCache != null) {
+			CamelCatalog camelCatalogResolved = resolveCatalog(uri);
+			if (camelCatalogResolved != null) {
+				return diagnosticCache.get(uri, WorkspaceCacheDirectory.hash(camelText), camelCatalogResolved.getCatalogVersion());
+			}
+		}
+		return Optional.empty();
 	}
 
-	private Map<CamelEndpointDetailsWrapper, EndpointValidationResult> computeCamelErrors(String camelText, DidSaveTextDocumentParams params) {
-		List<CamelEndpointDetails> endpoints = retrieveEndpoints(params, camelText);
-		return diagnoseEndpoints(params, endpoints);
+	private Map<CamelEndpointDetailsWrapper, EndpointValidationResult> computeCamelErrors(String uri, String camelText, CamelCatalog camelCatalogResolved) {
+		List<CamelEndpointDetails> endpoints = retrieveEndpoints(uri, camelText);
+		return diagnoseEndpoints(endpoints, camelCatalogResolved);
 	}
 
 	private String retrieveFullText(DidSaveTextDocumentParams params) {
 		String camelText = params.getText();
 		if (camelText == null) {
-			camelText = camelLanguageServer.getTextDocumentService().getOpenedDocument(params.getTextDocument().getUri()).getText();
+			String uri = params.getTextDocument().getUri();
+			TextDocumentItem openedDocument = camelLanguageServer.getTextDocumentService().getOpenedDocument(uri);
+			// closed since the save, the saved content is read from disk
+			camelText = openedDocument != null ? openedDocument.getText() : readSavedFile(uri);
 		}
 		return camelText;
 	}
-
-	private Map<CamelEndpointDetailsWrapper, EndpointValidationResult> diagnoseEndpoints(DidSaveTextDocumentParams params, List<CamelEndpointDetails> endpoints) {
-		Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors = new HashMap<>();
+	
+	private String readSavedFile(String uri) {
 		try {
-			CamelCatalog camelCatalogResolved = camelCatalog.get();
-			for (CamelEndpointDetails camelEndpointDetails : endpoints) {
-				EndpointValidationResult validateEndpointProperties = camelCatalogResolved.validateEndpointProperties(camelEndpointDetails.getEndpointUri(), true);
-				if (validateEndpointProperties.hasErrors()) {
-					endpointErrors.put(new CamelEndpointDetailsWrapper(camelEndpointDetails), validateEndpointProperties);
-				}
+			return new String(Files.readAllBytes(Paths.get(new URI(uri))), StandardCharsets.UTF_8);
+		} catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+			LOGGER.debug("Cannot read saved file " + uri, e);
+			return null;
+		}
+	}
+
+	private Map<CamelEndpointDetailsWrapper, EndpointValidationResult> diagnoseEndpoints(List<CamelEndpointDetails> endpoints, CamelCatalog camelCatalogResolved) {
+		Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors = new LinkedHashMap<>();
+		for (CamelEndpointDetails camelEndpointDetails : endpoints) {
+			EndpointValidationResult validateEndpointProperties = camelCatalogResolved.validateEndpointProperties(camelEndpointDetails.getEndpointUri(), true);
+			if (validateEndpointProperties.hasErrors()) {
+				endpointErrors.put(new CamelEndpointDetailsWrapper(camelEndpointDetails), validateEndpointProperties);
 			}
+		}
+		return endpointErrors;
+	}
+	
+	private CamelCatalog resolveCatalog(String uri) {
+		try {
+			return camelCatalog.get();
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
-			logExceptionValidatingDocument(params, e);
+			logExceptionValidatingDocument(uri, e);
 		} catch (ExecutionException e) {
-			logExceptionValidatingDocument(params, e);
+			logExceptionValidatingDocument(uri, e);
 		}
-		return endpointErrors;
+		return null;
 	}
 
-	private List<CamelEndpointDetails> retrieveEndpoints(DidSaveTextDocumentParams params, String camelText) {
+	private List<CamelEndpointDetails> retrieveEndpoints(String uri, String camelText) {
 		List<CamelEndpointDetails> endpoints = new ArrayList<>();
-		String uri = params.getTextDocument().getUri();
 		if (uri.endsWith(".xml")) {
 			try {
 				XmlRouteParser.parseXmlRouteEndpoints(new ByteArrayInputStream(camelText.getBytes(StandardCharsets.UTF_8)), "", "/"+uri, endpoints);
 			} catch (Exception e) {
-				logExceptionValidatingDocument(params, e);
+				logExceptionValidatingDocument(uri, e);
 			}
 		} else if(uri.endsWith(".java")) {
-			JavaClassSource clazz = (JavaClassSource) Roaster.parse(camelText);
-			RouteBuilderParser.parseRouteBuilderEndpoints(clazz, "", "/"+uri, endpoints);
+			try {
+				JavaClassSource clazz = (JavaClassSource) Roaster.parse(camelText);
+				RouteBuilderParser.parseRouteBuilderEndpoints(clazz, "", "/"+uri, endpoints);
+			} catch (Exception e) {
+				logExceptionValidatingDocument(uri, e);
+			}
 		}
 		return endpoints;
 	}
 
-	private void logExceptionValidatingDocument(DidSaveTextDocumentParams params, Exception e) {
-		LOGGER.warn("Error while trying to validate the document " + params.getTextDocument().getUri(), e);
+	private void logExceptionValidatingDocument(String uri, Exception e) {
+		LOGGER.warn("Error while trying to validate the document " + uri, e);
 	}
 
-	private List<Diagnostic> converToLSPDiagnostics(String fullCamelText, Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors, TextDocumentItem textDocumentItem) {
+	private List<Diagnostic> converToLSPDiagnostics(String fullCamelText, Map<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointErrors, boolean isXml) {
 		List<Diagnostic> diagnostics = new ArrayList<>();
+		if (endpointErrors.isEmpty()) {
+			return diagnostics;
+		}
+		Map<CamelEndpointDetailsWrapper, Range> ranges = new EndpointRangeResolver(new DocumentOffsetIndex(fullCamelText), isXml).resolve(new ArrayList<>(endpointErrors.keySet()));
 		for (Map.Entry<CamelEndpointDetailsWrapper, EndpointValidationResult> endpointError : endpointErrors.entrySet()) {
 			EndpointValidationResult validationResult = endpointError.getValue();
-			CamelEndpointDetails camelEndpointDetails = endpointError.getKey().getCamelEndpointDetails();
 			diagnostics.add(new Diagnostic(
-					computeRange(fullCamelText, textDocumentItem, camelEndpointDetails),
+					ranges.get(endpointError.getKey()),
 					computeErrorMessage(validationResult),
 					DiagnosticSeverity.Error,
 					APACHE_CAMEL_VALIDATION,
@@ -145,37 +219,6 @@ public class DiagnosticService {
 		}
 		return diagnostics;
 	}
-
-	private Range computeRange(String fullCamelText, TextDocumentItem textDocumentItem, CamelEndpointDetails camelEndpointDetails) {
-		int endLine = camelEndpointDetails.getLineNumberEnd() != null ? Integer.valueOf(camelEndpointDetails.getLineNumberEnd()) - 1 : findLine(fullCamelText, camelEndpointDetails);
-		int endLineSize = new ParserXMLFileHelper().getLine(textDocumentItem, endLine).length();
-		int startLine = camelEndpointDetails.getLineNumber() != null ? Integer.valueOf(camelEndpointDetails.getLineNumber()) - 1 : findLine(fullCamelText, camelEndpointDetails);
-		return new Range(new Position(startLine, 0), new Position(endLine, endLineSize));
-	}
-
-	/**
-	 * Computing by hand for Camel versions earlier than the version which will contain https://issues.apache.org/jira/browse/CAMEL-12639
-	 * 
-	 * @param fullCamelText
-	 * @param camelEndpointDetails
-	 * @return
-	 */
-	private int findLine(String fullCamelText, CamelEndpointDetails camelEndpointDetails) {
-		int currentSearchedLine = 0;
-		String str;
-		BufferedReader reader = new BufferedReader(new StringReader(fullCamelText));
-		try {
-			while ((str = reader.readLine()) != null) {
-				if (str.contains(camelEndpointDetails.getEndpointUri())) {
-					return currentSearchedLine;
-				}
-				currentSearchedLine++;
-			}
-		} catch(IOException e) {
-			LOGGER.error("Error while computing range of error", e);
-		}
-		return 0;
-	}
 	
 	private String computeErrorMessage(EndpointValidationResult validationResult) {
 		StringBuilder sb = new StringBuilder();
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.memory.MemoryAccountable;
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+import com.github.cameltooling.lsp.internal.memory.MemoryEstimates;
+
+/**
+ * Outbound queue of diagnostics notifications.
+ * 
+ * Pending results are coalesced per URI, only the latest one being kept, and are flushed periodically with a bounded number
+ * of notifications per flush. A notification is not sent when the diagnostics are identical to the ones previously published for the URI.
+ * 
+ * Diagnostics published immediately, on save, are authoritative: bulk results computed before the last immediate publication of a URI are dropped,
+ * and the notifications are sent in the order their diagnostics were recorded as published.
+ */
+public class DiagnosticsDispatcher implements MemoryAccountable {
+	
+	public static final String FLUSH_INTERVAL_PROPERTY = "camel.lsp.diagnostics.flushInterval";
+	public static final String MAX_NOTIFICATIONS_PER_FLUSH_PROPERTY = "camel.lsp.diagnostics.maxNotificationsPerFlush";
+	private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+	private static final int DEFAULT_MAX_NOTIFICATIONS_PER_FLUSH = 50;
+	private static final long SEQUENCE_BYTES = MemoryEstimates.MAP_ENTRY + MemoryEstimates.OBJECT_HEADER + Long.BYTES;
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticsDispatcher.class);
+	
+	private final Supplier<LanguageClient> client;
+	private final long flushIntervalMillis;
+	private final int maxNotificationsPerFlush;
+	private final Map<String, List<Diagnostic>> pending = new LinkedHashMap<>();
+	private final Map<String, List<Diagnostic>> published = new HashMap<>();
+	private final Map<String, Long> publicationSequences = new HashMap<>();
+	private final Object sendLock = new Object();
+	private long publishedBytes;
+	private ScheduledExecutorService scheduler;
+
+	public DiagnosticsDispatcher(Supplier<LanguageClient> client) {
+		this(client, Long.getLong(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL_MILLIS), Integer.getInteger(MAX_NOTIFICATIONS_PER_FLUSH_PROPERTY, DEFAULT_MAX_NOTIFICATIONS_PER_FLUSH));
+	}
+	
+	public DiagnosticsDispatcher(Supplier<LanguageClient> client, long flushIntervalMillis, int maxNotificationsPerFlush) {
+		this.client = client;
+		this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+		this.maxNotificationsPerFlush = Math.max(1, maxNotificationsPerFlush);
+	}
+
+	/**
+	 * Queues diagnostics computed in bulk, for instance by the workspace validation.
+	 * A URI which was never published is considered as having no diagnostics.
+	 * 
+	 * @param uri	the uri of the document
+	 * @param diagnostics	the diagnostics of the document, replacing any pending ones for the same uri
+	 */
+	public void submit(String uri, List<Diagnostic> diagnostics) {
+		submit(uri, diagnostics, getPublicationSequence(uri));
+	}
+	
+	/**
+	 * Queues diagnostics computed in bulk, unless diagnostics of the same uri were published immediately since their computation started.
+	 * 
+	 * @param uri	the uri of the document
+	 * @param diagnostics	the diagnostics of the document, replacing any pending ones for the same uri
+	 * @param publicationSequence	the value of {@link #getPublicationSequence(String)} read before the computation started
+	 */
+	public synchronized void submit(String uri, List<Diagnostic> diagnostics, long publicationSequence) {
+		if (publicationSequence < getPublicationSequence(uri)) {
+			return;
+		}
+		pending.put(uri, diagnostics);
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Camel Diagnostics Dispatcher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * @param uri	the uri of the document
+	 * @return the number of immediate publications of this uri, to be read before computing diagnostics in bulk
+	 */
+	public synchronized long getPublicationSequence(String uri) {
+		return publicationSequences.getOrDefault(uri, 0L);
+	}
+	
+	/**
+	 * Publishes immediately the diagnostics of a document explicitly validated by the user, for instance on save.
+	 * Pending diagnostics for this uri are discarded as they are outdated, and so are the bulk results computed before this call.
+	 * 
+	 * @param uri	the uri of the document
+	 * @param diagnostics	the diagnostics of the document
+	 */
+	public void publishNow(String uri, List<Diagnostic> diagnostics) {
+		synchronized (sendLock) {
+			boolean shouldPublish;
+			synchronized (this) {
+				pending.remove(uri);
+				if (publicationSequences.put(uri, getPublicationSequence(uri) + 1) == null) {
+					publishedBytes += SEQUENCE_BYTES;
+				}
+				shouldPublish = !published.containsKey(uri) || hasChanged(uri, diagnostics);
+				recordPublished(uri, diagnostics);
+			}
+			if (shouldPublish) {
+				send(uri, diagnostics);
+			}
+		}
+	}
+	
+	/**
+	 * Sends at most the configured number of pending notifications.
+	 */
+	public void flush() {
+		synchronized (sendLock) {
+			List<PublishDiagnosticsParams> toSend = new ArrayList<>();
+			synchronized (this) {
+				Iterator<Map.Entry<String, List<Diagnostic>>> iterator = pending.entrySet().iterator();
+				while (iterator.hasNext() && toSend.size() < maxNotificationsPerFlush) {
+					Map.Entry<String, List<Diagnostic>> entry = iterator.next();
+					iterator.remove();
+					if (hasChanged(entry.getKey(), entry.getValue())) {
+						recordPublished(entry.getKey(), entry.getValue());
+						toSend.add(new PublishDiagnosticsParams(entry.getKey(), entry.getValue()));
+					}
+				}
+			}
+			for (PublishDiagnosticsParams diagnostics : toSend) {
+				send(diagnostics.getUri(), diagnostics.getDiagnostics());
+			}
+		}
+	}
+	
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+	
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		pending.clear();
+	}
+
+	private boolean hasChanged(String uri, List<Diagnostic> diagnostics) {
+		return !published.getOrDefault(uri, Collections.emptyList()).equals(diagnostics);
+	}
+
+	private void recordPublished(String uri, List<Diagnostic> diagnostics) {
+		List<Diagnostic> previous = published.put(uri, new ArrayList<>(diagnostics));
+		publishedBytes += estimate(uri, diagnostics) - (previous != null ? estimate(uri, previous) : 0);
+	}
+	
+	private long estimate(String uri, List<Diagnostic> diagnostics) {
+		return MemoryEstimates.MAP_ENTRY + MemoryEstimates.ofString(uri) + MemoryEstimates.ofDiagnostics(diagnostics);
+	}
+	
+	@Override
+	public String getMemoryPoolName() {
+		return MemoryAccounting.PUBLISHED_DIAGNOSTICS;
+	}
+	
+	@Override
+	public synchronized int getEntryCount() {
+		return published.size();
+	}
+	
+	@Override
+	public synchronized long getEstimatedBytes() {
+		return publishedBytes;
+	}
+	
+	/**
+	 * Forgets the URIs published without diagnostics, which are handled like the URIs never published.
+	 * The URIs with diagnostics are kept, otherwise the client would not be told when their errors are fixed.
+	 * The publication sequences are kept too, outdated bulk results must still be dropped.
+	 */
+	@Override
+	public synchronized int evictTo(long targetBytes) {
+		int evicted = 0;
+		Iterator<Map.Entry<String, List<Diagnostic>>> iterator = published.entrySet().iterator();
+		while (iterator.hasNext() && publishedBytes > targetBytes) {
+			Map.Entry<String, List<Diagnostic>> entry = iterator.next();
+			if (entry.getValue().isEmpty()) {
+				iterator.remove();
+				publishedBytes -= estimate(entry.getKey(), entry.getValue());
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	private void send(String uri, List<Diagnostic> diagnostics) {
+		LanguageClient languageClient = client.get();
+		if (languageClient != null) {
+			try {
+				languageClient.publishDiagnostics(new PublishDiagnosticsParams(uri, diagnostics));
+			} catch (RuntimeException e) {
+				LOGGER.warn("Cannot publish diagnostics of " + uri, e);
+			}
+		}
+	}
+
+}
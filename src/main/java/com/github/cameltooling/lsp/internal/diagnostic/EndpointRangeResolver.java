@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.parser.model.CamelEndpointDetails;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import com.github.cameltooling.lsp.internal.CamelEndpointDetailsWrapper;
+import com.github.cameltooling.lsp.internal.parser.DocumentOffsetIndex;
+
+/**
+ * Computes the ranges of a set of endpoints with a single scan of the document.
+ * All endpoint URIs are searched at once; each endpoint is then assigned to its occurrence,
+ * using the line numbers provided by the Camel parsers when they are available and the document order otherwise.
+ */
+public class EndpointRangeResolver {
+	
+	private static final String XML_ESCAPED_AMPERSAND = "&amp;";
+	private static final String URI_SPECIAL_CHARACTERS = ":/?#@&=+%._~-";
+	
+	private final DocumentOffsetIndex offsetIndex;
+	private final boolean xml;
+
+	public EndpointRangeResolver(DocumentOffsetIndex offsetIndex, boolean xml) {
+		this.offsetIndex = offsetIndex;
+		this.xml = xml;
+	}
+
+	/**
+	 * @param endpoints the endpoints, in document order
+	 * @return the range of each endpoint, with the same iteration order than the provided list
+	 */
+	public Map<CamelEndpointDetailsWrapper, Range> resolve(List<CamelEndpointDetailsWrapper> endpoints) {
+		Map<String, Integer> patternIndexes = new LinkedHashMap<>();
+		for (CamelEndpointDetailsWrapper endpoint : endpoints) {
+			for (String pattern : searchedForms(endpoint.getCamelEndpointDetails().getEndpointUri())) {
+				patternIndexes.putIfAbsent(pattern, patternIndexes.size());
+			}
+		}
+		List<String> patterns = new ArrayList<>(patternIndexes.keySet());
+		List<List<Integer>> occurrences = new ArrayList<>(patterns.size());
+		for (int i = 0; i < patterns.size(); i++) {
+			occurrences.add(new ArrayList<>());
+		}
+		new AhoCorasickMatcher(patterns).scan(offsetIndex.getText(), (patternIndex, startOffset) -> {
+			if (isDelimited(startOffset, patterns.get(patternIndex).length())) {
+				occurrences.get(patternIndex).add(startOffset);
+			}
+		});
+		
+		Map<CamelEndpointDetailsWrapper, Range> ranges = new LinkedHashMap<>();
+		Map<String, BitSet> usedOccurrences = new HashMap<>();
+		int documentOrderCursor = 0;
+		for (CamelEndpointDetailsWrapper endpoint : endpoints) {
+			CamelEndpointDetails details = endpoint.getCamelEndpointDetails();
+			Occurrence occurrence = null;
+			for (String pattern : searchedForms(details.getEndpointUri())) {
+				Occurrence candidate = selectOccurrence(details, pattern, occurrences.get(patternIndexes.get(pattern)), usedOccurrences, documentOrderCursor);
+				if (candidate != null && (occurrence == null || candidate.offset < occurrence.offset)) {
+					occurrence = candidate;
+				}
+			}
+			if (occurrence != null) {
+				usedOccurrences.computeIfAbsent(occurrence.pattern, key -> new BitSet()).set(occurrence.index);
+				if (details.getLineNumber() == null) {
+					documentOrderCursor = occurrence.offset;
+				}
+				ranges.put(endpoint, new Range(offsetIndex.getPosition(occurrence.offset), offsetIndex.getPosition(occurrence.offset + occurrence.pattern.length())));
+			} else {
+				ranges.put(endpoint, computeLineRange(details));
+			}
+		}
+		return ranges;
+	}
+
+	private List<String> searchedForms(String endpointUri) {
+		List<String> forms = new ArrayList<>(2);
+		if (endpointUri != null && !endpointUri.isEmpty()) {
+			forms.add(endpointUri);
+			if (xml && endpointUri.indexOf('&') != -1) {
+				forms.add(endpointUri.replace("&", XML_ESCAPED_AMPERSAND));
+			}
+		}
+		return forms;
+	}
+
+	/**
+	 * Avoids matching an endpoint URI which is only a part of a longer one, for instance direct:a inside direct:ab.
+	 */
+	private boolean isDelimited(int startOffset, int length) {
+		String text = offsetIndex.getText();
+		int endOffset = startOffset + length;
+		return (startOffset == 0 || !isUriCharacter(text.charAt(startOffset - 1)))
+				&& (endOffset == text.length() || !isUriCharacter(text.charAt(endOffset)));
+	}
+
+	private static boolean isUriCharacter(char c) {
+		return Character.isLetterOrDigit(c) || URI_SPECIAL_CHARACTERS.indexOf(c) != -1;
+	}
+
+	private Occurrence selectOccurrence(CamelEndpointDetails details, String pattern, List<Integer> offsets, Map<String, BitSet> usedOccurrences, int documentOrderCursor) {
+		BitSet used = usedOccurrences.getOrDefault(pattern, new BitSet());
+		Integer startLine = toZeroBasedLine(details.getLineNumber());
+		if (startLine != null) {
+			Integer endLine = toZeroBasedLine(details.getLineNumberEnd());
+			int lastLine = endLine != null ? Math.max(startLine, endLine) : startLine;
+			Occurrence closestBefore = null;
+			for (int i = 0; i < offsets.size(); i++) {
+				int line = offsetIndex.getLineAt(offsets.get(i));
+				if (!used.get(i)) {
+					if (line >= startLine && line <= lastLine) {
+						return new Occurrence(pattern, i, offsets.get(i));
+					} else if (line < startLine) {
+						// attribute on a previous line of a multi-line start tag
+						closestBefore = new Occurrence(pattern, i, offsets.get(i));
+					}
+				}
+			}
+			return closestBefore;
+		}
+		Occurrence firstUnused = null;
+		for (int i = 0; i < offsets.size(); i++) {
+			if (!used.get(i)) {
+				if (offsets.get(i) >= documentOrderCursor) {
+					return new Occurrence(pattern, i, offsets.get(i));
+				} else if (firstUnused == null) {
+					firstUnused = new Occurrence(pattern, i, offsets.get(i));
+				}
+			}
+		}
+		return firstUnused;
+	}
+
+	private Range computeLineRange(CamelEndpointDetails details) {
+		Integer startLine = toZeroBasedLine(details.getLineNumber());
+		Integer endLine = toZeroBasedLine(details.getLineNumberEnd());
+		int start = startLine != null ? startLine : 0;
+		int end = endLine != null ? endLine : start;
+		return new Range(new Position(start, 0), new Position(end, offsetIndex.getLineLength(end)));
+	}
+
+	private static Integer toZeroBasedLine(String lineNumber) {
+		if (lineNumber == null) {
+			return null;
+		}
+		try {
+			return Integer.parseInt(lineNumber.trim()) - 1;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	private static class Occurrence {
+		private final String pattern;
+		private final int index;
+		private final int offset;
+		
+		Occurrence(String pattern, int index, int offset) {
+			this.pattern = pattern;
+			this.index = index;
+			this.offset = offset;
+		}
+	}
+
+}
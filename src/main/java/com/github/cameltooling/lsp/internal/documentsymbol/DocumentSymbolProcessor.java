@@ -19,7 +19,7 @@ package com.github.cameltooling.lsp.internal.documentsymbol;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
 
 import org.apache.camel.parser.helper.XmlLineNumberParser;
 import org.eclipse.lsp4j.Location;
@@ -28,6 +28,7 @@ import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Node;
@@ -47,23 +48,25 @@ public class DocumentSymbolProcessor {
 	}
 	
 	@SuppressWarnings("squid:S1452")
-	public CompletableFuture<List<? extends SymbolInformation>> getDocumentSymbols() {
-		return CompletableFuture.supplyAsync(() -> {
-			try {
-				NodeList routeNodes = parserFileHelper.getRouteNodes(textDocumentItem);
-				if (routeNodes != null) {
-					return convertToSymbolInformation(routeNodes);
-				}
-			} catch (Exception e) {
-				LOGGER.error("Cannot determine document symbols", e);
+	public List<? extends SymbolInformation> getDocumentSymbols(CancelChecker cancelChecker) {
+		try {
+			cancelChecker.checkCanceled();
+			NodeList routeNodes = parserFileHelper.getRouteNodes(textDocumentItem);
+			if (routeNodes != null) {
+				return convertToSymbolInformation(routeNodes, cancelChecker);
 			}
-			return Collections.emptyList();
-		});
+		} catch (CancellationException e) {
+			throw e;
+		} catch (Exception e) {
+			LOGGER.error("Cannot determine document symbols", e);
+		}
+		return Collections.emptyList();
 	}
 
-	private List<SymbolInformation> convertToSymbolInformation(NodeList routeNodes) {
+	private List<SymbolInformation> convertToSymbolInformation(NodeList routeNodes, CancelChecker cancelChecker) {
 		List<SymbolInformation> res = new ArrayList<>();
 		for (int i = 0; i < routeNodes.getLength(); i++) {
+			cancelChecker.checkCanceled();
 			Node routeNode = routeNodes.item(i);
 			Position startPosition = new Position(retrieveIntUserData(routeNode, XmlLineNumberParser.LINE_NUMBER), retrieveIntUserData(routeNode, XmlLineNumberParser.COLUMN_NUMBER));
 			Position endPosition = new Position(retrieveIntUserData(routeNode, XmlLineNumberParser.LINE_NUMBER_END), retrieveIntUserData(routeNode, XmlLineNumberParser.COLUMN_NUMBER_END));
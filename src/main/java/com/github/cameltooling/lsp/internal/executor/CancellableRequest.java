@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+/**
+ * Runs the analysis of a request with a {@link CancelChecker} bound to the future returned to lsp4j:
+ * when the client sends $/cancelRequest, lsp4j cancels this future and the next check done by the analysis aborts it.
+ * The analysis is aborted as well when the future is completed by someone else, for instance with a fallback result once the
+ * {@link RequestBudgets latency budget} is exceeded.
+ */
+public final class CancellableRequest {
+	
+	private CancellableRequest() {
+		// utility class
+	}
+
+	public static <T> CompletableFuture<T> computeAsync(Executor executor, Function<CancelChecker, T> analysis) {
+		return composeAsync(executor, cancelChecker -> CompletableFuture.completedFuture(analysis.apply(cancelChecker)));
+	}
+
+	/**
+	 * @param analysis starts the analysis on the given executor, it may return a future completed later, for instance once the Camel catalog is loaded
+	 */
+	public static <T> CompletableFuture<T> composeAsync(Executor executor, Function<CancelChecker, CompletableFuture<T>> analysis) {
+		CompletableFuture<T> request = new CompletableFuture<>();
+		CancelChecker cancelChecker = () -> {
+			if (request.isDone()) {
+				throw new CancellationException();
+			}
+		};
+		executor.execute(() -> {
+			if (request.isDone()) {
+				return;
+			}
+			try {
+				analysis.apply(cancelChecker).whenComplete((result, exception) -> {
+					if (exception != null) {
+						request.completeExceptionally(exception);
+					} else {
+						request.complete(result);
+					}
+				});
+			} catch (RuntimeException e) {
+				request.completeExceptionally(e);
+			}
+		});
+		return request;
+	}
+
+}
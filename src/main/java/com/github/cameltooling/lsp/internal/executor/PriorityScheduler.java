@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.metrics.ExecutorMetrics;
+
+/**
+ * Pool of worker threads shared by all {@link Workload}s, picking the most urgent task first.
+ * 
+ * Interactive tasks run before structural ones, which run before background ones. To avoid starvation, a waiting task gains
+ * one priority class per aging period. Each workload is limited to its number of threads, so that background work never
+ * occupies all workers. Background tasks tagged with a document version are dropped once a newer version of the document is known.
+ */
+public class PriorityScheduler {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(PriorityScheduler.class);
+	private static final long IDLE_WORKER_TIMEOUT_SECONDS = 60;
+	
+	private final int workerCount;
+	private final long agingNanos;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition taskAvailable = lock.newCondition();
+	private final Map<Workload, ArrayDeque<ScheduledTask>> queues = new EnumMap<>(Workload.class);
+	private final Map<Workload, Integer> runningTasks = new EnumMap<>(Workload.class);
+	private final Map<Workload, ExecutorMetrics> metrics = new EnumMap<>(Workload.class);
+	private final Map<String, Integer> documentVersions = new ConcurrentHashMap<>();
+	private final Set<Thread> workers = new HashSet<>();
+	private final AtomicInteger workerNumber = new AtomicInteger();
+	private int idleWorkers;
+	private boolean shutdown;
+
+	public PriorityScheduler(int workerCount, long agingMillis) {
+		this.workerCount = Math.max(1, workerCount);
+		this.agingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, agingMillis));
+		for (Workload workload : Workload.values()) {
+			queues.put(workload, new ArrayDeque<>());
+			runningTasks.put(workload, 0);
+			metrics.put(workload, new ExecutorMetrics(workload.name().toLowerCase(), () -> getQueueDepth(workload)));
+		}
+	}
+	
+	/**
+	 * @return an executor scheduling the given runnables as untagged tasks of the workload
+	 */
+	public Executor executor(Workload workload) {
+		return task -> submit(workload, null, null, task);
+	}
+
+	/**
+	 * @param uri the document the task works on, null if none
+	 * @param version the version of the document the task works on, null if the task cannot become stale
+	 * @throws RejectedExecutionException if the queue of the workload is full or the scheduler is shut down
+	 */
+	public void submit(Workload workload, String uri, Integer version, Runnable task) {
+		ExecutorMetrics workloadMetrics = metrics.get(workload);
+		lock.lock();
+		try {
+			ArrayDeque<ScheduledTask> queue = queues.get(workload);
+			if (shutdown || queue.size() >= workload.getQueueSize()) {
+				workloadMetrics.taskRejected();
+				throw new RejectedExecutionException(shutdown ? "Scheduler is shut down" : "Queue of the " + workload.name().toLowerCase() + " workload is full (" + workload.getQueueSize() + " tasks)");
+			}
+			workloadMetrics.taskSubmitted();
+			queue.add(new ScheduledTask(workload, uri, version, task));
+			if (idleWorkers == 0 && workers.size() < workerCount) {
+				startWorker();
+			} else {
+				taskAvailable.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	public void documentVersionChanged(String uri, int version) {
+		documentVersions.merge(uri, version, Math::max);
+	}
+	
+	public void documentClosed(String uri) {
+		documentVersions.remove(uri);
+	}
+	
+	public ExecutorMetrics getMetrics(Workload workload) {
+		return metrics.get(workload);
+	}
+	
+	public void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+			queues.values().forEach(ArrayDeque::clear);
+			workers.forEach(Thread::interrupt);
+			taskAvailable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	private int getQueueDepth(Workload workload) {
+		lock.lock();
+		try {
+			return queues.get(workload).size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void startWorker() {
+		Thread worker = new Thread(this::runWorker, "Camel LSP worker-" + workerNumber.incrementAndGet());
+		worker.setDaemon(true);
+		workers.add(worker);
+		worker.start();
+	}
+
+	private void runWorker() {
+		Thread worker = Thread.currentThread();
+		try {
+			ScheduledTask task;
+			while ((task = takeNextTask()) != null) {
+				worker.setPriority(task.workload.getThreadPriority());
+				try {
+					task.runnable.run();
+				} catch (RuntimeException e) {
+					LOGGER.error("Uncaught exception in " + task.workload.name().toLowerCase() + " task", e);
+				} finally {
+					worker.setPriority(Thread.NORM_PRIORITY);
+					taskDone(task);
+				}
+			}
+		} finally {
+			lock.lock();
+			try {
+				workers.remove(worker);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return the next task to run, or null when the worker has been idle for too long or the scheduler is shut down
+	 */
+	private ScheduledTask takeNextTask() {
+		lock.lock();
+		try {
+			long idleNanos = TimeUnit.SECONDS.toNanos(IDLE_WORKER_TIMEOUT_SECONDS);
+			while (!shutdown) {
+				ScheduledTask task = pollMostUrgentTask();
+				if (task != null) {
+					runningTasks.merge(task.workload, 1, Integer::sum);
+					metrics.get(task.workload).taskStarted(System.nanoTime() - task.submittedAt);
+					return task;
+				}
+				if (idleNanos <= 0) {
+					return null;
+				}
+				idleWorkers++;
+				try {
+					idleNanos = taskAvailable.awaitNanos(idleNanos);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				} finally {
+					idleWorkers--;
+				}
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void taskDone(ScheduledTask task) {
+		lock.lock();
+		try {
+			runningTasks.merge(task.workload, -1, Integer::sum);
+			taskAvailable.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ScheduledTask pollMostUrgentTask() {
+		long now = System.nanoTime();
+		Workload selected = null;
+		double selectedRank = Double.MAX_VALUE;
+		for (Workload workload : Workload.values()) {
+			ArrayDeque<ScheduledTask> queue = queues.get(workload);
+			dropStaleTasks(queue);
+			if (queue.isEmpty() || runningTasks.get(workload) >= workload.getThreads()) {
+				continue;
+			}
+			double rank = workload.ordinal() - (double) (now - queue.peek().submittedAt) / agingNanos;
+			if (rank < selectedRank) {
+				selected = workload;
+				selectedRank = rank;
+			}
+		}
+		return selected != null ? queues.get(selected).poll() : null;
+	}
+
+	private void dropStaleTasks(ArrayDeque<ScheduledTask> queue) {
+		ScheduledTask head;
+		while ((head = queue.peek()) != null && isStale(head)) {
+			queue.poll();
+			metrics.get(head.workload).taskDropped();
+		}
+	}
+
+	private boolean isStale(ScheduledTask task) {
+		if (task.workload != Workload.BACKGROUND || task.version == null) {
+			return false;
+		}
+		Integer latestVersion = documentVersions.get(task.uri);
+		return latestVersion != null && latestVersion > task.version;
+	}
+
+	private static final class ScheduledTask {
+		
+		private final Workload workload;
+		private final String uri;
+		private final Integer version;
+		private final Runnable runnable;
+		private final long submittedAt = System.nanoTime();
+		
+		ScheduledTask(Workload workload, String uri, Integer version, Runnable runnable) {
+			this.workload = workload;
+			this.uri = uri;
+			this.version = version;
+			this.runnable = runnable;
+		}
+	}
+
+}
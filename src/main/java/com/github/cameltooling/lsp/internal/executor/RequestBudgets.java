@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.github.cameltooling.lsp.internal.metrics.RequestMetrics;
+
+/**
+ * Latency budgets of the LSP methods. A request still running when its budget is exceeded is answered with a fallback result,
+ * and its analysis is then aborted at its next cancellation check.
+ * 
+ * The budget of a method is configured in milliseconds with the system property camel.lsp.budget.&lt;method&gt;, 0 disables it.
+ */
+public class RequestBudgets {
+	
+	public static final String PROPERTY_PREFIX = "camel.lsp.budget.";
+	public static final String COMPLETION = "completion";
+	public static final String HOVER = "hover";
+	private static final long DEFAULT_COMPLETION_BUDGET_MILLIS = 2000;
+	private static final long DEFAULT_HOVER_BUDGET_MILLIS = 1000;
+	
+	private final RequestMetrics requestMetrics;
+	private ScheduledExecutorService timer;
+
+	public RequestBudgets(RequestMetrics requestMetrics) {
+		this.requestMetrics = requestMetrics;
+	}
+	
+	public static long getBudgetMillis(String method) {
+		long defaultBudget = 0;
+		if (COMPLETION.equals(method)) {
+			defaultBudget = DEFAULT_COMPLETION_BUDGET_MILLIS;
+		} else if (HOVER.equals(method)) {
+			defaultBudget = DEFAULT_HOVER_BUDGET_MILLIS;
+		}
+		return Long.getLong(PROPERTY_PREFIX + method, defaultBudget);
+	}
+
+	/**
+	 * @param request the future returned to the client, completed with the fallback result if the budget is exceeded
+	 * @param fallback provides the result to answer with when the budget is exceeded
+	 * @return the request
+	 */
+	public <T> CompletableFuture<T> withBudget(String method, CompletableFuture<T> request, Supplier<T> fallback) {
+		long budgetMillis = getBudgetMillis(method);
+		if (budgetMillis <= 0 || request.isDone()) {
+			return request;
+		}
+		ScheduledFuture<?> deadline = getTimer().schedule(() -> {
+			if (request.complete(fallback.get())) {
+				requestMetrics.budgetExceeded(method);
+			}
+		}, budgetMillis, TimeUnit.MILLISECONDS);
+		request.whenComplete((result, exception) -> deadline.cancel(false));
+		return request;
+	}
+	
+	public synchronized void shutdown() {
+		if (timer != null) {
+			timer.shutdownNow();
+		}
+	}
+
+	private synchronized ScheduledExecutorService getTimer() {
+		if (timer == null) {
+			timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Camel LSP request budgets");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return timer;
+	}
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.metrics.ExecutorMetrics;
+
+/**
+ * Executors dedicated to each {@link Workload} of the server, instead of the JVM-wide common pool.
+ * They share the workers of a {@link PriorityScheduler} so that completion and hover run before symbols and validation.
+ * 
+ * The number of workers is configured with the system property camel.lsp.executor.threads and the aging period,
+ * after which a waiting task is promoted to the next priority class, with camel.lsp.executor.agingMillis.
+ */
+public class ServerExecutors {
+	
+	public static final String THREADS_PROPERTY = "camel.lsp.executor.threads";
+	public static final String AGING_PROPERTY = "camel.lsp.executor.agingMillis";
+	private static final long DEFAULT_AGING_MILLIS = 500;
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(ServerExecutors.class);
+	
+	private final PriorityScheduler scheduler;
+
+	public ServerExecutors() {
+		int defaultThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		scheduler = new PriorityScheduler(Integer.getInteger(THREADS_PROPERTY, defaultThreads), Long.getLong(AGING_PROPERTY, DEFAULT_AGING_MILLIS));
+	}
+	
+	public Executor get(Workload workload) {
+		return scheduler.executor(workload);
+	}
+	
+	public Executor getInteractive() {
+		return get(Workload.INTERACTIVE);
+	}
+	
+	public Executor getStructural() {
+		return get(Workload.STRUCTURAL);
+	}
+	
+	public Executor getBackground() {
+		return get(Workload.BACKGROUND);
+	}
+	
+	/**
+	 * Schedules background work on a given version of a document, it is dropped if the document changes before it starts.
+	 */
+	public void submitBackground(String uri, Integer version, Runnable task) {
+		scheduler.submit(Workload.BACKGROUND, uri, version, task);
+	}
+	
+	public void documentVersionChanged(String uri, int version) {
+		scheduler.documentVersionChanged(uri, version);
+	}
+	
+	public void documentClosed(String uri) {
+		scheduler.documentClosed(uri);
+	}
+	
+	public List<ExecutorMetrics> getMetrics() {
+		List<ExecutorMetrics> metrics = new ArrayList<>();
+		for (Workload workload : Workload.values()) {
+			metrics.add(scheduler.getMetrics(workload));
+		}
+		return metrics;
+	}
+	
+	public void shutdown() {
+		for (ExecutorMetrics metrics : getMetrics()) {
+			LOGGER.info("Executor metrics: {}", metrics);
+		}
+		scheduler.shutdown();
+	}
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+/**
+ * Classes of work done by the server, from the most to the least latency sensitive.
+ * 
+ * The number of threads a workload may use at the same time and the bound of its queue are configured with the system properties
+ * camel.lsp.executor.&lt;workload&gt;.threads and camel.lsp.executor.&lt;workload&gt;.queueSize.
+ */
+public enum Workload {
+	
+	/** completion, hover */
+	INTERACTIVE(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), 100, Thread.NORM_PRIORITY),
+	/** document symbols */
+	STRUCTURAL(2, 100, Thread.NORM_PRIORITY),
+	/** diagnostics, indexing, catalog loading */
+	BACKGROUND(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), 1000, Thread.MIN_PRIORITY);
+	
+	private final int defaultThreads;
+	private final int defaultQueueSize;
+	private final int threadPriority;
+
+	Workload(int defaultThreads, int defaultQueueSize, int threadPriority) {
+		this.defaultThreads = defaultThreads;
+		this.defaultQueueSize = defaultQueueSize;
+		this.threadPriority = threadPriority;
+	}
+	
+	public String getPropertyPrefix() {
+		return "camel.lsp.executor." + name().toLowerCase() + ".";
+	}
+	
+	public int getThreads() {
+		return Math.max(1, Integer.getInteger(getPropertyPrefix() + "threads", defaultThreads));
+	}
+	
+	public int getQueueSize() {
+		return Math.max(1, Integer.getInteger(getPropertyPrefix() + "queueSize", defaultQueueSize));
+	}
+	
+	public int getThreadPriority() {
+		return threadPriority;
+	}
+}
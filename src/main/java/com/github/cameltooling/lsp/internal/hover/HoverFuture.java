@@ -21,23 +21,27 @@ import java.util.function.Function;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
 import com.github.cameltooling.model.ComponentModel;
-import com.github.cameltooling.model.util.ModelHelper;
 
 public class HoverFuture implements Function<CamelCatalog, Hover> {
 	
 	private String componentName;
+	private CancelChecker cancelChecker;
 
-	public HoverFuture(String componentName) {
+	public HoverFuture(String componentName, CancelChecker cancelChecker) {
 		this.componentName = componentName;
+		this.cancelChecker = cancelChecker;
 	}
 
 	@Override
 	public Hover apply(CamelCatalog camelCatalog) {
+		cancelChecker.checkCanceled();
 		Hover hover = new Hover();
-		ComponentModel componentModel = ModelHelper.generateComponentModel(camelCatalog.componentJSonSchema(componentName), true);
+		ComponentModel componentModel = CachingCamelCatalog.getComponentModel(camelCatalog, componentName);
 		hover.setContents(Collections.singletonList((Either.forLeft(componentModel.getDescription()))));
 		return hover;
 	}
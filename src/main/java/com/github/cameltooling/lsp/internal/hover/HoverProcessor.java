@@ -16,15 +16,18 @@
  */
 package com.github.cameltooling.lsp.internal.hover;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
 import com.github.cameltooling.lsp.internal.parser.ParserFileHelper;
 import com.github.cameltooling.lsp.internal.parser.ParserFileHelperFactory;
 import com.github.cameltooling.model.util.StringUtils;
@@ -40,16 +43,21 @@ public class HoverProcessor {
 		this.camelCatalog = camelCatalog;
 	}
 
-	public CompletableFuture<Hover> getHover(Position position) {
+	public CompletableFuture<Hover> getHover(Position position, CancelChecker cancelChecker) {
 		try {
+			long parseStart = System.nanoTime();
 			ParserFileHelper parserFileHelper = new ParserFileHelperFactory().getCorrespondingParserFileHelper(textDocumentItem, position.getLine());
+			cancelChecker.checkCanceled();
 			if (parserFileHelper != null){
 				String camelComponentUri = parserFileHelper.getCamelComponentUri(textDocumentItem, position);
 				String componentName = StringUtils.asComponentName(camelComponentUri);
+				LatencyMetrics.recordPhase(LatencyMetrics.PARSE, parseStart);
 				if (componentName != null) {
-					return camelCatalog.thenApply(new HoverFuture(componentName));
+					return camelCatalog.thenApply(new HoverFuture(componentName, cancelChecker));
 				}
 			}
+		} catch (CancellationException e) {
+			throw e;
 		} catch (Exception e) {
 			LOGGER.error("Error searching hover", e);
 		}
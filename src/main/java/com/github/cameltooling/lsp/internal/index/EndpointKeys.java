@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keys identifying the in-memory endpoints linking routes together, so that producers and consumers of the same endpoint
+ * can be matched whatever their options: <code>direct:processOrder?timeout=5</code> and <code>direct://processOrder</code>
+ * both have the key <code>direct:processOrder</code>.
+ */
+public final class EndpointKeys {
+	
+	static final List<String> INTERNAL_SCHEMES = Arrays.asList("direct", "direct-vm", "seda", "vm");
+	
+	private EndpointKeys() {
+		// util class
+	}
+	
+	/**
+	 * @param endpointUri the uri of an endpoint
+	 * @return the scheme and name of the endpoint, null if it is not a direct, direct-vm, seda or vm endpoint or has no name
+	 */
+	public static String of(String endpointUri) {
+		if (endpointUri == null) {
+			return null;
+		}
+		int schemeEnd = endpointUri.indexOf(':');
+		if (schemeEnd <= 0) {
+			return null;
+		}
+		String scheme = endpointUri.substring(0, schemeEnd).trim().toLowerCase(Locale.ENGLISH);
+		if (!INTERNAL_SCHEMES.contains(scheme)) {
+			return null;
+		}
+		int nameStart = schemeEnd + 1;
+		if (endpointUri.startsWith("//", nameStart)) {
+			nameStart += 2;
+		}
+		int nameEnd = endpointUri.indexOf('?', nameStart);
+		String name = (nameEnd != -1 ? endpointUri.substring(nameStart, nameEnd) : endpointUri.substring(nameStart)).trim();
+		return name.isEmpty() ? null : scheme + ":" + name;
+	}
+
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups the file events notified by the client, for instance the hundreds of events of a git checkout, into a single change set.
+ * 
+ * Events are coalesced per URI: a deletion wins over the previous events and any other event after a deletion means
+ * that the file has to be read again. The change set is flushed once no event was received during the quiet period,
+ * or after ten quiet periods if events keep arriving.
+ */
+public class FileEventBatcher {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(FileEventBatcher.class);
+	private static final int MAX_DELAY_IN_QUIET_PERIODS = 10;
+	
+	private final long quietPeriodMillis;
+	private final Consumer<Map<String, FileChangeType>> flusher;
+	private final Object flushLock = new Object();
+	private Map<String, FileChangeType> pending = new LinkedHashMap<>();
+	private long firstPendingEventTime;
+	private long lastEventTime;
+	private ScheduledExecutorService scheduler;
+	private boolean stopped;
+
+	/**
+	 * @param quietPeriodMillis time without event after which the pending events are flushed
+	 * @param flusher receives the coalesced change of each URI, in the order in which the URIs were first notified
+	 */
+	public FileEventBatcher(long quietPeriodMillis, Consumer<Map<String, FileChangeType>> flusher) {
+		this.quietPeriodMillis = Math.max(1, quietPeriodMillis);
+		this.flusher = flusher;
+	}
+	
+	public synchronized void submit(List<FileEvent> events) {
+		if (stopped || events.isEmpty()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (pending.isEmpty()) {
+			firstPendingEventTime = now;
+		}
+		lastEventTime = now;
+		for (FileEvent event : events) {
+			pending.merge(event.getUri(), event.getType(), FileEventBatcher::coalesce);
+		}
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Camel File Events");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::flushIfQuiet, quietPeriodMillis, quietPeriodMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Hands the pending change set over to the flusher immediately, after the change set being flushed if any.
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			Map<String, FileChangeType> changes;
+			synchronized (this) {
+				if (pending.isEmpty()) {
+					return;
+				}
+				changes = pending;
+				pending = new LinkedHashMap<>();
+			}
+			try {
+				flusher.accept(changes);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Cannot process " + changes.size() + " file changes", e);
+			}
+		}
+	}
+	
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+	
+	public synchronized void stop() {
+		stopped = true;
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		pending.clear();
+	}
+
+	private void flushIfQuiet() {
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			boolean quiet = now - lastEventTime >= quietPeriodMillis;
+			boolean overdue = now - firstPendingEventTime >= quietPeriodMillis * MAX_DELAY_IN_QUIET_PERIODS;
+			if (pending.isEmpty() || !(quiet || overdue)) {
+				return;
+			}
+		}
+		flush();
+	}
+	
+	static FileChangeType coalesce(FileChangeType previous, FileChangeType next) {
+		if (next == FileChangeType.Deleted) {
+			return FileChangeType.Deleted;
+		}
+		if (previous == FileChangeType.Created && next == FileChangeType.Changed) {
+			return FileChangeType.Created;
+		}
+		// deleted then created again, or changed several times: the file is read from the disk when flushed
+		return FileChangeType.Changed;
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * A route id or an endpoint URI found in a file of the workspace.
+ */
+public class IndexedSymbol {
+	
+	public enum Kind {
+		ROUTE,
+		/**
+		 * Endpoint from which a route consumes, for instance in from("direct:a").
+		 */
+		CONSUMER,
+		/**
+		 * Endpoint to which a route sends, for instance in to("direct:a").
+		 */
+		PRODUCER,
+		/**
+		 * Endpoint used in a way the Camel parsers do not qualify.
+		 */
+		ENDPOINT
+	}
+	
+	private final String name;
+	private final String searchKey;
+	private final Kind kind;
+	private final String uri;
+	private final Range range;
+	private final String endpointKey;
+	
+	public IndexedSymbol(String name, Kind kind, String uri, Range range) {
+		this.name = name;
+		this.searchKey = name.toLowerCase(Locale.ENGLISH);
+		this.kind = kind;
+		this.uri = uri;
+		this.range = range;
+		this.endpointKey = kind != Kind.ROUTE ? EndpointKeys.of(name) : null;
+	}
+
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the name in lower case, as searched by the index
+	 */
+	public String getSearchKey() {
+		return searchKey;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public Range getRange() {
+		return range;
+	}
+	
+	public boolean isEndpoint() {
+		return kind != Kind.ROUTE;
+	}
+	
+	/**
+	 * @return the key of a direct, direct-vm, seda or vm endpoint, null for other symbols
+	 * @see EndpointKeys
+	 */
+	public String getEndpointKey() {
+		return endpointKey;
+	}
+	
+	/**
+	 * @return whether the position is inside the range of the symbol, bounds included
+	 */
+	public boolean contains(Position position) {
+		return !isBefore(position, range.getStart()) && !isBefore(range.getEnd(), position);
+	}
+	
+	/**
+	 * @param symbols the symbols of a document
+	 * @param position a position in this document
+	 * @return the symbol at this position, null if there is none
+	 */
+	public static IndexedSymbol findAt(List<IndexedSymbol> symbols, Position position) {
+		for (IndexedSymbol symbol : symbols) {
+			if (symbol.contains(position)) {
+				return symbol;
+			}
+		}
+		return null;
+	}
+	
+	public Location toLocation() {
+		return new Location(uri, range);
+	}
+	
+	public SymbolInformation toSymbolInformation() {
+		String fileName = uri.substring(uri.lastIndexOf('/') + 1);
+		return new SymbolInformation(name, kind == Kind.ROUTE ? SymbolKind.Field : SymbolKind.String, toLocation(), fileName);
+	}
+	
+	private static boolean isBefore(Position position, Position other) {
+		return position.getLine() < other.getLine() || (position.getLine() == other.getLine() && position.getCharacter() < other.getCharacter());
+	}
+	
+	@Override
+	public String toString() {
+		return kind + " " + name + " in " + uri;
+	}
+
+}
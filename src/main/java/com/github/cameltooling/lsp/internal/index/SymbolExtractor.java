@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.parser.RouteBuilderParser;
+import org.apache.camel.parser.XmlRouteParser;
+import org.apache.camel.parser.model.CamelEndpointDetails;
+import org.apache.camel.parser.model.CamelRouteDetails;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.CamelEndpointDetailsWrapper;
+import com.github.cameltooling.lsp.internal.diagnostic.EndpointRangeResolver;
+import com.github.cameltooling.lsp.internal.parser.DocumentOffsetIndex;
+import com.github.cameltooling.lsp.internal.workspace.WorkspaceCrawler;
+
+/**
+ * Extracts the route ids and endpoint URIs of a file with the Camel route parsers, a Java file is parsed only once for both.
+ */
+public class SymbolExtractor {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(SymbolExtractor.class);
+	
+	/**
+	 * @param uri the uri of the file
+	 * @param text the content of the file
+	 * @return the symbols of the file in document order, routes first, an empty list if the file does not contain Camel routes or cannot be parsed
+	 */
+	public List<IndexedSymbol> extract(String uri, String text) {
+		if (!WorkspaceCrawler.isCamelFile(uri, text)) {
+			return Collections.emptyList();
+		}
+		List<CamelRouteDetails> routes = new ArrayList<>();
+		List<CamelEndpointDetails> endpoints = new ArrayList<>();
+		boolean xml = uri.endsWith(".xml");
+		try {
+			if (xml) {
+				XmlRouteParser.parseXmlRouteRouteIds(toInputStream(text), "", "/" + uri, routes);
+				XmlRouteParser.parseXmlRouteEndpoints(toInputStream(text), "", "/" + uri, endpoints);
+			} else {
+				JavaClassSource clazz = (JavaClassSource) Roaster.parse(text);
+				RouteBuilderParser.parseRouteBuilderRouteIds(clazz, "", "/" + uri, routes);
+				RouteBuilderParser.parseRouteBuilderEndpoints(clazz, "", "/" + uri, endpoints);
+			}
+		} catch (Exception e) {
+			LOGGER.debug("Cannot extract symbols of " + uri, e);
+			return Collections.emptyList();
+		}
+		DocumentOffsetIndex offsetIndex = new DocumentOffsetIndex(text);
+		List<IndexedSymbol> symbols = new ArrayList<>(routes.size() + endpoints.size());
+		for (CamelRouteDetails route : routes) {
+			String routeId = route.getRouteId();
+			if (routeId != null && !routeId.isEmpty()) {
+				symbols.add(new IndexedSymbol(routeId, IndexedSymbol.Kind.ROUTE, uri, findRouteIdRange(offsetIndex, routeId, route.getLineNumber())));
+			}
+		}
+		List<CamelEndpointDetailsWrapper> wrappers = new ArrayList<>(endpoints.size());
+		for (CamelEndpointDetails endpoint : endpoints) {
+			if (endpoint.getEndpointUri() != null && !endpoint.getEndpointUri().isEmpty()) {
+				wrappers.add(new CamelEndpointDetailsWrapper(endpoint));
+			}
+		}
+		for (Map.Entry<CamelEndpointDetailsWrapper, Range> endpoint : new EndpointRangeResolver(offsetIndex, xml).resolve(wrappers).entrySet()) {
+			CamelEndpointDetails details = endpoint.getKey().getCamelEndpointDetails();
+			symbols.add(new IndexedSymbol(details.getEndpointUri(), kindOf(details), uri, endpoint.getValue()));
+		}
+		return symbols;
+	}
+
+	private static IndexedSymbol.Kind kindOf(CamelEndpointDetails details) {
+		if (details.isConsumerOnly()) {
+			return IndexedSymbol.Kind.CONSUMER;
+		} else if (details.isProducerOnly()) {
+			return IndexedSymbol.Kind.PRODUCER;
+		}
+		return IndexedSymbol.Kind.ENDPOINT;
+	}
+	
+	/**
+	 * The parsers provide the line of the route, the id is searched from there as a quoted string, then in the whole document.
+	 */
+	private static Range findRouteIdRange(DocumentOffsetIndex offsetIndex, String routeId, String lineNumber) {
+		String text = offsetIndex.getText();
+		int line = toZeroBasedLine(lineNumber, offsetIndex.getLineCount());
+		int searchStart = line >= 0 ? offsetIndex.getLineStartOffset(line) : 0;
+		int offset = text.indexOf('"' + routeId + '"', searchStart);
+		if (offset == -1) {
+			offset = text.indexOf('"' + routeId + '"');
+		}
+		if (offset != -1) {
+			return new Range(offsetIndex.getPosition(offset + 1), offsetIndex.getPosition(offset + 1 + routeId.length()));
+		}
+		int fallbackLine = Math.max(line, 0);
+		return new Range(new Position(fallbackLine, 0), new Position(fallbackLine, offsetIndex.getLineLength(fallbackLine)));
+	}
+
+	private static int toZeroBasedLine(String lineNumber, int lineCount) {
+		if (lineNumber == null) {
+			return -1;
+		}
+		try {
+			int line = Integer.parseInt(lineNumber.trim()) - 1;
+			return line < lineCount ? line : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static ByteArrayInputStream toInputStream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
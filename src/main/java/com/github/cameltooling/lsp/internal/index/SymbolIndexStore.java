@@ -0,0 +1,311 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.cache.CacheFiles;
+import com.github.cameltooling.lsp.internal.cache.CacheFiles.CacheFileOutput;
+
+/**
+ * State of the files indexed from the disk: modification time, content hash and symbols of each file.
+ * 
+ * It is persisted in segment files so that after a restart the symbols of the unchanged files are loaded from the memory mapped
+ * segments instead of being parsed again. The files are distributed among a fixed number of segments by a hash of their uri,
+ * a change rewrites only the segments of the changed files. A segment written by another format or server version is ignored
+ * and its files are indexed again.
+ * 
+ * Each rewrite of a segment goes to a file with a new generation number before the previous file is deleted: a segment mapped
+ * by the current session cannot be replaced or deleted on Windows. A previous file which cannot be deleted yet is deleted
+ * by a later persist or load, the latest generation of each segment being the one read.
+ */
+public class SymbolIndexStore {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(SymbolIndexStore.class);
+	private static final int MAGIC = 0xCA3E1DE8;
+	static final int FORMAT_VERSION = 1;
+	static final int SEGMENT_COUNT = 16;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".idx";
+	private static final Pattern SEGMENT_FILE = Pattern.compile(Pattern.quote(SEGMENT_PREFIX) + "(\\d+)\\.(\\d+)" + Pattern.quote(SEGMENT_SUFFIX));
+	private static final IndexedSymbol.Kind[] KINDS = IndexedSymbol.Kind.values();
+	
+	private final String serverVersion;
+	private final Map<String, StoredFile> files = new ConcurrentHashMap<>();
+	private final Set<Integer> dirtySegments = new HashSet<>();
+	/** generation of the current file of each segment, 0 when the segment has no file */
+	private final long[] generations = new long[SEGMENT_COUNT];
+	private final List<Path> obsoleteFiles = new ArrayList<>();
+	private volatile Path directory;
+	
+	public SymbolIndexStore(String serverVersion) {
+		this.serverVersion = serverVersion;
+	}
+	
+	/**
+	 * Reads the segments persisted in the directory, which is then used by {@link #persist()}.
+	 * 
+	 * @param directory the directory of the segment files
+	 * @return the files read from the segments, except the ones already stored in this session which are more recent
+	 */
+	public synchronized Map<String, StoredFile> load(Path directory) {
+		this.directory = directory;
+		Map<String, StoredFile> loaded = new LinkedHashMap<>();
+		if (!Files.isDirectory(directory)) {
+			return loaded;
+		}
+		try {
+			findLatestGenerations();
+		} catch (IOException e) {
+			LOGGER.warn("Cannot list the segments of the symbol index in " + directory, e);
+			return loaded;
+		}
+		for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+			if (generations[segment] > 0 && !readSegment(segmentFile(segment, generations[segment]), loaded)) {
+				// rewritten from the files indexed again
+				markDirty(segment);
+			}
+		}
+		deleteObsoleteFiles();
+		for (Map.Entry<String, StoredFile> file : loaded.entrySet()) {
+			files.putIfAbsent(file.getKey(), file.getValue());
+		}
+		return loaded;
+	}
+	
+	public StoredFile get(String uri) {
+		return files.get(uri);
+	}
+	
+	public void put(String uri, long modificationTime, String contentHash, List<IndexedSymbol> symbols) {
+		files.put(uri, new StoredFile(modificationTime, contentHash, symbols));
+		markDirty(segmentOf(uri));
+	}
+	
+	public void remove(String uri) {
+		if (files.remove(uri) != null) {
+			markDirty(segmentOf(uri));
+		}
+	}
+	
+	public Set<String> getUris() {
+		return Collections.unmodifiableSet(files.keySet());
+	}
+	
+	/**
+	 * Rewrites the segments containing files changed since the previous call, does nothing if no directory was loaded.
+	 */
+	public synchronized void persist() {
+		Path segmentsDirectory = directory;
+		if (segmentsDirectory == null) {
+			return;
+		}
+		List<Integer> segments;
+		synchronized (dirtySegments) {
+			segments = new ArrayList<>(dirtySegments);
+			dirtySegments.clear();
+		}
+		deleteObsoleteFiles();
+		for (int segment : segments) {
+			try {
+				writeSegment(segment);
+			} catch (IOException e) {
+				LOGGER.warn("Cannot persist segment " + segment + " of the symbol index", e);
+			}
+		}
+	}
+	
+	private void findLatestGenerations() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+				if (!matcher.matches()) {
+					continue;
+				}
+				int segment = Integer.parseInt(matcher.group(1));
+				long generation = Long.parseLong(matcher.group(2));
+				if (segment >= SEGMENT_COUNT || generation <= generations[segment]) {
+					obsoleteFiles.add(file);
+				} else {
+					if (generations[segment] > 0) {
+						obsoleteFiles.add(segmentFile(segment, generations[segment]));
+					}
+					generations[segment] = generation;
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException(e);
+		}
+	}
+	
+	private void deleteObsoleteFiles() {
+		obsoleteFiles.removeIf(this::delete);
+	}
+	
+	private boolean delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+			return true;
+		} catch (IOException e) {
+			LOGGER.debug("Cannot delete " + file + " yet", e);
+			return false;
+		}
+	}
+
+	private boolean readSegment(Path segmentFile, Map<String, StoredFile> loaded) {
+		Map<String, StoredFile> segmentFiles = new LinkedHashMap<>();
+		try {
+			ByteBuffer buffer = CacheFiles.map(segmentFile);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !serverVersion.equals(CacheFiles.readString(buffer))) {
+				LOGGER.info("Ignoring symbol index segment {} written by another version", segmentFile.getFileName());
+				return false;
+			}
+			int fileCount = buffer.getInt();
+			for (int i = 0; i < fileCount; i++) {
+				String uri = CacheFiles.readString(buffer);
+				long modificationTime = buffer.getLong();
+				String contentHash = CacheFiles.readString(buffer);
+				int symbolCount = buffer.getInt();
+				List<IndexedSymbol> symbols = new ArrayList<>(symbolCount);
+				for (int j = 0; j < symbolCount; j++) {
+					String name = CacheFiles.readString(buffer);
+					IndexedSymbol.Kind kind = KINDS[buffer.getInt()];
+					Range range = new Range(new Position(buffer.getInt(), buffer.getInt()), new Position(buffer.getInt(), buffer.getInt()));
+					symbols.add(new IndexedSymbol(name, kind, uri, range));
+				}
+				segmentFiles.put(uri, new StoredFile(modificationTime, contentHash, symbols));
+			}
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			LOGGER.debug("Ignoring unreadable symbol index segment " + segmentFile, e);
+			return false;
+		}
+		loaded.putAll(segmentFiles);
+		return true;
+	}
+	
+	private void writeSegment(int segment) throws IOException {
+		List<Map.Entry<String, StoredFile>> segmentFiles = new ArrayList<>();
+		for (Map.Entry<String, StoredFile> file : files.entrySet()) {
+			if (segmentOf(file.getKey()) == segment) {
+				segmentFiles.add(file);
+			}
+		}
+		if (segmentFiles.isEmpty()) {
+			if (generations[segment] == 0) {
+				return;
+			}
+			if (delete(segmentFile(segment, generations[segment]))) {
+				generations[segment] = 0;
+				return;
+			}
+			// superseded by an empty segment instead
+		}
+		try (CacheFileOutput output = new CacheFileOutput()) {
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			CacheFiles.writeString(output, serverVersion);
+			output.writeInt(segmentFiles.size());
+			for (Map.Entry<String, StoredFile> file : segmentFiles) {
+				CacheFiles.writeString(output, file.getKey());
+				output.writeLong(file.getValue().getModificationTime());
+				CacheFiles.writeString(output, file.getValue().getContentHash());
+				output.writeInt(file.getValue().getSymbols().size());
+				for (IndexedSymbol symbol : file.getValue().getSymbols()) {
+					CacheFiles.writeString(output, symbol.getName());
+					output.writeInt(symbol.getKind().ordinal());
+					Range range = symbol.getRange();
+					output.writeInt(range.getStart().getLine());
+					output.writeInt(range.getStart().getCharacter());
+					output.writeInt(range.getEnd().getLine());
+					output.writeInt(range.getEnd().getCharacter());
+				}
+			}
+			long generation = generations[segment] + 1;
+			CacheFiles.writeAtomically(segmentFile(segment, generation), output.toByteArray());
+			if (generations[segment] > 0) {
+				Path previousFile = segmentFile(segment, generations[segment]);
+				if (!delete(previousFile)) {
+					obsoleteFiles.add(previousFile);
+				}
+			}
+			generations[segment] = generation;
+		}
+	}
+	
+	private void markDirty(int segment) {
+		synchronized (dirtySegments) {
+			dirtySegments.add(segment);
+		}
+	}
+
+	private Path segmentFile(int segment, long generation) {
+		return directory.resolve(SEGMENT_PREFIX + segment + "." + generation + SEGMENT_SUFFIX);
+	}
+	
+	static int segmentOf(String uri) {
+		return Math.floorMod(uri.hashCode(), SEGMENT_COUNT);
+	}
+	
+	/**
+	 * A file as it was on disk when it was indexed.
+	 */
+	public static class StoredFile {
+		
+		private final long modificationTime;
+		private final String contentHash;
+		private final List<IndexedSymbol> symbols;
+		
+		public StoredFile(long modificationTime, String contentHash, List<IndexedSymbol> symbols) {
+			this.modificationTime = modificationTime;
+			this.contentHash = contentHash;
+			this.symbols = symbols;
+		}
+
+		public long getModificationTime() {
+			return modificationTime;
+		}
+
+		public String getContentHash() {
+			return contentHash;
+		}
+
+		public List<IndexedSymbol> getSymbols() {
+			return symbols;
+		}
+	}
+
+}
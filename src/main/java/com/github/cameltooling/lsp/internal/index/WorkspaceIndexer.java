@@ -0,0 +1,441 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+import com.github.cameltooling.lsp.internal.executor.Workload;
+import com.github.cameltooling.lsp.internal.workspace.WorkspaceCrawler;
+
+/**
+ * Keeps the {@link WorkspaceSymbolIndex} up to date: the whole workspace is indexed in background on startup,
+ * then opened documents are re-indexed on each edit and the other files when the client notifies that they changed on disk.
+ * 
+ * The startup crawl indexes the files by batches, each batch being a single update of the index, and runs on the low priority
+ * background executor behind the work submitted meanwhile.
+ * 
+ * File events are grouped by a {@link FileEventBatcher}. Only the files of a change set are read again, in parallel by batches,
+ * and the files whose content did not change since they were indexed are not parsed, so that switching branches costs
+ * the number of files which actually differ rather than a rescan of the workspace. The whole change set is then applied to
+ * the index at once, a query sees either none or all of its files updated.
+ * 
+ * The state of the files indexed from the disk is persisted in the workspace cache by a {@link SymbolIndexStore}. On startup the
+ * persisted symbols are put in the index before the crawl, which then parses only the files whose modification time and
+ * content changed since the previous session.
+ */
+public class WorkspaceIndexer {
+	
+	public static final String ENABLED_PROPERTY = "camel.lsp.workspace.index";
+	public static final String BATCH_DELAY_PROPERTY = "camel.lsp.workspace.index.batchDelay";
+	private static final long DEFAULT_BATCH_DELAY_MILLIS = 300;
+	static final int BATCH_SIZE = 50;
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkspaceIndexer.class);
+	
+	private final CamelLanguageServer camelLanguageServer;
+	private final WorkspaceSymbolIndex index;
+	private final SymbolExtractor extractor = new SymbolExtractor();
+	private final Executor executor;
+	private final Queue<List<Path>> pendingBatches = new ConcurrentLinkedQueue<>();
+	private final FileEventBatcher fileEventBatcher = new FileEventBatcher(Long.getLong(BATCH_DELAY_PROPERTY, DEFAULT_BATCH_DELAY_MILLIS), this::applyChanges);
+	/**
+	 * The files indexed from the disk, the opened documents being indexed with their editor content are not in it.
+	 */
+	private final SymbolIndexStore store = new SymbolIndexStore(WorkspaceCacheDirectory.getServerVersion());
+	private final AtomicInteger remainingCrawlBatches = new AtomicInteger();
+	private volatile Set<String> crawledUris;
+	/**
+	 * Version of the editor content indexed for each opened document.
+	 */
+	private final Map<String, IndexedVersion> indexedVersions = new HashMap<>();
+	private final AtomicLong changeSequence = new AtomicLong();
+	private boolean started;
+	private volatile boolean stopped;
+	
+	public WorkspaceIndexer(CamelLanguageServer camelLanguageServer, WorkspaceSymbolIndex index) {
+		this.camelLanguageServer = camelLanguageServer;
+		this.index = index;
+		this.executor = camelLanguageServer.getExecutors().getBackground();
+	}
+	
+	public static boolean isEnabled() {
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.TRUE.toString()));
+	}
+	
+	/**
+	 * Loads the index persisted by the previous session, then crawls the workspace and schedules the indexing of all candidate files.
+	 * 
+	 * @param rootUri the root uri of the workspace
+	 */
+	public synchronized void start(String rootUri) {
+		if (rootUri == null || started) {
+			return;
+		}
+		started = true;
+		try {
+			executor.execute(() -> {
+				if (WorkspaceCacheDirectory.isEnabled()) {
+					loadPersistedIndex(new WorkspaceCacheDirectory(rootUri).resolve("symbols"));
+				}
+				crawl(rootUri);
+			});
+		} catch (RejectedExecutionException e) {
+			LOGGER.warn("Cannot schedule indexing of workspace {}: {}", rootUri, e.getMessage());
+		}
+	}
+	
+	public void stop() {
+		stopped = true;
+		pendingBatches.clear();
+		fileEventBatcher.stop();
+		store.persist();
+	}
+	
+	/**
+	 * Re-indexes an opened document in background, the task is dropped if the document changes again before it runs.
+	 * 
+	 * @param versionKey the key under which the versions of the document are tracked by the executors
+	 * @param textDocument the new state of the document
+	 */
+	public void documentChanged(String versionKey, TextDocumentItem textDocument) {
+		String uri = textDocument.getUri();
+		if (stopped || !WorkspaceCrawler.isCandidate(uri)) {
+			return;
+		}
+		store.remove(uri);
+		long sequence = changeSequence.incrementAndGet();
+		try {
+			camelLanguageServer.getExecutors().submitBackground(versionKey, textDocument.getVersion(), () -> {
+				List<IndexedSymbol> symbols = extractor.extract(uri, textDocument.getText());
+				synchronized (indexedVersions) {
+					// an older change parsed concurrently must not replace a more recent one, versions restart when a document is opened again
+					IndexedVersion indexedVersion = indexedVersions.get(uri);
+					if (indexedVersion == null || indexedVersion.sequence < sequence) {
+						index.update(uri, symbols);
+						indexedVersions.put(uri, new IndexedVersion(sequence, textDocument.getVersion()));
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Cannot index {}: {}", uri, e.getMessage());
+		}
+	}
+	
+	/**
+	 * The editor content of a closed document may have been discarded, the file is re-indexed from the disk.
+	 * The editor changes still queued are invalidated by a more recent sequence, they must not index the discarded content.
+	 */
+	public void documentClosed(String uri) {
+		synchronized (indexedVersions) {
+			indexedVersions.put(uri, new IndexedVersion(changeSequence.incrementAndGet(), null));
+		}
+		filesChanged(Collections.singletonList(new FileEvent(uri, FileChangeType.Changed)));
+	}
+	
+	/**
+	 * The symbols of an opened document are taken from the index when it is up to date with the editor content,
+	 * otherwise only this document is parsed, the index is left to the background indexing.
+	 * 
+	 * @param uri the uri of the document
+	 * @param textDocument the opened document, null if it is not opened
+	 * @return the symbols of the current content of the document
+	 */
+	public List<IndexedSymbol> getDocumentSymbols(String uri, TextDocumentItem textDocument) {
+		if (textDocument != null) {
+			IndexedVersion indexedVersion;
+			synchronized (indexedVersions) {
+				indexedVersion = indexedVersions.get(uri);
+			}
+			if (indexedVersion == null || indexedVersion.version == null || indexedVersion.version != textDocument.getVersion()) {
+				return extractor.extract(uri, textDocument.getText());
+			}
+		}
+		return index.getSymbols(uri);
+	}
+	
+	/**
+	 * @param events the changes on disk notified by the client, they are applied to the index after a short delay grouping the bursts
+	 */
+	public void filesChanged(List<FileEvent> events) {
+		fileEventBatcher.submit(events);
+	}
+	
+	/**
+	 * Applies immediately the file events waiting to be grouped.
+	 */
+	public void flushFileEvents() {
+		fileEventBatcher.flush();
+	}
+	
+	/**
+	 * Called with the change set of a burst of file events. Folders are handled as well: a deleted folder removes all
+	 * its indexed files and a created one is crawled.
+	 */
+	private void applyChanges(Map<String, FileChangeType> changes) {
+		if (stopped) {
+			return;
+		}
+		Map<String, List<IndexedSymbol>> symbolsByFile = new LinkedHashMap<>();
+		List<Path> filesToRead = new ArrayList<>();
+		for (Map.Entry<String, FileChangeType> change : changes.entrySet()) {
+			String uri = change.getKey();
+			if (change.getValue() == FileChangeType.Deleted) {
+				for (String deletedUri : index.getIndexedUris(uri)) {
+					symbolsByFile.put(deletedUri, Collections.emptyList());
+				}
+				String folderPrefix = uri.endsWith("/") ? uri : uri + "/";
+				for (String storedUri : store.getUris()) {
+					if (storedUri.equals(uri) || storedUri.startsWith(folderPrefix)) {
+						store.remove(storedUri);
+					}
+				}
+			} else {
+				filesToRead.addAll(toFiles(uri));
+			}
+		}
+		List<CompletableFuture<Map<String, List<IndexedSymbol>>>> batches = new ArrayList<>();
+		for (int i = 0; i < filesToRead.size(); i += BATCH_SIZE) {
+			List<Path> batch = filesToRead.subList(i, Math.min(filesToRead.size(), i + BATCH_SIZE));
+			try {
+				batches.add(CompletableFuture.supplyAsync(() -> readBatch(batch, false), executor));
+			} catch (RejectedExecutionException e) {
+				batches.add(CompletableFuture.completedFuture(readBatch(batch, false)));
+			}
+		}
+		for (CompletableFuture<Map<String, List<IndexedSymbol>>> batch : batches) {
+			try {
+				symbolsByFile.putAll(batch.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				LOGGER.warn("Cannot index changed files", e);
+			}
+		}
+		keepEditorContent(symbolsByFile);
+		if (!stopped && !symbolsByFile.isEmpty()) {
+			index.update(symbolsByFile);
+		}
+		store.persist();
+		LOGGER.debug("Applied {} file changes, {} files updated in the index", changes.size(), symbolsByFile.size());
+	}
+
+	private List<Path> toFiles(String uri) {
+		try {
+			Path path = Paths.get(URI.create(uri));
+			if (WorkspaceCrawler.isCandidate(uri)) {
+				return Collections.singletonList(path);
+			} else if (Files.isDirectory(path)) {
+				return new WorkspaceCrawler().findCandidateFiles(uri);
+			}
+		} catch (IOException | IllegalArgumentException | FileSystemNotFoundException e) {
+			LOGGER.debug("Cannot index {}: {}", uri, e.getMessage());
+		}
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Puts the symbols persisted by the previous session in the index, they are verified by the crawl afterwards.
+	 */
+	private void loadPersistedIndex(Path directory) {
+		long start = System.currentTimeMillis();
+		Map<String, List<IndexedSymbol>> symbolsByFile = new LinkedHashMap<>();
+		for (Map.Entry<String, SymbolIndexStore.StoredFile> file : store.load(directory).entrySet()) {
+			symbolsByFile.put(file.getKey(), file.getValue().getSymbols());
+		}
+		keepEditorContent(symbolsByFile);
+		if (!stopped) {
+			index.update(symbolsByFile);
+		}
+		LOGGER.info("Loaded the symbols of {} files from the persisted index in {} ms", symbolsByFile.size(), System.currentTimeMillis() - start);
+	}
+	
+	private void crawl(String rootUri) {
+		try {
+			List<Path> files = new WorkspaceCrawler().findCandidateFiles(rootUri);
+			LOGGER.info("Indexing {} files of workspace {}", files.size(), rootUri);
+			crawledUris = files.stream().map(file -> file.toUri().toString()).collect(Collectors.toSet());
+			for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+				pendingBatches.add(files.subList(i, Math.min(files.size(), i + BATCH_SIZE)));
+			}
+			remainingCrawlBatches.set(pendingBatches.size());
+			if (pendingBatches.isEmpty()) {
+				crawlFinished();
+			}
+			for (int i = 0; i < Workload.BACKGROUND.getThreads(); i++) {
+				scheduleNext();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot crawl workspace " + rootUri, e);
+		}
+	}
+	
+	/**
+	 * Indexes the next pending batch then queues the following one behind the work submitted meanwhile.
+	 */
+	private void indexNext() {
+		List<Path> batch = pendingBatches.poll();
+		while (batch != null && !stopped) {
+			indexBatch(batch);
+			if (scheduleNext()) {
+				return;
+			}
+			// background queue saturated, keep going on this thread
+			batch = pendingBatches.poll();
+		}
+	}
+	
+	private boolean scheduleNext() {
+		if (stopped || pendingBatches.isEmpty()) {
+			return true;
+		}
+		try {
+			executor.execute(this::indexNext);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+	
+	private void indexBatch(List<Path> files) {
+		Map<String, List<IndexedSymbol>> symbolsByFile = readBatch(files, true);
+		keepEditorContent(symbolsByFile);
+		if (!stopped) {
+			index.update(symbolsByFile);
+		}
+		if (remainingCrawlBatches.decrementAndGet() == 0) {
+			crawlFinished();
+		}
+	}
+	
+	/**
+	 * Removes the files persisted by the previous session which no longer exist, then persists the index.
+	 */
+	private void crawlFinished() {
+		Map<String, List<IndexedSymbol>> symbolsByFile = new LinkedHashMap<>();
+		for (String uri : store.getUris()) {
+			if (!crawledUris.contains(uri)) {
+				store.remove(uri);
+				symbolsByFile.put(uri, Collections.emptyList());
+			}
+		}
+		keepEditorContent(symbolsByFile);
+		if (!stopped) {
+			index.update(symbolsByFile);
+			store.persist();
+		}
+		LOGGER.info("Indexed workspace, {} files with Camel routes", index.getFileCount());
+	}
+	
+	/**
+	 * @param trustModificationTime whether a file with the same modification time than when it was indexed is considered as unchanged,
+	 * modification times are trusted by the startup crawl but the content of the files notified as changed is always checked
+	 * @return the symbols of the files whose content changed since they were indexed, an empty list for the files which no longer exist
+	 */
+	private Map<String, List<IndexedSymbol>> readBatch(List<Path> files, boolean trustModificationTime) {
+		Map<String, List<IndexedSymbol>> symbolsByFile = new LinkedHashMap<>();
+		for (Path file : files) {
+			String uri = file.toUri().toString();
+			if (stopped || isOpened(uri)) {
+				// opened documents are indexed with their editor content
+				continue;
+			}
+			try {
+				long modificationTime = Files.getLastModifiedTime(file).toMillis();
+				SymbolIndexStore.StoredFile stored = store.get(uri);
+				if (trustModificationTime && stored != null && stored.getModificationTime() == modificationTime) {
+					continue;
+				}
+				byte[] content = Files.readAllBytes(file);
+				String contentHash = WorkspaceCacheDirectory.hash(content);
+				if (stored != null && contentHash.equals(stored.getContentHash())) {
+					store.put(uri, modificationTime, contentHash, stored.getSymbols());
+				} else {
+					List<IndexedSymbol> symbols = extractor.extract(uri, new String(content, StandardCharsets.UTF_8));
+					store.put(uri, modificationTime, contentHash, symbols);
+					symbolsByFile.put(uri, symbols);
+				}
+			} catch (NoSuchFileException e) {
+				store.remove(uri);
+				symbolsByFile.put(uri, Collections.emptyList());
+			} catch (IOException e) {
+				LOGGER.debug("Cannot index " + uri, e);
+			}
+		}
+		return symbolsByFile;
+	}
+
+	/**
+	 * Documents opened while their file was read keep the symbols of their editor content.
+	 */
+	private void keepEditorContent(Map<String, List<IndexedSymbol>> symbolsByFile) {
+		symbolsByFile.keySet().removeIf(uri -> {
+			if (isOpened(uri)) {
+				store.remove(uri);
+				return true;
+			}
+			return false;
+		});
+	}
+
+	private boolean isOpened(String uri) {
+		return camelLanguageServer.getTextDocumentService().getOpenedDocument(uri) != null;
+	}
+	
+	private static class IndexedVersion {
+		private final long sequence;
+		/** null once the document is closed */
+		private final Integer version;
+		
+		private IndexedVersion(long sequence, Integer version) {
+			this.sequence = sequence;
+			this.version = version;
+		}
+	}
+
+}
@@ -0,0 +1,388 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import com.github.cameltooling.lsp.internal.memory.MemoryAccountable;
+import com.github.cameltooling.lsp.internal.memory.MemoryEstimates;
+
+/**
+ * In memory index of the route ids and endpoint URIs of the workspace, answering <code>workspace/symbol</code> queries.
+ * 
+ * Names are split into tokens on the characters which are neither letters nor digits and on the camel case boundaries,
+ * for instance <code>direct:processOrder?timeout=5</code> gives <code>direct</code>, <code>processorder</code>, <code>process</code>,
+ * <code>order</code>, <code>timeout</code> and <code>5</code>. The tokens are kept sorted so that a query token is looked up
+ * as a prefix with a range of the sorted map, a symbol matches when each token of the query is the prefix of one of its tokens.
+ * 
+ * The occurrences of the direct, direct-vm, seda and vm endpoints are also indexed by {@link EndpointKeys endpoint key}, to find
+ * the producers and consumers of an endpoint across the workspace without parsing any file. The consumers are kept in a map
+ * of their own, as the routes from which the endpoints are consumed are looked up on each go to definition.
+ * 
+ * The symbols of a file are replaced all at once, readers never see a file partially indexed.
+ */
+public class WorkspaceSymbolIndex implements MemoryAccountable {
+	
+	public static final String MEMORY_POOL = "symbolIndex";
+	
+	private static final Comparator<IndexedSymbol> BY_LOCATION = Comparator.comparing(IndexedSymbol::getUri)
+			.thenComparingInt(symbol -> symbol.getRange().getStart().getLine())
+			.thenComparingInt(symbol -> symbol.getRange().getStart().getCharacter());
+	private static final Comparator<IndexedSymbol> BY_NAME = Comparator.comparing(IndexedSymbol::getSearchKey).thenComparing(IndexedSymbol::getName).thenComparing(IndexedSymbol::getUri);
+	
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, List<IndexedSymbol>> symbolsByUri = new HashMap<>();
+	private final Map<String, List<IndexedSymbol>> symbolsByKey = new HashMap<>();
+	private final TreeMap<String, Set<String>> keysByToken = new TreeMap<>();
+	private final Map<String, List<IndexedSymbol>> occurrencesByEndpointKey = new HashMap<>();
+	private final Map<String, List<IndexedSymbol>> consumersByEndpointKey = new HashMap<>();
+	
+	/**
+	 * @param uri the uri of the file
+	 * @param symbols all the symbols of the file, an empty list removes the file from the index
+	 */
+	public void update(String uri, List<IndexedSymbol> symbols) {
+		update(Collections.singletonMap(uri, symbols));
+	}
+	
+	/**
+	 * Replaces the symbols of several files under a single acquisition of the lock.
+	 * 
+	 * @param symbolsByFile all the symbols of each file
+	 */
+	public void update(Map<String, List<IndexedSymbol>> symbolsByFile) {
+		lock.writeLock().lock();
+		try {
+			for (Map.Entry<String, List<IndexedSymbol>> file : symbolsByFile.entrySet()) {
+				removeFile(file.getKey());
+				if (!file.getValue().isEmpty()) {
+					addFile(file.getKey(), file.getValue());
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	public void remove(String uri) {
+		update(uri, Collections.emptyList());
+	}
+	
+	/**
+	 * @param query the text typed by the user, case insensitive
+	 * @param limit the maximum number of symbols returned
+	 * @return the matching symbols, the ones whose name starts with the query first, then sorted by name ignoring the case
+	 */
+	public List<IndexedSymbol> search(String query, int limit) {
+		String searchKey = query != null ? query.trim().toLowerCase(Locale.ENGLISH) : "";
+		List<String> queryTokens = tokenizeQuery(searchKey);
+		List<IndexedSymbol> matches = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			if (queryTokens.isEmpty()) {
+				for (List<IndexedSymbol> symbols : symbolsByUri.values()) {
+					matches.addAll(symbols);
+				}
+			} else {
+				for (String key : findKeys(queryTokens)) {
+					matches.addAll(symbolsByKey.get(key));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		Comparator<IndexedSymbol> prefixFirst = Comparator.comparing(symbol -> !symbol.getSearchKey().startsWith(searchKey));
+		matches.sort(prefixFirst.thenComparing(BY_NAME));
+		return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+	}
+	
+	/**
+	 * @return the symbols of the file, an empty list if it is not indexed
+	 */
+	public List<IndexedSymbol> getSymbols(String uri) {
+		lock.readLock().lock();
+		try {
+			return symbolsByUri.getOrDefault(uri, Collections.emptyList());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * @param uri the uri of a file or of a folder
+	 * @return the file itself if it is indexed, or the indexed files below the folder
+	 */
+	public List<String> getIndexedUris(String uri) {
+		String folderPrefix = uri.endsWith("/") ? uri : uri + "/";
+		List<String> uris = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (String indexedUri : symbolsByUri.keySet()) {
+				if (indexedUri.equals(uri) || indexedUri.startsWith(folderPrefix)) {
+					uris.add(indexedUri);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return uris;
+	}
+	
+	/**
+	 * @param endpointKey the key of a direct, direct-vm, seda or vm endpoint
+	 * @return the producers and consumers of the endpoint in the workspace, sorted by uri then position
+	 */
+	public List<IndexedSymbol> getEndpointOccurrences(String endpointKey) {
+		return getEndpointOccurrences(endpointKey, null, Collections.emptyList());
+	}
+	
+	/**
+	 * @param endpointKey the key of a direct, direct-vm, seda or vm endpoint
+	 * @param documentUri the uri of a document whose indexed symbols are replaced by the provided ones, null if none
+	 * @param documentSymbols the current symbols of the document, which may not be indexed yet
+	 * @return the producers and consumers of the endpoint in the workspace, sorted by uri then position
+	 */
+	public List<IndexedSymbol> getEndpointOccurrences(String endpointKey, String documentUri, List<IndexedSymbol> documentSymbols) {
+		return overlay(occurrencesByEndpointKey, endpointKey, documentUri, documentSymbols, symbol -> true);
+	}
+	
+	/**
+	 * @param endpointKey the key of a direct, direct-vm, seda or vm endpoint
+	 * @param documentUri the uri of a document whose indexed symbols are replaced by the provided ones, null if none
+	 * @param documentSymbols the current symbols of the document, which may not be indexed yet
+	 * @return the consumers of the endpoint in the workspace, sorted by uri then position
+	 */
+	public List<IndexedSymbol> getEndpointConsumers(String endpointKey, String documentUri, List<IndexedSymbol> documentSymbols) {
+		return overlay(consumersByEndpointKey, endpointKey, documentUri, documentSymbols, symbol -> symbol.getKind() == IndexedSymbol.Kind.CONSUMER);
+	}
+	
+	private List<IndexedSymbol> overlay(Map<String, List<IndexedSymbol>> symbolsByEndpointKey, String endpointKey, String documentUri, List<IndexedSymbol> documentSymbols, Predicate<IndexedSymbol> filter) {
+		List<IndexedSymbol> symbols = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (IndexedSymbol symbol : symbolsByEndpointKey.getOrDefault(endpointKey, Collections.emptyList())) {
+				if (!symbol.getUri().equals(documentUri)) {
+					symbols.add(symbol);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		for (IndexedSymbol symbol : documentSymbols) {
+			if (endpointKey.equals(symbol.getEndpointKey()) && filter.test(symbol)) {
+				symbols.add(symbol);
+			}
+		}
+		symbols.sort(BY_LOCATION);
+		return symbols;
+	}
+	
+	public int getFileCount() {
+		lock.readLock().lock();
+		try {
+			return symbolsByUri.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public String getMemoryPoolName() {
+		return MEMORY_POOL;
+	}
+
+	@Override
+	public int getEntryCount() {
+		lock.readLock().lock();
+		try {
+			int count = 0;
+			for (List<IndexedSymbol> symbols : symbolsByUri.values()) {
+				count += symbols.size();
+			}
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The index is rebuilt from the workspace only on startup, it is accounted but never evicted.
+	 */
+	@Override
+	public long getEstimatedBytes() {
+		lock.readLock().lock();
+		try {
+			long bytes = 0;
+			for (Map.Entry<String, List<IndexedSymbol>> file : symbolsByUri.entrySet()) {
+				bytes += MemoryEstimates.MAP_ENTRY + MemoryEstimates.ofString(file.getKey());
+				for (IndexedSymbol symbol : file.getValue()) {
+					// symbol, range and positions, plus the name and its lower case form
+					bytes += 4L * MemoryEstimates.OBJECT_HEADER + 2 * MemoryEstimates.ofString(symbol.getName());
+				}
+			}
+			bytes += (long) symbolsByKey.size() * MemoryEstimates.MAP_ENTRY;
+			for (List<IndexedSymbol> occurrences : occurrencesByEndpointKey.values()) {
+				bytes += MemoryEstimates.MAP_ENTRY + occurrences.size() * 8L;
+			}
+			for (List<IndexedSymbol> consumers : consumersByEndpointKey.values()) {
+				bytes += MemoryEstimates.MAP_ENTRY + consumers.size() * 8L;
+			}
+			for (Map.Entry<String, Set<String>> token : keysByToken.entrySet()) {
+				bytes += MemoryEstimates.MAP_ENTRY + MemoryEstimates.ofString(token.getKey()) + (long) token.getValue().size() * MemoryEstimates.MAP_ENTRY;
+			}
+			return bytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Intersects the keys of the query tokens, starting with the most selective one.
+	 */
+	private Set<String> findKeys(List<String> queryTokens) {
+		List<Set<String>> candidatesPerToken = new ArrayList<>(queryTokens.size());
+		for (String queryToken : queryTokens) {
+			Set<String> candidates = new HashSet<>();
+			for (Set<String> keys : tokensStartingWith(queryToken).values()) {
+				candidates.addAll(keys);
+			}
+			if (candidates.isEmpty()) {
+				return Collections.emptySet();
+			}
+			candidatesPerToken.add(candidates);
+		}
+		candidatesPerToken.sort(Comparator.comparingInt(Set::size));
+		Set<String> keys = candidatesPerToken.get(0);
+		for (int i = 1; i < candidatesPerToken.size() && !keys.isEmpty(); i++) {
+			keys.retainAll(candidatesPerToken.get(i));
+		}
+		return keys;
+	}
+
+	private SortedMap<String, Set<String>> tokensStartingWith(String prefix) {
+		return keysByToken.subMap(prefix, prefix + Character.MAX_VALUE);
+	}
+
+	private void addFile(String uri, List<IndexedSymbol> symbols) {
+		symbolsByUri.put(uri, Collections.unmodifiableList(new ArrayList<>(symbols)));
+		for (IndexedSymbol symbol : symbols) {
+			List<IndexedSymbol> sameKey = symbolsByKey.get(symbol.getSearchKey());
+			if (sameKey == null) {
+				sameKey = new ArrayList<>(1);
+				symbolsByKey.put(symbol.getSearchKey(), sameKey);
+				for (String token : tokenize(symbol.getName())) {
+					keysByToken.computeIfAbsent(token, t -> new HashSet<>()).add(symbol.getSearchKey());
+				}
+			}
+			sameKey.add(symbol);
+			if (symbol.getEndpointKey() != null) {
+				occurrencesByEndpointKey.computeIfAbsent(symbol.getEndpointKey(), key -> new ArrayList<>(2)).add(symbol);
+				if (symbol.getKind() == IndexedSymbol.Kind.CONSUMER) {
+					consumersByEndpointKey.computeIfAbsent(symbol.getEndpointKey(), key -> new ArrayList<>(1)).add(symbol);
+				}
+			}
+		}
+	}
+	
+	private void removeFile(String uri) {
+		List<IndexedSymbol> symbols = symbolsByUri.remove(uri);
+		if (symbols == null) {
+			return;
+		}
+		for (IndexedSymbol symbol : symbols) {
+			if (symbol.getEndpointKey() != null) {
+				removeFromList(occurrencesByEndpointKey, symbol.getEndpointKey(), symbol);
+				if (symbol.getKind() == IndexedSymbol.Kind.CONSUMER) {
+					removeFromList(consumersByEndpointKey, symbol.getEndpointKey(), symbol);
+				}
+			}
+			List<IndexedSymbol> sameKey = symbolsByKey.get(symbol.getSearchKey());
+			if (sameKey != null && sameKey.remove(symbol) && sameKey.isEmpty()) {
+				symbolsByKey.remove(symbol.getSearchKey());
+				for (String token : tokenize(symbol.getName())) {
+					Set<String> keys = keysByToken.get(token);
+					if (keys != null && keys.remove(symbol.getSearchKey()) && keys.isEmpty()) {
+						keysByToken.remove(token);
+					}
+				}
+			}
+		}
+	}
+	
+	private static void removeFromList(Map<String, List<IndexedSymbol>> symbolsByKey, String key, IndexedSymbol symbol) {
+		List<IndexedSymbol> symbols = symbolsByKey.get(key);
+		if (symbols != null && symbols.remove(symbol) && symbols.isEmpty()) {
+			symbolsByKey.remove(key);
+		}
+	}
+	
+	/**
+	 * @return the lower case tokens of a name, each alphanumeric part and the camel case words inside it
+	 */
+	static Collection<String> tokenize(String name) {
+		Set<String> tokens = new HashSet<>();
+		int partStart = -1;
+		int wordStart = -1;
+		for (int i = 0; i <= name.length(); i++) {
+			char c = i < name.length() ? name.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c)) {
+				if (partStart == -1) {
+					partStart = i;
+					wordStart = i;
+				} else if (Character.isUpperCase(c) && !Character.isUpperCase(name.charAt(i - 1))) {
+					tokens.add(name.substring(wordStart, i).toLowerCase(Locale.ENGLISH));
+					wordStart = i;
+				}
+			} else if (partStart != -1) {
+				tokens.add(name.substring(partStart, i).toLowerCase(Locale.ENGLISH));
+				if (wordStart != partStart) {
+					tokens.add(name.substring(wordStart, i).toLowerCase(Locale.ENGLISH));
+				}
+				partStart = -1;
+			}
+		}
+		return tokens;
+	}
+	
+	/**
+	 * The query is already in lower case, camel case boundaries are lost and it is only split on the other characters.
+	 */
+	private static List<String> tokenizeQuery(String searchKey) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : searchKey.split("[^\\p{L}\\p{Nd}]+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 import com.github.cameltooling.lsp.internal.completion.CamelComponentSchemesCompletionsFuture;
 
@@ -43,9 +44,9 @@ public class CamelComponentURIInstance extends CamelUriElementInstance {
 	}
 
 	@Override
-	public CompletableFuture<List<CompletionItem>> getCompletions(CompletableFuture<CamelCatalog> camelCatalog, int positionInCamelUri) {
+	public CompletableFuture<List<CompletionItem>> getCompletions(CompletableFuture<CamelCatalog> camelCatalog, int positionInCamelUri, CancelChecker cancelChecker) {
 		if(getStartPosition() <= positionInCamelUri && positionInCamelUri <= getEndPosition()) {
-			return camelCatalog.thenApply(new CamelComponentSchemesCompletionsFuture(getFilter(positionInCamelUri)));
+			return camelCatalog.thenApply(new CamelComponentSchemesCompletionsFuture(getFilter(positionInCamelUri), cancelChecker));
 		} else {
 			return CompletableFuture.completedFuture(Collections.emptyList());
 		}		
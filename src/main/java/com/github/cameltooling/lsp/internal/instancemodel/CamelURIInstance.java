@@ -25,6 +25,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.w3c.dom.Node;
 
 import com.github.cameltooling.lsp.internal.completion.CamelComponentSchemesCompletionsFuture;
@@ -138,9 +139,9 @@ public class CamelURIInstance extends CamelUriElementInstance {
 	}
 
 	@Override
-	public CompletableFuture<List<CompletionItem>> getCompletions(CompletableFuture<CamelCatalog> camelCatalog, int positionInCamelUri) {
+	public CompletableFuture<List<CompletionItem>> getCompletions(CompletableFuture<CamelCatalog> camelCatalog, int positionInCamelUri, CancelChecker cancelChecker) {
 		if(getStartPosition() <= positionInCamelUri && positionInCamelUri <= getEndPosition()) {
-			return camelCatalog.thenApply(new CamelComponentSchemesCompletionsFuture(getFilter()));
+			return camelCatalog.thenApply(new CamelComponentSchemesCompletionsFuture(getFilter(), cancelChecker));
 		} else {
 			return CompletableFuture.completedFuture(Collections.emptyList());
 		}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Last resort strategy forking ps, or tasklist on Windows, at each check.
+ */
+public class CommandLivenessStrategy extends PollingLivenessStrategy {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(CommandLivenessStrategy.class);
+	private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+	public CommandLivenessStrategy(long intervalMillis) {
+		super(intervalMillis);
+	}
+
+	@Override
+	public String getName() {
+		return (WINDOWS ? "tasklist" : "ps") + " forked every " + getIntervalMillis() + " ms";
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isAlive(long pid) {
+		String command;
+		if (WINDOWS) {
+			command = "cmd /c \"tasklist /FI \"PID eq " + pid + "\" | findstr " + pid + "\"";
+		} else {
+			command = "ps -p " + pid;
+		}
+		try {
+			Process process = Runtime.getRuntime().exec(command);
+			return process.waitFor() == 0;
+		} catch (IOException e) {
+			LOGGER.error(e.getMessage(), e);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the client process and notifies when it is gone, so that the server does not outlive a crashed client.
+ * 
+ * The first available strategy is used: ProcessHandle.onExit() on Java 9+, which needs no polling, then /proc/&lt;pid&gt;
+ * on Linux, then forking ps or tasklist. The polling interval of the last two is configured with the system property
+ * camel.lsp.parentProcess.pollInterval and the monitor is disabled with camel.lsp.parentProcess.monitor=false.
+ */
+public class ParentProcessMonitor {
+	
+	public static final String ENABLED_PROPERTY = "camel.lsp.parentProcess.monitor";
+	public static final String POLL_INTERVAL_PROPERTY = "camel.lsp.parentProcess.pollInterval";
+	private static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000;
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(ParentProcessMonitor.class);
+	
+	private final List<ProcessLivenessStrategy> strategies;
+	private ProcessLivenessStrategy strategy;
+	private AtomicBoolean watching = new AtomicBoolean();
+
+	public ParentProcessMonitor() {
+		long pollInterval = Long.getLong(POLL_INTERVAL_PROPERTY, DEFAULT_POLL_INTERVAL_MILLIS);
+		strategies = Arrays.asList(new ProcessHandleStrategy(), new ProcFileSystemStrategy(pollInterval), new CommandLivenessStrategy(pollInterval));
+	}
+	
+	public ParentProcessMonitor(List<ProcessLivenessStrategy> strategies) {
+		this.strategies = strategies;
+	}
+	
+	public static boolean isEnabled() {
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.TRUE.toString()));
+	}
+
+	/**
+	 * @param pid the process of the client
+	 * @param onParentExit called once the process is gone
+	 * @return the name of the strategy used, null if none could be used
+	 */
+	public synchronized String start(long pid, Runnable onParentExit) {
+		stop();
+		AtomicBoolean currentlyWatching = new AtomicBoolean(true);
+		watching = currentlyWatching;
+		watch(pid, 0, onParentExit, currentlyWatching);
+		return strategy != null ? strategy.getName() : null;
+	}
+
+	private synchronized void watch(long pid, int firstStrategyIndex, Runnable onParentExit, AtomicBoolean currentlyWatching) {
+		if (!currentlyWatching.get()) {
+			return;
+		}
+		for (int index = firstStrategyIndex; index < strategies.size(); index++) {
+			ProcessLivenessStrategy candidate = strategies.get(index);
+			if (candidate.isAvailable()) {
+				strategy = candidate;
+				int nextStrategyIndex = index + 1;
+				LOGGER.info("Watching client process {} with {}", pid, candidate.getName());
+				candidate.onExit(pid).whenComplete((result, exception) -> {
+					if (exception != null) {
+						LOGGER.warn("Cannot watch client process {} with {}: {}", pid, candidate.getName(), exception.getMessage());
+						candidate.stop();
+						watch(pid, nextStrategyIndex, onParentExit, currentlyWatching);
+					} else if (currentlyWatching.get()) {
+						LOGGER.info("Camel Language Server - Client vanished...");
+						onParentExit.run();
+					}
+				});
+				return;
+			}
+		}
+		strategy = null;
+		LOGGER.warn("No strategy available to watch client process {}", pid);
+	}
+	
+	public synchronized void stop() {
+		watching.set(false);
+		if (strategy != null) {
+			strategy.stop();
+			strategy = null;
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks periodically whether the process is alive, on a single daemon thread.
+ */
+public abstract class PollingLivenessStrategy implements ProcessLivenessStrategy {
+	
+	private final long intervalMillis;
+	private ScheduledExecutorService scheduler;
+
+	protected PollingLivenessStrategy(long intervalMillis) {
+		this.intervalMillis = intervalMillis;
+	}
+	
+	protected abstract boolean isAlive(long pid);
+
+	@Override
+	public synchronized CompletableFuture<Void> onExit(long pid) {
+		CompletableFuture<Void> exit = new CompletableFuture<>();
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Camel Language Client Watcher");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		ScheduledFuture<?> check = scheduler.scheduleWithFixedDelay(() -> {
+			if (!isAlive(pid)) {
+				exit.complete(null);
+			}
+		}, 0, intervalMillis, TimeUnit.MILLISECONDS);
+		exit.whenComplete((result, exception) -> check.cancel(false));
+		return exit;
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+	
+	protected long getIntervalMillis() {
+		return intervalMillis;
+	}
+
+}
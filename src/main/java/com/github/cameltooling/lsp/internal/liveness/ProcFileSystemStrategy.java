@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Checks the existence of /proc/&lt;pid&gt; on Linux, a single stat call without forking any process.
+ */
+public class ProcFileSystemStrategy extends PollingLivenessStrategy {
+	
+	private static final Path PROC = Paths.get("/proc");
+
+	public ProcFileSystemStrategy(long intervalMillis) {
+		super(intervalMillis);
+	}
+
+	@Override
+	public String getName() {
+		return "/proc/<pid> checked every " + getIntervalMillis() + " ms";
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return System.getProperty("os.name").toLowerCase().contains("linux") && Files.isDirectory(PROC.resolve("self"));
+	}
+
+	@Override
+	protected boolean isAlive(long pid) {
+		return Files.exists(PROC.resolve(Long.toString(pid)));
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Event driven strategy based on ProcessHandle.onExit(), available since Java 9. It is called by reflection as the server is compiled for Java 8.
+ */
+public class ProcessHandleStrategy implements ProcessLivenessStrategy {
+	
+	private Method of;
+	private Method onExit;
+
+	public ProcessHandleStrategy() {
+		try {
+			Class<?> processHandleClass = Class.forName("java.lang.ProcessHandle");
+			of = processHandleClass.getMethod("of", long.class);
+			onExit = processHandleClass.getMethod("onExit");
+		} catch (ReflectiveOperationException e) {
+			// Java 8, not available
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "ProcessHandle.onExit()";
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return onExit != null;
+	}
+
+	@Override
+	public CompletableFuture<Void> onExit(long pid) {
+		try {
+			Optional<?> processHandle = (Optional<?>) of.invoke(null, pid);
+			if (!processHandle.isPresent()) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return ((CompletableFuture<?>) onExit.invoke(processHandle.get())).thenApply(process -> null);
+		} catch (ReflectiveOperationException e) {
+			CompletableFuture<Void> failure = new CompletableFuture<>();
+			failure.completeExceptionally(e instanceof InvocationTargetException ? e.getCause() : e);
+			return failure;
+		}
+	}
+
+	@Override
+	public void stop() {
+		// the JDK owns the threads waiting for processes
+	}
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A way to be notified when a process terminates.
+ */
+public interface ProcessLivenessStrategy {
+	
+	/**
+	 * @return a short description of the strategy, reported to the client
+	 */
+	String getName();
+	
+	/**
+	 * @return whether the strategy can be used on this JVM and operating system
+	 */
+	boolean isAvailable();
+	
+	/**
+	 * @param pid the process to watch
+	 * @return a future completed when the process is not running anymore
+	 */
+	CompletableFuture<Void> onExit(long pid);
+	
+	/**
+	 * Releases the resources used to watch processes.
+	 */
+	void stop();
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.memory;
+
+/**
+ * A structure of the server whose heap footprint is reported and bounded by {@link MemoryAccounting}.
+ * Several instances may belong to the same pool, for instance the opened documents of each session: their figures are added.
+ */
+public interface MemoryAccountable {
+	
+	String getMemoryPoolName();
+	
+	int getEntryCount();
+	
+	/**
+	 * @return an estimate of the bytes retained by the entries, see {@link MemoryEstimates}
+	 */
+	long getEstimatedBytes();
+	
+	/**
+	 * Evicts entries which can be rebuilt, until the estimate is at most the given size or nothing more can be evicted.
+	 * 
+	 * @return the number of evicted entries
+	 */
+	default int evictTo(long targetBytes) {
+		return 0;
+	}
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the estimated heap footprint of the structures of the server, grouped in pools, and keeps each pool under its soft limit
+ * by evicting entries which can be rebuilt. The limits are checked periodically and when {@link #enforceSoftLimits()} is called.
+ * 
+ * The soft limit of a pool is configured in megabytes with the system property camel.lsp.memory.softLimit.&lt;pool&gt;, 0 for no limit.
+ * The interval between two checks is configured in milliseconds with the system property camel.lsp.memory.checkInterval, 0 disables the periodic checks.
+ */
+public class MemoryAccounting {
+	
+	public static final String DOCUMENTS = "documents";
+	public static final String COMPONENT_MODELS = "componentModels";
+	public static final String PUBLISHED_DIAGNOSTICS = "publishedDiagnostics";
+	public static final String SOFT_LIMIT_PROPERTY_PREFIX = "camel.lsp.memory.softLimit.";
+	public static final String CHECK_INTERVAL_PROPERTY = "camel.lsp.memory.checkInterval";
+	private static final long DEFAULT_CHECK_INTERVAL_MILLIS = 10000;
+	private static final Map<String, Long> DEFAULT_SOFT_LIMITS_MB = new HashMap<>();
+	static {
+		DEFAULT_SOFT_LIMITS_MB.put(COMPONENT_MODELS, 64L);
+		DEFAULT_SOFT_LIMITS_MB.put(PUBLISHED_DIAGNOSTICS, 16L);
+	}
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(MemoryAccounting.class);
+	
+	private final List<MemoryAccountable> accountables = new CopyOnWriteArrayList<>();
+	private final Map<String, LongAdder> evictions = new ConcurrentHashMap<>();
+	private ScheduledExecutorService timer;
+	
+	public void register(MemoryAccountable accountable) {
+		accountables.add(accountable);
+	}
+	
+	public void unregister(MemoryAccountable accountable) {
+		accountables.remove(accountable);
+	}
+	
+	public synchronized void start() {
+		long intervalMillis = Long.getLong(CHECK_INTERVAL_PROPERTY, DEFAULT_CHECK_INTERVAL_MILLIS);
+		if (intervalMillis <= 0 || timer != null) {
+			return;
+		}
+		timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Camel LSP memory accounting");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.scheduleWithFixedDelay(this::enforceSoftLimits, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	public synchronized void stop() {
+		if (timer != null) {
+			timer.shutdownNow();
+			timer = null;
+		}
+	}
+	
+	/**
+	 * @return the soft limit of the pool in bytes, 0 when the pool is not limited
+	 */
+	public static long getSoftLimitBytes(String pool) {
+		return Math.max(0, Long.getLong(SOFT_LIMIT_PROPERTY_PREFIX + pool, DEFAULT_SOFT_LIMITS_MB.getOrDefault(pool, 0L))) << 20;
+	}
+	
+	public long getEstimatedBytes(String pool) {
+		return accountables.stream().filter(accountable -> pool.equals(accountable.getMemoryPoolName())).mapToLong(MemoryAccountable::getEstimatedBytes).sum();
+	}
+	
+	public boolean isOverSoftLimit(String pool) {
+		long softLimit = getSoftLimitBytes(pool);
+		return softLimit > 0 && getEstimatedBytes(pool) > softLimit;
+	}
+	
+	/**
+	 * Evicts entries of the pools over their soft limit. When a pool has several members, each one is trimmed in proportion of its size.
+	 * 
+	 * @return the number of evicted entries
+	 */
+	public synchronized int enforceSoftLimits() {
+		int evicted = 0;
+		for (Map.Entry<String, List<MemoryAccountable>> pool : getPools().entrySet()) {
+			long softLimit = getSoftLimitBytes(pool.getKey());
+			if (softLimit == 0) {
+				// not estimated, the estimation of some pools walks all their entries
+				continue;
+			}
+			List<MemoryAccountable> members = pool.getValue();
+			long[] bytes = new long[members.size()];
+			long total = 0;
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = members.get(i).getEstimatedBytes();
+				total += bytes[i];
+			}
+			if (total <= softLimit) {
+				continue;
+			}
+			int poolEvicted = 0;
+			for (int i = 0; i < bytes.length; i++) {
+				poolEvicted += members.get(i).evictTo((long) (bytes[i] * ((double) softLimit / total)));
+			}
+			evictions.computeIfAbsent(pool.getKey(), key -> new LongAdder()).add(poolEvicted);
+			LOGGER.debug("Memory pool {} estimated at {} bytes over its soft limit of {} bytes, {} entries evicted", pool.getKey(), total, softLimit, poolEvicted);
+			evicted += poolEvicted;
+		}
+		return evicted;
+	}
+	
+	private Map<String, List<MemoryAccountable>> getPools() {
+		Map<String, List<MemoryAccountable>> pools = new LinkedHashMap<>();
+		for (MemoryAccountable accountable : accountables) {
+			pools.computeIfAbsent(accountable.getMemoryPoolName(), key -> new ArrayList<>()).add(accountable);
+		}
+		return pools;
+	}
+	
+	/**
+	 * @return per pool the number of entries, the estimated bytes, the soft limit and the evicted entries, and the heap usage
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> report = new LinkedHashMap<>();
+		Map<String, Object> pools = new LinkedHashMap<>();
+		for (Map.Entry<String, List<MemoryAccountable>> pool : getPools().entrySet()) {
+			Map<String, Object> values = new LinkedHashMap<>();
+			values.put("entries", pool.getValue().stream().mapToInt(MemoryAccountable::getEntryCount).sum());
+			values.put("estimatedBytes", pool.getValue().stream().mapToLong(MemoryAccountable::getEstimatedBytes).sum());
+			values.put("softLimitBytes", getSoftLimitBytes(pool.getKey()));
+			LongAdder evicted = evictions.get(pool.getKey());
+			values.put("evictedEntries", evicted != null ? evicted.sum() : 0L);
+			pools.put(pool.getKey(), values);
+		}
+		report.put("pools", pools);
+		Runtime runtime = Runtime.getRuntime();
+		Map<String, Object> heap = new LinkedHashMap<>();
+		heap.put("usedBytes", runtime.totalMemory() - runtime.freeMemory());
+		heap.put("maxBytes", runtime.maxMemory());
+		report.put("heap", heap);
+		return report;
+	}
+
+}
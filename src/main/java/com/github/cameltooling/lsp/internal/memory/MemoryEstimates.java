@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.memory;
+
+import java.util.List;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.TextDocumentItem;
+
+/**
+ * Rough estimates of retained sizes, for a 64-bit JVM with compressed references.
+ * Strings are counted with two bytes per character, which overestimates the Latin-1 strings of Java 9 and later:
+ * the estimates are meant to compare pools and to follow their growth, not to match a heap dump.
+ */
+public final class MemoryEstimates {
+	
+	public static final long OBJECT_HEADER = 16;
+	public static final long MAP_ENTRY = 48;
+	private static final long STRING = 24 + OBJECT_HEADER;
+	private static final long RANGE = 3 * OBJECT_HEADER + 4 * 4 + 2 * 4;
+	private static final long DIAGNOSTIC = OBJECT_HEADER + 5 * 4 + RANGE;
+	
+	private MemoryEstimates() {
+		// utility class
+	}
+	
+	public static long ofString(String value) {
+		return value != null ? STRING + 2L * value.length() : 0;
+	}
+	
+	public static long ofDocument(TextDocumentItem document) {
+		return OBJECT_HEADER + 4 * 4 + ofString(document.getUri()) + ofString(document.getText());
+	}
+	
+	public static long ofDiagnostics(List<Diagnostic> diagnostics) {
+		long bytes = OBJECT_HEADER + 4L * diagnostics.size();
+		for (Diagnostic diagnostic : diagnostics) {
+			bytes += DIAGNOSTIC + ofString(diagnostic.getMessage()) + ofString(diagnostic.getCode());
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Saturation metrics of an executor: queue depth, time spent by tasks waiting in the queue, rejections and dropped tasks.
+ */
+public class ExecutorMetrics {
+	
+	private final String name;
+	private final IntSupplier queueDepth;
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder started = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	public ExecutorMetrics(String name, IntSupplier queueDepth) {
+		this.name = name;
+		this.queueDepth = queueDepth;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public void taskSubmitted() {
+		submitted.increment();
+	}
+	
+	public void taskStarted(long waitNanos) {
+		started.increment();
+		totalWaitNanos.add(waitNanos);
+		maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+	}
+	
+	public void taskRejected() {
+		rejected.increment();
+	}
+	
+	/**
+	 * A queued task was discarded without running because its result became useless.
+	 */
+	public void taskDropped() {
+		dropped.increment();
+	}
+	
+	public int getQueueDepth() {
+		return queueDepth.getAsInt();
+	}
+	
+	public long getSubmittedCount() {
+		return submitted.sum();
+	}
+	
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+	
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+	
+	public double getAverageWaitMillis() {
+		long count = started.sum();
+		return count == 0 ? 0 : (double) totalWaitNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	public double getMaxWaitMillis() {
+		return (double) maxWaitNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	public Map<String, Object> toMap() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("queueDepth", getQueueDepth());
+		values.put("submitted", getSubmittedCount());
+		values.put("started", started.sum());
+		values.put("rejected", getRejectedCount());
+		values.put("dropped", getDroppedCount());
+		values.put("averageWaitMillis", getAverageWaitMillis());
+		values.put("maxWaitMillis", getMaxWaitMillis());
+		return values;
+	}
+	
+	@Override
+	public String toString() {
+		return name + " " + toMap();
+	}
+
+}
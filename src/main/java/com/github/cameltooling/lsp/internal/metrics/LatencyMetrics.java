@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the LSP methods and of the internal phases of their processing, for the whole process.
+ */
+public class LatencyMetrics {
+	
+	/**
+	 * Search of the Camel URI at the position in the document.
+	 */
+	public static final String PARSE = "parse";
+	/**
+	 * Retrieval of a component model from the catalog, parsing its JSON schema when it is not cached yet.
+	 */
+	public static final String MODEL_LOOKUP = "modelLookup";
+	/**
+	 * Creation and filtering of the completion items.
+	 */
+	public static final String FILTER = "filter";
+	/**
+	 * Serialization and writing of a message sent to the client.
+	 */
+	public static final String SERIALIZATION = "serialization";
+	
+	private static final LatencyMetrics INSTANCE = new LatencyMetrics();
+	
+	private final Map<String, LatencyHistogram> methods = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> phases = new ConcurrentHashMap<>();
+	
+	public static LatencyMetrics getInstance() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * @param nanos time from the reception of the request to its answer
+	 */
+	public void recordMethod(String method, long nanos) {
+		methods.computeIfAbsent(method, key -> new LatencyHistogram()).record(nanos);
+	}
+	
+	/**
+	 * @param startNanos value of {@link System#nanoTime()} when the phase started, it ends now
+	 */
+	public static void recordPhase(String phase, long startNanos) {
+		INSTANCE.phases.computeIfAbsent(phase, key -> new LatencyHistogram()).record(System.nanoTime() - startNanos);
+	}
+	
+	public LatencyHistogram getMethodHistogram(String method) {
+		return methods.get(method);
+	}
+	
+	public LatencyHistogram getPhaseHistogram(String phase) {
+		return phases.get(phase);
+	}
+	
+	/**
+	 * @return the number of requests and phases recorded so far
+	 */
+	public long getRecordedCount() {
+		long recorded = 0;
+		for (LatencyHistogram histogram : methods.values()) {
+			recorded += histogram.getCount();
+		}
+		for (LatencyHistogram histogram : phases.values()) {
+			recorded += histogram.getCount();
+		}
+		return recorded;
+	}
+	
+	public Map<String, Object> toMap() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("methods", toMap(methods));
+		values.put("phases", toMap(phases));
+		return values;
+	}
+
+	private static Map<String, Object> toMap(Map<String, LatencyHistogram> histograms) {
+		Map<String, Object> values = new TreeMap<>();
+		histograms.forEach((name, histogram) -> values.put(name, histogram.toMap()));
+		return values;
+	}
+
+}
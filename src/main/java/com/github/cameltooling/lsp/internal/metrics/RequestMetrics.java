@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per LSP method counters of the requests answered by the server.
+ */
+public class RequestMetrics {
+	
+	private final Map<String, LongAdder> budgetExceeded = new ConcurrentHashMap<>();
+	
+	/**
+	 * A request was answered with a partial or empty result because its latency budget was exceeded.
+	 */
+	public void budgetExceeded(String method) {
+		budgetExceeded.computeIfAbsent(method, key -> new LongAdder()).increment();
+	}
+	
+	public long getBudgetExceededCount(String method) {
+		LongAdder count = budgetExceeded.get(method);
+		return count != null ? count.sum() : 0;
+	}
+	
+	public Map<String, Long> getBudgetExceededCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		budgetExceeded.forEach((method, count) -> counts.put(method, count.sum()));
+		return counts;
+	}
+
+}
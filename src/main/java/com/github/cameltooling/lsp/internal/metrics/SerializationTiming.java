@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import java.util.function.Function;
+
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+
+/**
+ * Wraps the consumers of a launcher to record the time spent serializing and writing the messages sent to the client.
+ */
+public class SerializationTiming implements Function<MessageConsumer, MessageConsumer> {
+
+	@Override
+	public MessageConsumer apply(MessageConsumer consumer) {
+		if (!(consumer instanceof StreamMessageConsumer)) {
+			return consumer;
+		}
+		return message -> {
+			long start = System.nanoTime();
+			consumer.consume(message);
+			LatencyMetrics.recordPhase(LatencyMetrics.SERIALIZATION, start);
+		};
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sends the metrics of the server to the client periodically, as telemetry events.
+ * Nothing is sent when the session handled no request since the last event: the activity is counted per session,
+ * the process wide latency metrics also record the serialization of the outgoing messages, telemetry events included.
+ * 
+ * The interval is configured in milliseconds with the system property camel.lsp.telemetry.interval, 0 disables the events.
+ */
+public class TelemetryReporter {
+	
+	public static final String INTERVAL_PROPERTY = "camel.lsp.telemetry.interval";
+	private static final long DEFAULT_INTERVAL_MILLIS = 60000;
+	
+	private final Supplier<Map<String, Object>> metrics;
+	private final LongSupplier requestCount;
+	private final Consumer<Object> sender;
+	private ScheduledExecutorService timer;
+	private long lastRequestCount;
+
+	/**
+	 * @param metrics the metrics to send
+	 * @param requestCount the number of requests handled by the session since its start
+	 * @param sender sends an event to the client of the session
+	 */
+	public TelemetryReporter(Supplier<Map<String, Object>> metrics, LongSupplier requestCount, Consumer<Object> sender) {
+		this.metrics = metrics;
+		this.requestCount = requestCount;
+		this.sender = sender;
+	}
+	
+	public synchronized void start() {
+		long intervalMillis = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+		if (intervalMillis <= 0 || timer != null) {
+			return;
+		}
+		timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Camel LSP telemetry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	void report() {
+		long currentRequestCount = requestCount.getAsLong();
+		if (currentRequestCount != lastRequestCount) {
+			lastRequestCount = currentRequestCount;
+			sender.accept(metrics.get());
+		}
+	}
+	
+	public synchronized void stop() {
+		if (timer != null) {
+			timer.shutdownNow();
+			timer = null;
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.parser;
+
+import java.util.Arrays;
+
+import org.eclipse.lsp4j.Position;
+
+/**
+ * Maps character offsets of a text to LSP line/column positions, and back.
+ * The line starts are computed once so that every lookup is a binary search
+ * instead of a new split of the whole document.
+ * Line delimiters are handled like {@link ParserFileHelper#getLine(org.eclipse.lsp4j.TextDocumentItem, int)}: "\n" or "\r\n".
+ */
+public class DocumentOffsetIndex {
+	
+	private final String text;
+	private final int[] lineStarts;
+	private final int lineCount;
+
+	public DocumentOffsetIndex(String text) {
+		this.text = text != null ? text : "";
+		int[] starts = new int[64];
+		int count = 1;
+		for (int i = 0; i < this.text.length(); i++) {
+			if (this.text.charAt(i) == '\n') {
+				if (count == starts.length) {
+					starts = Arrays.copyOf(starts, count * 2);
+				}
+				starts[count++] = i + 1;
+			}
+		}
+		this.lineStarts = starts;
+		this.lineCount = count;
+	}
+	
+	public String getText() {
+		return text;
+	}
+
+	public int getLineCount() {
+		return lineCount;
+	}
+	
+	public int getLineStartOffset(int line) {
+		return lineStarts[clampLine(line)];
+	}
+	
+	/**
+	 * @param line the 0-based line
+	 * @return the offset of the end of the line, line delimiter excluded
+	 */
+	public int getLineEndOffset(int line) {
+		int clampedLine = clampLine(line);
+		if (clampedLine + 1 < lineCount) {
+			int end = lineStarts[clampedLine + 1] - 1;
+			if (end > lineStarts[clampedLine] && text.charAt(end - 1) == '\r') {
+				end--;
+			}
+			return end;
+		}
+		return text.length();
+	}
+	
+	public int getLineLength(int line) {
+		return getLineEndOffset(line) - getLineStartOffset(line);
+	}
+	
+	public String getLine(int line) {
+		if (line < 0 || line >= lineCount) {
+			return null;
+		}
+		return text.substring(getLineStartOffset(line), getLineEndOffset(line));
+	}
+	
+	public int getLineAt(int offset) {
+		int index = Arrays.binarySearch(lineStarts, 0, lineCount, Math.max(0, Math.min(offset, text.length())));
+		return index >= 0 ? index : -index - 2;
+	}
+	
+	public Position getPosition(int offset) {
+		int line = getLineAt(offset);
+		return new Position(line, Math.max(0, Math.min(offset, text.length())) - lineStarts[line]);
+	}
+	
+	public int getOffset(Position position) {
+		int line = clampLine(position.getLine());
+		return Math.min(lineStarts[line] + position.getCharacter(), getLineEndOffset(line));
+	}
+
+	private int clampLine(int line) {
+		return Math.max(0, Math.min(line, lineCount - 1));
+	}
+
+}
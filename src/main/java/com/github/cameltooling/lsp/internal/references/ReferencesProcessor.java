@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.references;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+
+import com.github.cameltooling.lsp.internal.index.IndexedSymbol;
+import com.github.cameltooling.lsp.internal.index.WorkspaceSymbolIndex;
+
+/**
+ * Finds the producers and consumers of the direct, direct-vm, seda or vm endpoint under the cursor, in all the files of the workspace.
+ * The answer comes from the endpoint occurrences of the {@link WorkspaceSymbolIndex}, only the current document is parsed when its last edit is not indexed yet.
+ */
+public class ReferencesProcessor {
+	
+	private final WorkspaceSymbolIndex index;
+
+	public ReferencesProcessor(WorkspaceSymbolIndex index) {
+		this.index = index;
+	}
+	
+	/**
+	 * @param uri the uri of the document
+	 * @param documentSymbols the current symbols of the document, which take precedence over the indexed ones
+	 * @param position the position of the cursor
+	 * @param includeDeclaration whether the consumers of the endpoint, which declare it, are returned
+	 * @return the locations of the occurrences of the endpoint, empty if the cursor is not on a direct, direct-vm, seda or vm endpoint
+	 */
+	public List<Location> getReferences(String uri, List<IndexedSymbol> documentSymbols, Position position, boolean includeDeclaration) {
+		IndexedSymbol symbol = IndexedSymbol.findAt(documentSymbols, position);
+		if (symbol == null || symbol.getEndpointKey() == null) {
+			return Collections.emptyList();
+		}
+		return index.getEndpointOccurrences(symbol.getEndpointKey(), uri, documentSymbols).stream()
+				.filter(occurrence -> includeDeclaration || occurrence.getKind() != IndexedSymbol.Kind.CONSUMER)
+				.map(IndexedSymbol::toLocation)
+				.collect(Collectors.toList());
+	}
+
+}
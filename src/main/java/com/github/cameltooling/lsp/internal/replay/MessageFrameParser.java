@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits a JSON-RPC byte stream in messages, following the base protocol of LSP: each message is preceded
+ * by headers, terminated by an empty line, among which Content-Length gives the size of the content in bytes.
+ * Bytes can be given in chunks of any size, every complete message is passed to the consumer.
+ */
+public class MessageFrameParser {
+	
+	private static final String CONTENT_LENGTH_HEADER = "Content-Length:";
+	private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+	
+	private final Consumer<String> messageConsumer;
+	private byte[] buffer = new byte[8192];
+	private int size;
+	private int contentLength = -1;
+	
+	public MessageFrameParser(Consumer<String> messageConsumer) {
+		this.messageConsumer = messageConsumer;
+	}
+	
+	public synchronized void write(byte[] bytes, int offset, int length) {
+		if (size + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+		}
+		System.arraycopy(bytes, offset, buffer, size, length);
+		size += length;
+		parse();
+	}
+	
+	private void parse() {
+		while (true) {
+			if (contentLength < 0) {
+				int headersEnd = indexOfHeadersEnd();
+				if (headersEnd < 0) {
+					return;
+				}
+				contentLength = parseContentLength(new String(buffer, 0, headersEnd, StandardCharsets.US_ASCII));
+				discard(headersEnd + HEADERS_END.length);
+			}
+			if (size < contentLength) {
+				return;
+			}
+			String message = new String(buffer, 0, contentLength, StandardCharsets.UTF_8);
+			discard(contentLength);
+			contentLength = -1;
+			messageConsumer.accept(message);
+		}
+	}
+
+	private int indexOfHeadersEnd() {
+		for (int index = 0; index + HEADERS_END.length <= size; index++) {
+			if (buffer[index] == HEADERS_END[0] && buffer[index + 1] == HEADERS_END[1] && buffer[index + 2] == HEADERS_END[2] && buffer[index + 3] == HEADERS_END[3]) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	private int parseContentLength(String headers) {
+		for (String header : headers.split("\r\n")) {
+			if (header.regionMatches(true, 0, CONTENT_LENGTH_HEADER, 0, CONTENT_LENGTH_HEADER.length())) {
+				return Integer.parseInt(header.substring(CONTENT_LENGTH_HEADER.length()).trim());
+			}
+		}
+		throw new IllegalStateException("Missing Content-Length header in " + headers);
+	}
+	
+	private void discard(int length) {
+		System.arraycopy(buffer, length, buffer, 0, size - length);
+		size -= length;
+	}
+	
+	/**
+	 * @return the message framed as it is sent on the wire
+	 */
+	public static byte[] frame(String message) {
+		byte[] content = message.getBytes(StandardCharsets.UTF_8);
+		byte[] headers = (CONTENT_LENGTH_HEADER + " " + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+		byte[] framed = Arrays.copyOf(headers, headers.length + content.length);
+		System.arraycopy(content, 0, framed, headers.length, content.length);
+		return framed;
+	}
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.replay;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * A JSON-RPC message captured by the {@link SessionRecorder}, one per line of the recording:
+ * <code>{"time":12,"direction":"in","message":{"jsonrpc":"2.0","id":1,"method":"initialize",...}}</code>
+ */
+public class RecordedMessage {
+	
+	public static final String CLIENT_TO_SERVER = "in";
+	public static final String SERVER_TO_CLIENT = "out";
+	
+	private static final String TIME = "time";
+	private static final String DIRECTION = "direction";
+	private static final String MESSAGE = "message";
+	
+	private final long timeMillis;
+	private final String direction;
+	private final JsonObject message;
+	
+	public RecordedMessage(long timeMillis, String direction, JsonObject message) {
+		this.timeMillis = timeMillis;
+		this.direction = direction;
+		this.message = message;
+	}
+	
+	public static RecordedMessage parse(String line) {
+		JsonObject entry = new JsonParser().parse(line).getAsJsonObject();
+		return new RecordedMessage(entry.get(TIME).getAsLong(), entry.get(DIRECTION).getAsString(), entry.getAsJsonObject(MESSAGE));
+	}
+	
+	/**
+	 * @return the message on a single line, as written in a recording
+	 */
+	public String toLine() {
+		JsonObject entry = new JsonObject();
+		entry.addProperty(TIME, timeMillis);
+		entry.addProperty(DIRECTION, direction);
+		entry.add(MESSAGE, message);
+		return entry.toString();
+	}
+
+	/**
+	 * @return milliseconds since the start of the recording
+	 */
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public String getDirection() {
+		return direction;
+	}
+	
+	public boolean isFromClient() {
+		return CLIENT_TO_SERVER.equals(direction);
+	}
+
+	public JsonObject getMessage() {
+		return message;
+	}
+	
+	/**
+	 * @return the method of a request or notification, null for a response
+	 */
+	public String getMethod() {
+		JsonElement method = message.get("method");
+		return method != null ? method.getAsString() : null;
+	}
+	
+	/**
+	 * @return the id of a request or response in its JSON form, null for a notification
+	 */
+	public String getId() {
+		JsonElement id = message.get("id");
+		return id != null && !id.isJsonNull() ? id.toString() : null;
+	}
+	
+	public boolean isRequest() {
+		return getMethod() != null && getId() != null;
+	}
+	
+	public boolean isResponse() {
+		return getMethod() == null && getId() != null;
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.replay;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonParser;
+
+/**
+ * Records the JSON-RPC traffic of a session by wrapping the streams given to the launcher.
+ * Each message is written on its own line with its direction and the milliseconds elapsed since the recording started,
+ * see {@link RecordedMessage}. The streams are passed through untouched: a message which cannot be recorded is skipped.
+ * 
+ * Recordings are replayed by {@code SessionReplay}, provided by the test jar.
+ */
+public class SessionRecorder implements Closeable {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(SessionRecorder.class);
+	
+	private final Writer writer;
+	private final long start = System.nanoTime();
+	private boolean failed;
+	
+	public SessionRecorder(Path recording) throws IOException {
+		this.writer = Files.newBufferedWriter(recording, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @return a stream recording the messages read from the client
+	 */
+	public InputStream record(InputStream in) {
+		MessageFrameParser parser = new MessageFrameParser(message -> write(RecordedMessage.CLIENT_TO_SERVER, message));
+		return new FilterInputStream(in) {
+			
+			@Override
+			public int read() throws IOException {
+				int read = super.read();
+				if (read >= 0) {
+					capture(parser, new byte[] {(byte) read}, 0, 1);
+				}
+				return read;
+			}
+			
+			@Override
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+				int read = super.read(bytes, offset, length);
+				if (read > 0) {
+					capture(parser, bytes, offset, read);
+				}
+				return read;
+			}
+		};
+	}
+	
+	/**
+	 * @return a stream recording the messages sent to the client
+	 */
+	public OutputStream record(OutputStream out) {
+		MessageFrameParser parser = new MessageFrameParser(message -> write(RecordedMessage.SERVER_TO_CLIENT, message));
+		return new FilterOutputStream(out) {
+			
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				capture(parser, new byte[] {(byte) b}, 0, 1);
+			}
+			
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				out.write(bytes, offset, length);
+				capture(parser, bytes, offset, length);
+			}
+		};
+	}
+	
+	private void capture(MessageFrameParser parser, byte[] bytes, int offset, int length) {
+		try {
+			parser.write(bytes, offset, length);
+		} catch (RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	private synchronized void write(String direction, String message) {
+		if (failed) {
+			return;
+		}
+		long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		try {
+			writer.write(new RecordedMessage(time, direction, new JsonParser().parse(message).getAsJsonObject()).toLine());
+			writer.write('\n');
+			writer.flush();
+		} catch (IOException | RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	private synchronized void fail(Exception e) {
+		if (!failed) {
+			failed = true;
+			LOGGER.warn("Session recording stopped", e);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.startup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.CamelTextDocumentService;
+
+/**
+ * Exercises the server in-process so that the classes it loads can be recorded in a class list, used to build
+ * a class data sharing archive (see the appcds profile of the build).
+ * 
+ * With --startup-only, it stops after the initialization, otherwise it also runs completion, hover, document symbols
+ * and diagnostics on sample XML and Java routes.
+ */
+public class TrainingRun {
+	
+	private static final String XML_URI = "file:///training/camel-context.xml";
+	private static final String XML_ROUTE = "<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n"
+			+ "  <route id=\"training\">\n"
+			+ "    <from uri=\"timer:foo?period=1000\"/>\n"
+			+ "    <to uri=\"file:output?fileExist=Appendd\"/>\n"
+			+ "  </route>\n"
+			+ "</camelContext>\n";
+	private static final String JAVA_URI = "file:///training/TrainingRoute.java";
+	private static final String JAVA_ROUTE = "import org.apache.camel.builder.RouteBuilder;\n"
+			+ "public class TrainingRoute extends RouteBuilder {\n"
+			+ "  public void configure() {\n"
+			+ "    from(\"timer:foo?period=1000\").to(\"file:output?fileExist=Appendd\");\n"
+			+ "  }\n"
+			+ "}\n";
+	private static final long TIMEOUT_SECONDS = 120;
+	
+	private final CountDownLatch diagnosticsPublished = new CountDownLatch(2);
+
+	public static void main(String[] args) throws Exception {
+		boolean startupOnly = args.length > 0 && "--startup-only".equals(args[0]);
+		new TrainingRun().run(startupOnly);
+		System.exit(0);
+	}
+
+	private void run(boolean startupOnly) throws Exception {
+		CamelLanguageServer server = new CamelLanguageServer();
+		server.connect(new TrainingClient());
+		server.initialize(new InitializeParams()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		if (!startupOnly) {
+			CamelTextDocumentService textDocumentService = server.getTextDocumentService();
+			textDocumentService.getCatalogLoader().getFullyLoaded().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			exercise(textDocumentService, XML_URI, XML_ROUTE, new Position(2, 16), new Position(2, 27), new Position(3, 37));
+			exercise(textDocumentService, JAVA_URI, JAVA_ROUTE, new Position(3, 11), new Position(3, 22), new Position(3, 62));
+			diagnosticsPublished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		server.shutdown().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private void exercise(CamelTextDocumentService textDocumentService, String uri, String text, Position componentPosition, Position optionPosition, Position optionValuePosition) throws Exception {
+		textDocumentService.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, CamelLanguageServer.LANGUAGE_ID, 1, text)));
+		TextDocumentIdentifier document = new TextDocumentIdentifier(uri);
+		for (Position position : new Position[] { componentPosition, optionPosition, optionValuePosition }) {
+			CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion = textDocumentService.completion(new CompletionParams(document, position));
+			completion.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		textDocumentService.hover(new TextDocumentPositionParams(document, componentPosition)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		textDocumentService.documentSymbol(new DocumentSymbolParams(document)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		textDocumentService.didSave(new DidSaveTextDocumentParams(document, text));
+	}
+	
+	private final class TrainingClient implements LanguageClient {
+
+		@Override
+		public void telemetryEvent(Object object) {
+			// not used by the training
+		}
+
+		@Override
+		public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+			diagnosticsPublished.countDown();
+		}
+
+		@Override
+		public void showMessage(MessageParams messageParams) {
+			// not used by the training
+		}
+
+		@Override
+		public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public void logMessage(MessageParams message) {
+			// not used by the training
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.trace;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of a traced request: the time it waited before its processing started, and the time its processing took.
+ * The document is identified by the hash of its uri so that dumps do not disclose file names.
+ */
+public class RequestSpan {
+	
+	public static final String COMPLETED = "completed";
+	public static final String CANCELLED = "cancelled";
+	public static final String FAILED = "failed";
+	public static final String BUDGET_EXCEEDED = "budgetExceeded";
+	
+	/**
+	 * Span of the requests which are not sampled, recording nothing.
+	 */
+	public static final RequestSpan NOT_SAMPLED = new RequestSpan(null, null, null, null, false);
+	
+	private final transient RequestTracer tracer;
+	private final transient long receivedNanos;
+	private final transient boolean sampled;
+	private transient volatile long startedNanos;
+	private transient volatile boolean budgetExceeded;
+	private final String method;
+	private final int uriHash;
+	private final Integer version;
+	private final long timestamp;
+	private volatile long queuedMicros;
+	private volatile long processedMicros;
+	private volatile String outcome;
+
+	RequestSpan(RequestTracer tracer, String method, String uri, Integer version, boolean sampled) {
+		this.tracer = tracer;
+		this.sampled = sampled;
+		this.method = method;
+		this.uriHash = uri != null ? uri.hashCode() : 0;
+		this.version = version;
+		this.timestamp = tracer != null ? System.currentTimeMillis() : 0;
+		this.receivedNanos = tracer != null ? System.nanoTime() : 0;
+	}
+	
+	/**
+	 * The processing of the request starts, the time spent until now is accounted as queued.
+	 */
+	public void started() {
+		if (tracer != null) {
+			startedNanos = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * The request was answered with a fallback result, its processing may still run until it checks for cancellation.
+	 */
+	public void budgetExceeded() {
+		budgetExceeded = true;
+	}
+	
+	public void finished() {
+		finished(null);
+	}
+	
+	/**
+	 * Records the span in the tracer, and the latency of the request.
+	 * 
+	 * @param exception the exception which completed the request, null if it completed normally
+	 */
+	public void finished(Throwable exception) {
+		if (tracer == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		long start = startedNanos != 0 ? startedNanos : receivedNanos;
+		queuedMicros = TimeUnit.NANOSECONDS.toMicros(start - receivedNanos);
+		processedMicros = TimeUnit.NANOSECONDS.toMicros(now - start);
+		outcome = outcome(exception);
+		tracer.record(this, now - receivedNanos);
+	}
+	
+	private String outcome(Throwable exception) {
+		Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+		if (cause instanceof CancellationException) {
+			return CANCELLED;
+		} else if (cause != null) {
+			return FAILED;
+		} else if (budgetExceeded) {
+			return BUDGET_EXCEEDED;
+		}
+		return COMPLETED;
+	}
+
+	/**
+	 * @return whether the span is kept in the traces, the latency of a request not sampled is recorded anyway
+	 */
+	public boolean isSampled() {
+		return sampled;
+	}
+	
+	public String getMethod() {
+		return method;
+	}
+	
+	public int getUriHash() {
+		return uriHash;
+	}
+	
+	public Integer getVersion() {
+		return version;
+	}
+	
+	/**
+	 * @return when the request was received, in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	public long getQueuedMicros() {
+		return queuedMicros;
+	}
+	
+	public long getProcessedMicros() {
+		return processedMicros;
+	}
+	
+	public String getOutcome() {
+		return outcome;
+	}
+	
+	@Override
+	public String toString() {
+		return timestamp + " " + method + " uri#" + Integer.toHexString(uriHash) + " v" + version
+				+ " queued=" + queuedMicros + "us processed=" + processedMicros + "us " + outcome;
+	}
+
+}
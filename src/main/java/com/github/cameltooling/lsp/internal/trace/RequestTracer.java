@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
+
+/**
+ * Keeps the spans of the last sampled requests in a fixed size ring buffer.
+ * Recording a span is a single atomic increment and array store, nothing is formatted nor written until the spans are dumped.
+ * 
+ * One request out of camel.lsp.trace.sampling is recorded (1 by default, 0 disables tracing),
+ * the last camel.lsp.trace.capacity spans are kept (1024 by default, rounded up to a power of two).
+ * The latency of every request, sampled or not, is recorded in the {@link LatencyMetrics} given to the tracer.
+ */
+public class RequestTracer {
+	
+	public static final String SAMPLING_PROPERTY = "camel.lsp.trace.sampling";
+	public static final String CAPACITY_PROPERTY = "camel.lsp.trace.capacity";
+	private static final int DEFAULT_SAMPLING = 1;
+	private static final int DEFAULT_CAPACITY = 1024;
+	
+	private final int sampling;
+	private final AtomicReferenceArray<RequestSpan> spans;
+	private final AtomicLong sequence = new AtomicLong();
+	private final LongAdder finishedCount = new LongAdder();
+	private final LatencyMetrics latencyMetrics;
+	
+	public RequestTracer(LatencyMetrics latencyMetrics) {
+		this(Integer.getInteger(SAMPLING_PROPERTY, DEFAULT_SAMPLING), Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY), latencyMetrics);
+	}
+	
+	public RequestTracer(int sampling, int capacity) {
+		this(sampling, capacity, null);
+	}
+	
+	/**
+	 * @param latencyMetrics where the latency of the requests is recorded, null to only trace the sampled requests
+	 */
+	public RequestTracer(int sampling, int capacity, LatencyMetrics latencyMetrics) {
+		this.sampling = sampling;
+		this.latencyMetrics = latencyMetrics;
+		int size = Integer.highestOneBit(Math.max(1, capacity));
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.spans = new AtomicReferenceArray<>(size);
+	}
+	
+	/**
+	 * @param uri only its hash is kept
+	 * @return the span of the request, {@link RequestSpan#NOT_SAMPLED} if it is neither traced nor measured
+	 */
+	public RequestSpan start(String method, String uri, Integer version) {
+		boolean sampled = isSampled();
+		if (!sampled && latencyMetrics == null) {
+			return RequestSpan.NOT_SAMPLED;
+		}
+		return new RequestSpan(this, method, uri, version, sampled);
+	}
+
+	/**
+	 * Traces a request answered as soon as it is received.
+	 */
+	public void trace(String method, String uri, Integer version) {
+		start(method, uri, version).finished();
+	}
+	
+	void record(RequestSpan span, long latencyNanos) {
+		finishedCount.increment();
+		if (latencyMetrics != null) {
+			latencyMetrics.recordMethod(span.getMethod(), latencyNanos);
+		}
+		if (span.isSampled()) {
+			spans.set((int) (sequence.getAndIncrement() & (spans.length() - 1)), span);
+		}
+	}
+	
+	private boolean isSampled() {
+		return sampling == 1 || (sampling > 1 && ThreadLocalRandom.current().nextInt(sampling) == 0);
+	}
+	
+	/**
+	 * @return the spans still in the buffer, from the oldest to the most recent
+	 */
+	public List<RequestSpan> getSpans() {
+		long end = sequence.get();
+		long begin = Math.max(0, end - spans.length());
+		List<RequestSpan> result = new ArrayList<>((int) (end - begin));
+		for (long index = begin; index < end; index++) {
+			RequestSpan span = spans.get((int) (index & (spans.length() - 1)));
+			if (span != null) {
+				result.add(span);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @return the number of spans recorded since the start, including the ones overwritten in the buffer
+	 */
+	public long getRecordedCount() {
+		return sequence.get();
+	}
+	
+	/**
+	 * @return the number of requests and notifications handled by this tracer since the start, sampled or not
+	 */
+	public long getFinishedCount() {
+		return finishedCount.sum();
+	}
+	
+	/**
+	 * @return one line per span still in the buffer
+	 */
+	public String dump() {
+		StringBuilder builder = new StringBuilder();
+		for (RequestSpan span : getSpans()) {
+			builder.append(span).append(System.lineSeparator());
+		}
+		return builder.toString();
+	}
+
+}
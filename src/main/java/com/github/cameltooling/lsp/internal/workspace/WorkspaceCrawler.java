@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.workspace;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lists the files of a workspace which may contain Camel routes.
+ */
+public class WorkspaceCrawler {
+	
+	private static final List<String> IGNORED_FOLDERS = Arrays.asList("target", "bin", "build", "node_modules");
+	
+	/**
+	 * @param rootUri the root uri of the workspace, as provided by the client on initialization
+	 * @return the XML and Java files below the root, skipping hidden and build output folders
+	 * @throws IOException if the workspace cannot be walked
+	 */
+	public List<Path> findCandidateFiles(String rootUri) throws IOException {
+		if (rootUri == null) {
+			return Collections.emptyList();
+		}
+		Path root = Paths.get(URI.create(rootUri));
+		if (!Files.isDirectory(root)) {
+			return Collections.emptyList();
+		}
+		List<Path> files = new ArrayList<>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				String folderName = dir.getFileName() != null ? dir.getFileName().toString() : "";
+				if (!dir.equals(root) && (folderName.startsWith(".") || IGNORED_FOLDERS.contains(folderName))) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && isCandidate(file.getFileName().toString())) {
+					files.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exc) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
+	}
+	
+	public static boolean isCandidate(String fileName) {
+		return fileName.endsWith(".xml") || fileName.endsWith(".java");
+	}
+	
+	/**
+	 * Cheap textual heuristic avoiding to parse files which cannot contain Camel routes.
+	 * 
+	 * @param uri the uri of the file
+	 * @param text the content of the file
+	 * @return whether the file may contain Camel routes
+	 */
+	public static boolean isCamelFile(String uri, String text) {
+		if (uri.endsWith(".xml")) {
+			return text.contains("http://camel.apache.org/schema/");
+		}
+		return uri.endsWith(".java") && text.contains("org.apache.camel");
+	}
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.workspace;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticsDispatcher;
+import com.github.cameltooling.lsp.internal.executor.Workload;
+
+/**
+ * Validates in background all Camel files of the workspace, including the ones which are not opened,
+ * and publishes the diagnostics file by file through the {@link DiagnosticsDispatcher}.
+ * Files whose content did not change since the previous session are republished from the {@link com.github.cameltooling.lsp.internal.diagnostic.DiagnosticCache} first, without parsing.
+ * 
+ * The validation runs on the low priority background executor, one file per task so that diagnostics of saved documents
+ * are not queued behind the whole workspace. It waits while interactive requests (completion, hover) are in progress
+ * and is throttled to use at most the configured fraction of the available processors.
+ */
+public class WorkspaceValidator {
+	
+	public static final String ENABLED_PROPERTY = "camel.lsp.workspace.validation";
+	public static final String CPU_BUDGET_PROPERTY = "camel.lsp.workspace.validation.cpuBudget";
+	private static final double DEFAULT_CPU_BUDGET = 0.25;
+	private static final long INTERACTIVE_WAIT_MILLIS = 20;
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkspaceValidator.class);
+	
+	private final CamelLanguageServer camelLanguageServer;
+	private final DiagnosticService diagnosticService;
+	private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+	private final Executor executor;
+	private final int threadCount;
+	private final double dutyCycle;
+	private final Queue<Path> pendingFiles = new ConcurrentLinkedQueue<>();
+	private boolean started;
+	private volatile boolean stopped;
+
+	public WorkspaceValidator(CamelLanguageServer camelLanguageServer, DiagnosticService diagnosticService) {
+		this.camelLanguageServer = camelLanguageServer;
+		this.diagnosticService = diagnosticService;
+		this.executor = camelLanguageServer.getExecutors().getBackground();
+		double cpuBudget = readCpuBudget();
+		double budgetInProcessors = Runtime.getRuntime().availableProcessors() * cpuBudget;
+		int backgroundThreads = Workload.BACKGROUND.getThreads();
+		this.threadCount = Math.max(1, Math.min(backgroundThreads, (int) Math.ceil(budgetInProcessors)));
+		this.dutyCycle = Math.min(1.0, budgetInProcessors / threadCount);
+	}
+	
+	public static boolean isEnabled() {
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, Boolean.TRUE.toString()));
+	}
+
+	/**
+	 * Crawls the workspace and schedules the validation of all candidate files.
+	 * 
+	 * @param rootUri the root uri of the workspace
+	 */
+	public synchronized void start(String rootUri) {
+		if (rootUri == null || started) {
+			return;
+		}
+		started = true;
+		camelLanguageServer.getTextDocumentService().getCamelCatalog().thenRun(() -> {
+			try {
+				executor.execute(() -> crawl(rootUri));
+			} catch (RejectedExecutionException e) {
+				LOGGER.warn("Cannot schedule validation of workspace {}: {}", rootUri, e.getMessage());
+			}
+		});
+	}
+	
+	public void stop() {
+		stopped = true;
+		pendingFiles.clear();
+	}
+
+	private void crawl(String rootUri) {
+		try {
+			List<Path> files = new WorkspaceCrawler().findCandidateFiles(rootUri);
+			LOGGER.info("Validating {} files of workspace {} with {} thread(s)", files.size(), rootUri, threadCount);
+			int replayed = 0;
+			for (Path file : files) {
+				if (stopped) {
+					return;
+				}
+				if (replayFromCache(file)) {
+					replayed++;
+				} else {
+					pendingFiles.add(file);
+				}
+			}
+			LOGGER.info("{} files of workspace {} were up to date in the diagnostic cache", replayed, rootUri);
+			for (int i = 0; i < threadCount; i++) {
+				scheduleNext();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot crawl workspace " + rootUri, e);
+		}
+	}
+
+	/**
+	 * Validates the next pending file then queues the validation of the following one behind the work submitted meanwhile.
+	 */
+	private void validateNext() {
+		Path file = pendingFiles.poll();
+		while (file != null && !stopped) {
+			validate(file);
+			if (scheduleNext()) {
+				return;
+			}
+			// background queue saturated, keep going on this thread
+			file = pendingFiles.poll();
+		}
+	}
+
+	private boolean scheduleNext() {
+		if (stopped || pendingFiles.isEmpty()) {
+			return true;
+		}
+		try {
+			executor.execute(this::validateNext);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Publishes the persisted diagnostics of a file if its content did not change since they were computed.
+	 * 
+	 * @return true if nothing remains to validate for this file
+	 */
+	private boolean replayFromCache(Path file) {
+		String uri = file.toUri().toString();
+		try {
+			long publicationSequence = getDiagnosticsDispatcher().getPublicationSequence(uri);
+			if (camelLanguageServer.getTextDocumentService().getOpenedDocument(uri) != null) {
+				return true;
+			}
+			String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			if (!WorkspaceCrawler.isCamelFile(uri, text)) {
+				return true;
+			}
+			Optional<List<Diagnostic>> cachedDiagnostics = diagnosticService.getCachedDiagnostics(uri, text);
+			if (cachedDiagnostics.isPresent()) {
+				publish(uri, cachedDiagnostics.get(), publicationSequence);
+				return true;
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Cannot read " + uri, e);
+		}
+		return false;
+	}
+
+	private void validate(Path file) {
+		String uri = file.toUri().toString();
+		try {
+			waitForInteractiveRequests();
+			// read before checking the opened documents, a document opened and saved meanwhile has its save diagnostics kept
+			long publicationSequence = getDiagnosticsDispatcher().getPublicationSequence(uri);
+			if (camelLanguageServer.getTextDocumentService().getOpenedDocument(uri) != null) {
+				// opened documents are validated on save with their editor content
+				return;
+			}
+			long start = currentThreadTime();
+			String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			if (WorkspaceCrawler.isCamelFile(uri, text)) {
+				publish(uri, diagnosticService.computeDiagnostics(uri, text), publicationSequence);
+			}
+			throttle(currentThreadTime() - start);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.debug("Cannot validate " + uri, e);
+		}
+	}
+
+	private void publish(String uri, List<Diagnostic> diagnostics, long publicationSequence) {
+		getDiagnosticsDispatcher().submit(uri, diagnostics, publicationSequence);
+	}
+	
+	private DiagnosticsDispatcher getDiagnosticsDispatcher() {
+		return camelLanguageServer.getDiagnosticsDispatcher();
+	}
+
+	private void waitForInteractiveRequests() throws InterruptedException {
+		while (camelLanguageServer.getTextDocumentService().getInteractiveRequestsInProgress() > 0) {
+			Thread.sleep(INTERACTIVE_WAIT_MILLIS);
+		}
+	}
+	
+	/**
+	 * Sleeps long enough after a validation so that each thread is busy only for its share of the CPU budget.
+	 */
+	private void throttle(long busyNanos) throws InterruptedException {
+		if (dutyCycle < 1.0 && busyNanos > 0) {
+			long pauseNanos = (long) (busyNanos * (1.0 - dutyCycle) / dutyCycle);
+			TimeUnit.NANOSECONDS.sleep(pauseNanos);
+		}
+	}
+
+	private long currentThreadTime() {
+		if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+			return threadMXBean.getCurrentThreadCpuTime();
+		}
+		return System.nanoTime();
+	}
+
+	private static double readCpuBudget() {
+		String value = System.getProperty(CPU_BUDGET_PROPERTY);
+		if (value != null) {
+			try {
+				double budget = Double.parseDouble(value);
+				if (budget > 0 && budget <= 1) {
+					return budget;
+				}
+			} catch (NumberFormatException e) {
+				// fall back to default
+			}
+			LOGGER.warn("Invalid value {} for {}, expecting a number in ]0, 1]", value, CPU_BUDGET_PROPERTY);
+		}
+		return DEFAULT_CPU_BUDGET;
+	}
+
+}
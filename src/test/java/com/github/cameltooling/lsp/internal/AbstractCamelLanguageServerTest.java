@@ -10,8 +10,10 @@ import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -33,6 +35,11 @@ import org.eclipse.lsp4j.TextDocumentItem;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.TextDocumentService;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import com.github.cameltooling.lsp.internal.executor.RequestBudgets;
+import com.github.cameltooling.lsp.internal.liveness.ParentProcessMonitor;
 
 public abstract class AbstractCamelLanguageServerTest {
 
@@ -41,6 +48,23 @@ public abstract class AbstractCamelLanguageServerTest {
 	private String extensionUsed;
 	protected CompletionItem expectedAhcCompletioncompletionItem;
 	protected PublishDiagnosticsParams lastPublishedDiagnostics;
+	protected Map<String, PublishDiagnosticsParams> publishedDiagnostics = new ConcurrentHashMap<>();
+
+	@BeforeClass
+	public static void configureTestServers() {
+		// each test server loads its own catalog, assertions need the complete results even when it takes longer than the budgets
+		System.setProperty(RequestBudgets.PROPERTY_PREFIX + RequestBudgets.COMPLETION, "0");
+		System.setProperty(RequestBudgets.PROPERTY_PREFIX + RequestBudgets.HOVER, "0");
+		// test servers are initialized with a random client process id
+		System.setProperty(ParentProcessMonitor.ENABLED_PROPERTY, "false");
+	}
+	
+	@AfterClass
+	public static void restoreServerConfiguration() {
+		System.clearProperty(RequestBudgets.PROPERTY_PREFIX + RequestBudgets.COMPLETION);
+		System.clearProperty(RequestBudgets.PROPERTY_PREFIX + RequestBudgets.HOVER);
+		System.clearProperty(ParentProcessMonitor.ENABLED_PROPERTY);
+	}
 
 	public AbstractCamelLanguageServerTest() {
 		super();
@@ -67,6 +91,7 @@ public abstract class AbstractCamelLanguageServerTest {
 		@Override
 		public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
 			AbstractCamelLanguageServerTest.this.lastPublishedDiagnostics = diagnostics;
+			AbstractCamelLanguageServerTest.this.publishedDiagnostics.put(diagnostics.getUri(), diagnostics);
 		}
 
 		@Override
@@ -121,6 +146,29 @@ public abstract class AbstractCamelLanguageServerTest {
 		return textDocumentService.documentSymbol(params);
 	}
 
+	/**
+	 * Diagnostics are computed in background, waits for the ones of the given document to be published.
+	 */
+	protected PublishDiagnosticsParams waitForPublishedDiagnostics(String uri) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 30000;
+		while (!publishedDiagnostics.containsKey(uri) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(20);
+		}
+		assertThat(publishedDiagnostics).containsKey(uri);
+		return publishedDiagnostics.get(uri);
+	}
+	
+	/**
+	 * Documents are indexed in background, waits for the symbols of the given one to be indexed.
+	 */
+	protected void waitForIndexedSymbols(CamelLanguageServer camelLanguageServer, String uri) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (camelLanguageServer.getWorkspaceSymbolIndex().getSymbols(uri).isEmpty() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+		assertThat(camelLanguageServer.getWorkspaceSymbolIndex().getSymbols(uri)).isNotEmpty();
+	}
+
 	public File getTestResource(String name) throws URISyntaxException {
 		return Paths.get(CamelLanguageServerTest.class.getResource(name).toURI()).toFile();
 	}
@@ -20,16 +20,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.ExecuteCommandParams;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+import com.github.cameltooling.lsp.internal.metrics.LatencyMetrics;
+
 
 public class CamelLanguageServerTest extends AbstractCamelLanguageServerTest {
 	
@@ -130,6 +136,38 @@ public class CamelLanguageServerTest extends AbstractCamelLanguageServerTest {
 		assertThat(completions.get().getRight()).isNull();
 	}
 	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMetricsRecordCompletionLatency() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<from uri=\"\" xmlns=\"http://camel.apache.org/schema/spring\"></from>\n");
+		
+		getCompletionFor(camelLanguageServer, new Position(0, 11)).get();
+		
+		Map<String, Object> metrics = camelLanguageServer.metrics().get();
+		long timeout = System.currentTimeMillis() + 10000;
+		while (!((Map<String, Object>) metrics.get("methods")).containsKey("completion") && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+			metrics = camelLanguageServer.metrics().get();
+		}
+		assertThat((Map<String, Object>) metrics.get("methods")).containsKey("completion");
+		assertThat((Map<String, Object>) metrics.get("phases")).containsKeys(LatencyMetrics.PARSE, LatencyMetrics.MODEL_LOOKUP, LatencyMetrics.FILTER);
+		assertThat((Map<String, Object>) metrics.get("executors")).containsKey("interactive");
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMemoryCommandReportsOpenedDocuments() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<from uri=\"\" xmlns=\"http://camel.apache.org/schema/spring\"></from>\n");
+		
+		Map<String, Object> memory = (Map<String, Object>) camelLanguageServer.getWorkspaceService()
+				.executeCommand(new ExecuteCommandParams(CamelWorkspaceService.MEMORY_COMMAND, Collections.emptyList())).get();
+		
+		Map<String, Object> documents = (Map<String, Object>) ((Map<String, Object>) memory.get("pools")).get(MemoryAccounting.DOCUMENTS);
+		assertThat(documents).containsEntry("entries", 1);
+		assertThat((Long) documents.get("estimatedBytes")).isPositive();
+		assertThat(memory).containsKey("heap");
+	}
+	
 	@Test
 	public void testLoadCamelContextFromFile() throws Exception {
 		File f = new File("src/test/resources/workspace/cbr-blueprint.xml");
@@ -27,6 +27,7 @@ import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentItem;
 import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.Test;
@@ -56,4 +57,37 @@ public class CamelTextDocumentServiceTest extends AbstractCamelLanguageServerTes
 		assertThat(completionsAtNewPosition.get().getLeft()).isNotEmpty();
 		
 	}
+	
+	@Test
+	public void testChangeEventKeepsTextOfRequestsInProgress() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<to uri=\"\" xmlns=\"http://camel.apache.org/schema/blueprint\"></to>\n");
+		CamelTextDocumentService textDocumentService = camelLanguageServer.getTextDocumentService();
+		TextDocumentItem beforeChange = textDocumentService.getOpenedDocument(DUMMY_URI+".xml");
+		
+		DidChangeTextDocumentParams changeEvent = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri(DUMMY_URI+".xml");
+		textDocument.setVersion(2);
+		changeEvent.setTextDocument(textDocument);
+		changeEvent.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent("<to uri=\"timer:\" xmlns=\"http://camel.apache.org/schema/blueprint\"></to>\n")));
+		textDocumentService.didChange(changeEvent);
+		
+		assertThat(beforeChange.getText()).doesNotContain("timer:");
+		assertThat(textDocumentService.getOpenedDocument(DUMMY_URI+".xml").getText()).contains("timer:");
+		assertThat(textDocumentService.getOpenedDocument(DUMMY_URI+".xml").getVersion()).isEqualTo(2);
+	}
+	
+	@Test
+	public void testChangeEventOnClosedDocumentIgnored() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<to uri=\"\" xmlns=\"http://camel.apache.org/schema/blueprint\"></to>\n");
+		
+		DidChangeTextDocumentParams changeEvent = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri("file:///closed.xml");
+		changeEvent.setTextDocument(textDocument);
+		changeEvent.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent("<to uri=\"\"/>")));
+		camelLanguageServer.getTextDocumentService().didChange(changeEvent);
+		
+		assertThat(camelLanguageServer.getTextDocumentService().getOpenedDocument("file:///closed.xml")).isNull();
+	}
 }
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.junit.After;
+import org.junit.Test;
+
+public class SocketServerTest extends AbstractCamelLanguageServerTest {
+	
+	private SocketServer socketServer = new SocketServer();
+	
+	@After
+	public void tearDown() {
+		socketServer.stop();
+	}
+
+	@Test
+	public void testSeveralClientsServedByTheSameProcess() throws Exception {
+		int port = socketServer.start(0);
+		new Thread(socketServer::acceptConnections).start();
+		
+		try (Socket firstClient = new Socket(InetAddress.getLoopbackAddress(), port);
+				Socket secondClient = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			assertThat(initialize(firstClient).getCapabilities().getCompletionProvider()).isNotNull();
+			assertThat(initialize(secondClient).getCapabilities().getCompletionProvider()).isNotNull();
+			assertThat(socketServer.getSessionCount()).isEqualTo(2);
+		}
+		
+		long timeout = System.currentTimeMillis() + 10000;
+		while (socketServer.getSessionCount() > 0 && System.currentTimeMillis() < timeout) {
+			Thread.sleep(20);
+		}
+		assertThat(socketServer.getSessionCount()).isZero();
+	}
+	
+	@Test
+	public void testSessionsShareTheCatalog() throws Exception {
+		SharedServerResources sharedResources = new SharedServerResources();
+		CamelLanguageServer firstSession = new CamelLanguageServer(sharedResources);
+		CamelLanguageServer secondSession = new CamelLanguageServer(sharedResources);
+		
+		CamelCatalog firstCatalog = firstSession.getTextDocumentService().getCamelCatalog().get(30, TimeUnit.SECONDS);
+		assertThat(secondSession.getTextDocumentService().getCamelCatalog().get(30, TimeUnit.SECONDS)).isSameAs(firstCatalog);
+		assertThat(firstSession.getSessionId()).isNotEqualTo(secondSession.getSessionId());
+		sharedResources.shutdown();
+	}
+
+	private InitializeResult initialize(Socket client) throws Exception {
+		Launcher<LanguageServer> launcher = Launcher.createLauncher(new DummyLanguageClient(), LanguageServer.class, client.getInputStream(), client.getOutputStream());
+		launcher.startListening();
+		return launcher.getRemoteProxy().initialize(new InitializeParams()).get(30, TimeUnit.SECONDS);
+	}
+
+}
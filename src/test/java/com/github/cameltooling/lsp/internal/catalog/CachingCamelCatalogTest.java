@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class CachingCamelCatalogTest {
+	
+	private CachingCamelCatalog camelCatalog = new CachingCamelCatalog();
+
+	@Test
+	public void testModelGeneratedOnce() throws Exception {
+		assertThat(camelCatalog.getComponentModel("timer")).isSameAs(camelCatalog.getComponentModel("timer"));
+		assertThat(camelCatalog.getEntryCount()).isEqualTo(1);
+		assertThat(camelCatalog.getEstimatedBytes()).isGreaterThan(camelCatalog.componentJSonSchema("timer").length());
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedModelsEvicted() throws Exception {
+		camelCatalog.getComponentModel("timer");
+		camelCatalog.getComponentModel("file");
+		camelCatalog.getComponentModel("log");
+		camelCatalog.getComponentModel("timer");
+		
+		assertThat(camelCatalog.evictTo(camelCatalog.getEstimatedBytes() - 1)).isEqualTo(1);
+		assertThat(camelCatalog.isComponentModelLoaded("file")).isFalse();
+		assertThat(camelCatalog.isComponentModelLoaded("timer")).isTrue();
+		
+		assertThat(camelCatalog.evictTo(0)).isEqualTo(2);
+		assertThat(camelCatalog.getEstimatedBytes()).isZero();
+		assertThat(camelCatalog.getComponentModel("file")).isNotNull();
+	}
+
+}
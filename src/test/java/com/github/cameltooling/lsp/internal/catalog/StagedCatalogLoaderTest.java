@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.memory.MemoryAccounting;
+
+public class StagedCatalogLoaderTest {
+	
+	private Deque<Runnable> scheduledTasks = new ArrayDeque<>();
+
+	@Test
+	public void testComponentsReferencedInDocumentsAreLoadedBeforeOthers() throws Exception {
+		StagedCatalogLoader loader = new StagedCatalogLoader(scheduledTasks::add);
+		scheduledTasks.poll().run();
+		CachingCamelCatalog camelCatalog = (CachingCamelCatalog) loader.getCatalog().get();
+		assertThat(camelCatalog.getLoadedComponentModelCount()).isZero();
+		
+		loader.warmUp("<from uri=\"timer:foo\"/>");
+		scheduledTasks.pollLast().run();
+		
+		assertThat(camelCatalog.isComponentModelLoaded("timer")).isTrue();
+		assertThat(camelCatalog.isComponentModelLoaded("ahc")).isFalse();
+		assertThat(loader.getFullyLoaded()).isNotDone();
+	}
+	
+	@Test
+	public void testAllComponentsAreLoadedInBackground() throws Exception {
+		StagedCatalogLoader loader = new StagedCatalogLoader(scheduledTasks::add);
+		while (!scheduledTasks.isEmpty()) {
+			scheduledTasks.poll().run();
+		}
+		
+		assertThat(loader.getFullyLoaded()).isCompleted();
+		CachingCamelCatalog camelCatalog = (CachingCamelCatalog) loader.getCatalog().get();
+		assertThat(camelCatalog.getLoadedComponentModelCount()).isEqualTo(camelCatalog.findComponentNames().size());
+	}
+
+	@Test
+	public void testPreloadingStopsAtSoftLimit() throws Exception {
+		System.setProperty(MemoryAccounting.SOFT_LIMIT_PROPERTY_PREFIX + MemoryAccounting.COMPONENT_MODELS, "1");
+		try {
+			StagedCatalogLoader loader = new StagedCatalogLoader(scheduledTasks::add, new MemoryAccounting());
+			while (!scheduledTasks.isEmpty()) {
+				scheduledTasks.poll().run();
+			}
+			
+			assertThat(loader.getFullyLoaded()).isCompleted();
+			CachingCamelCatalog camelCatalog = (CachingCamelCatalog) loader.getCatalog().get();
+			assertThat(camelCatalog.getLoadedComponentModelCount()).isPositive().isLessThan(camelCatalog.findComponentNames().size());
+		} finally {
+			System.clearProperty(MemoryAccounting.SOFT_LIMIT_PROPERTY_PREFIX + MemoryAccounting.COMPONENT_MODELS);
+		}
+	}
+
+}
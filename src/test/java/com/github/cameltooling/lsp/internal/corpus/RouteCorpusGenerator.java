@@ -0,0 +1,392 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.corpus;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.camel.catalog.CamelCatalog;
+
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
+import com.github.cameltooling.model.ComponentModel;
+import com.github.cameltooling.model.EndpointOptionModel;
+
+/**
+ * Generates Camel route files for scale tests and benchmarks, without checking in huge fixtures.
+ * 
+ * The generation is deterministic for a given seed. Endpoint URIs are built from the component models of the catalog,
+ * with random valid values for their path and for a few of their options. A ratio of the endpoints can be made invalid
+ * with a wrong boolean value, each of them is then reported by exactly one diagnostic.
+ * Routes contain nested choice, filter and split blocks up to the configured depth.
+ */
+public class RouteCorpusGenerator {
+	
+	/**
+	 * Components found in most Camel applications, used by default.
+	 */
+	public static final List<String> COMMON_COMPONENTS = Collections.unmodifiableList(Arrays.asList("direct", "file", "log", "seda", "timer"));
+	private static final String INVALID_BOOLEAN = "notABoolean";
+	private static final String[] NESTED_BLOCKS = {"choice", "filter", "split"};
+	
+	public enum Flavor {
+		SPRING_XML, BLUEPRINT_XML, JAVA
+	}
+	
+	private final CamelCatalog camelCatalog;
+	private final Random random;
+	private List<String> components = COMMON_COMPONENTS;
+	private List<String> consumerComponents;
+	private List<String> producerComponents;
+	private int routesPerFile = 10;
+	private int stepsPerRoute = 3;
+	private int nestingDepth = 1;
+	private double errorRatio;
+	private int fileCounter;
+	private int endpointCounter;
+	private int errorCounter;
+
+	public RouteCorpusGenerator(CamelCatalog camelCatalog, long seed) {
+		this.camelCatalog = camelCatalog;
+		this.random = new Random(seed);
+	}
+	
+	/**
+	 * @param components names of the catalog components the endpoints are drawn from
+	 */
+	public RouteCorpusGenerator withComponents(List<String> components) {
+		this.components = new ArrayList<>(components);
+		this.consumerComponents = null;
+		this.producerComponents = null;
+		return this;
+	}
+	
+	/**
+	 * Draws the endpoints from all the components of the catalog. Components with lenient properties or particular
+	 * syntaxes may then report diagnostics on endpoints which are not made invalid on purpose.
+	 */
+	public RouteCorpusGenerator withAllCatalogComponents() {
+		List<String> componentNames = new ArrayList<>(camelCatalog.findComponentNames());
+		Collections.sort(componentNames);
+		return withComponents(componentNames);
+	}
+	
+	public RouteCorpusGenerator withRoutesPerFile(int routesPerFile) {
+		this.routesPerFile = routesPerFile;
+		return this;
+	}
+	
+	/**
+	 * @param stepsPerRoute number of steps at each level of a route, one of them being a nested block while the depth allows it
+	 */
+	public RouteCorpusGenerator withStepsPerRoute(int stepsPerRoute) {
+		this.stepsPerRoute = stepsPerRoute;
+		return this;
+	}
+	
+	public RouteCorpusGenerator withNestingDepth(int nestingDepth) {
+		this.nestingDepth = nestingDepth;
+		return this;
+	}
+	
+	/**
+	 * @param errorRatio between 0 and 1, the ratio of invalid endpoints
+	 */
+	public RouteCorpusGenerator withErrorRatio(double errorRatio) {
+		this.errorRatio = errorRatio;
+		return this;
+	}
+	
+	public GeneratedFile generate(Flavor flavor) {
+		int fileIndex = fileCounter++;
+		endpointCounter = 0;
+		errorCounter = 0;
+		StringBuilder text = new StringBuilder();
+		String path;
+		switch (flavor) {
+		case SPRING_XML:
+			path = "src/main/resources/META-INF/spring/generated-" + fileIndex + ".xml";
+			appendXml(text, "", "http://camel.apache.org/schema/spring", fileIndex);
+			break;
+		case BLUEPRINT_XML:
+			path = "src/main/resources/OSGI-INF/blueprint/generated-" + fileIndex + ".xml";
+			text.append("<blueprint xmlns=\"http://www.osgi.org/xmlns/blueprint/v1.0.0\">\n");
+			appendXml(text, "  ", "http://camel.apache.org/schema/blueprint", fileIndex);
+			text.append("</blueprint>\n");
+			break;
+		default:
+			path = "src/main/java/generated/GeneratedRoutes" + fileIndex + ".java";
+			appendJava(text, fileIndex);
+			break;
+		}
+		return new GeneratedFile(path, flavor, text.toString(), routesPerFile, endpointCounter, errorCounter);
+	}
+	
+	/**
+	 * Writes a Maven like workspace, the flavors of the files alternating.
+	 * 
+	 * @return the files written under the directory
+	 */
+	public List<GeneratedFile> generateWorkspace(Path directory, int fileCount) throws IOException {
+		List<GeneratedFile> files = new ArrayList<>();
+		for (int index = 0; index < fileCount; index++) {
+			GeneratedFile file = generate(Flavor.values()[index % Flavor.values().length]);
+			file.write(directory);
+			files.add(file);
+		}
+		return files;
+	}
+
+	private void appendXml(StringBuilder text, String indent, String namespace, int fileIndex) {
+		text.append(indent).append("<camelContext xmlns=\"").append(namespace).append("\">\n");
+		for (int route = 0; route < routesPerFile; route++) {
+			String routeId = "route-" + fileIndex + "-" + route;
+			text.append(indent).append("  <route id=\"").append(routeId).append("\">\n");
+			text.append(indent).append("    <from uri=\"").append(escapeXml(endpointUri(true, routeId))).append("\"/>\n");
+			appendXmlSteps(text, indent + "    ", routeId, 1);
+			text.append(indent).append("  </route>\n");
+		}
+		text.append(indent).append("</camelContext>\n");
+	}
+	
+	private void appendXmlSteps(StringBuilder text, String indent, String routeId, int level) {
+		for (int step = 0; step < stepsPerRoute; step++) {
+			if (level <= nestingDepth && step == stepsPerRoute / 2) {
+				String block = NESTED_BLOCKS[random.nextInt(NESTED_BLOCKS.length)];
+				text.append(indent).append('<').append(block).append(">\n");
+				if ("choice".equals(block)) {
+					text.append(indent).append("  <when>\n");
+					text.append(indent).append("    <simple>${header.index} == ").append(level).append("</simple>\n");
+					appendXmlSteps(text, indent + "    ", routeId, level + 1);
+					text.append(indent).append("  </when>\n");
+					text.append(indent).append("  <otherwise>\n");
+					appendXmlTo(text, indent + "    ", routeId);
+					text.append(indent).append("  </otherwise>\n");
+				} else {
+					text.append(indent).append("  ").append("filter".equals(block) ? "<simple>${body} != null</simple>" : "<tokenize token=\",\"/>").append('\n');
+					appendXmlSteps(text, indent + "  ", routeId, level + 1);
+				}
+				text.append(indent).append("</").append(block).append(">\n");
+			} else {
+				appendXmlTo(text, indent, routeId);
+			}
+		}
+	}
+
+	private void appendXmlTo(StringBuilder text, String indent, String routeId) {
+		text.append(indent).append("<to uri=\"").append(escapeXml(endpointUri(false, routeId))).append("\"/>\n");
+	}
+	
+	private void appendJava(StringBuilder text, int fileIndex) {
+		text.append("package generated;\n\n")
+			.append("import org.apache.camel.builder.RouteBuilder;\n\n")
+			.append("public class GeneratedRoutes").append(fileIndex).append(" extends RouteBuilder {\n\n")
+			.append("\t@Override\n")
+			.append("\tpublic void configure() throws Exception {\n");
+		for (int route = 0; route < routesPerFile; route++) {
+			String routeId = "route-" + fileIndex + "-" + route;
+			text.append("\t\tfrom(\"").append(endpointUri(true, routeId)).append("\")\n");
+			text.append("\t\t\t.routeId(\"").append(routeId).append("\")\n");
+			appendJavaSteps(text, "\t\t\t", routeId, 1);
+			text.setLength(text.length() - 1);
+			text.append(";\n");
+		}
+		text.append("\t}\n}\n");
+	}
+	
+	private void appendJavaSteps(StringBuilder text, String indent, String routeId, int level) {
+		for (int step = 0; step < stepsPerRoute; step++) {
+			if (level <= nestingDepth && step == stepsPerRoute / 2) {
+				String block = NESTED_BLOCKS[random.nextInt(NESTED_BLOCKS.length)];
+				if ("choice".equals(block)) {
+					text.append(indent).append(".choice()\n");
+					text.append(indent).append("\t.when(simple(\"${header.index} == ").append(level).append("\"))\n");
+					appendJavaSteps(text, indent + "\t\t", routeId, level + 1);
+					text.append(indent).append("\t.otherwise()\n");
+					appendJavaTo(text, indent + "\t\t", routeId);
+				} else {
+					text.append(indent).append("filter".equals(block) ? ".filter(simple(\"${body} != null\"))" : ".split(body().tokenize(\",\"))").append('\n');
+					appendJavaSteps(text, indent + "\t", routeId, level + 1);
+				}
+				text.append(indent).append(".end()\n");
+			} else {
+				appendJavaTo(text, indent, routeId);
+			}
+		}
+	}
+	
+	private void appendJavaTo(StringBuilder text, String indent, String routeId) {
+		text.append(indent).append(".to(\"").append(endpointUri(false, routeId)).append("\")\n");
+	}
+
+	private String endpointUri(boolean consumer, String routeId) {
+		String uniqueName = routeId + "-" + endpointCounter++;
+		String component = pickComponent(consumer);
+		ComponentModel componentModel = CachingCamelCatalog.getComponentModel(camelCatalog, component);
+		Map<String, String> properties = new LinkedHashMap<>();
+		List<EndpointOptionModel> parameters = new ArrayList<>();
+		EndpointOptionModel booleanParameter = null;
+		for (EndpointOptionModel option : componentModel.getEndpointOptions()) {
+			if ("path".equals(option.getKind())) {
+				properties.put(option.getName(), pathValue(option, uniqueName));
+			} else if ("parameter".equals(option.getKind()) && matchesGroup(option, consumer) && !"true".equals(option.getDeprecated())) {
+				if (validValue(option) != null) {
+					parameters.add(option);
+				}
+				if (booleanParameter == null && "boolean".equals(option.getType())) {
+					booleanParameter = option;
+				}
+			}
+		}
+		int parameterCount = random.nextInt(Math.min(3, parameters.size() + 1));
+		for (int index = 0; index < parameterCount; index++) {
+			EndpointOptionModel option = parameters.remove(random.nextInt(parameters.size()));
+			properties.put(option.getName(), validValue(option));
+		}
+		if (booleanParameter != null && random.nextDouble() < errorRatio) {
+			properties.put(booleanParameter.getName(), INVALID_BOOLEAN);
+			errorCounter++;
+		}
+		try {
+			return camelCatalog.asEndpointUri(component, properties, false);
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException("Cannot build an endpoint uri for " + component, e);
+		}
+	}
+	
+	private String pickComponent(boolean consumer) {
+		if (consumerComponents == null) {
+			consumerComponents = new ArrayList<>();
+			producerComponents = new ArrayList<>();
+			for (String component : components) {
+				ComponentModel componentModel = CachingCamelCatalog.getComponentModel(camelCatalog, component);
+				if (!"true".equals(componentModel.getProducerOnly())) {
+					consumerComponents.add(component);
+				}
+				if (!"true".equals(componentModel.getConsumerOnly())) {
+					producerComponents.add(component);
+				}
+			}
+		}
+		List<String> candidates = consumer ? consumerComponents : producerComponents;
+		if (candidates.isEmpty()) {
+			candidates = components;
+		}
+		return candidates.get(random.nextInt(candidates.size()));
+	}
+	
+	private boolean matchesGroup(EndpointOptionModel option, boolean consumer) {
+		String group = option.getGroup() != null ? option.getGroup() : "";
+		return !group.startsWith(consumer ? "producer" : "consumer");
+	}
+	
+	private String pathValue(EndpointOptionModel option, String uniqueName) {
+		boolean hasEnums = option.getEnums() != null && !option.getEnums().isEmpty();
+		String value = hasEnums || !"string".equals(option.getType()) ? validValue(option) : null;
+		return value != null ? value : uniqueName;
+	}
+
+	/**
+	 * @return a random valid value for the option, null for options which cannot be set with a simple value
+	 */
+	private String validValue(EndpointOptionModel option) {
+		String enums = option.getEnums();
+		if (enums != null && !enums.isEmpty()) {
+			String[] values = enums.split(",");
+			return values[random.nextInt(values.length)];
+		}
+		String type = option.getType();
+		if ("boolean".equals(type)) {
+			return Boolean.toString(random.nextBoolean());
+		} else if ("integer".equals(type) || "number".equals(type)) {
+			return Integer.toString(1 + random.nextInt(1000));
+		} else if ("string".equals(type)) {
+			return "value" + random.nextInt(1000);
+		}
+		return null;
+	}
+	
+	private static String escapeXml(String value) {
+		return value.replace("&", "&amp;");
+	}
+	
+	public static class GeneratedFile {
+		
+		private final String path;
+		private final Flavor flavor;
+		private final String text;
+		private final int routeCount;
+		private final int endpointCount;
+		private final int errorCount;
+		
+		GeneratedFile(String path, Flavor flavor, String text, int routeCount, int endpointCount, int errorCount) {
+			this.path = path;
+			this.flavor = flavor;
+			this.text = text;
+			this.routeCount = routeCount;
+			this.endpointCount = endpointCount;
+			this.errorCount = errorCount;
+		}
+		
+		/**
+		 * @return the path of the file relative to the root of the workspace
+		 */
+		public String getPath() {
+			return path;
+		}
+		
+		public Flavor getFlavor() {
+			return flavor;
+		}
+		
+		public String getText() {
+			return text;
+		}
+		
+		public int getRouteCount() {
+			return routeCount;
+		}
+		
+		public int getEndpointCount() {
+			return endpointCount;
+		}
+		
+		/**
+		 * @return the number of endpoints made invalid on purpose
+		 */
+		public int getErrorCount() {
+			return errorCount;
+		}
+		
+		public Path write(Path root) throws IOException {
+			Path file = root.resolve(path);
+			Files.createDirectories(file.getParent());
+			Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+			return file;
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.corpus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.parser.XmlRouteParser;
+import org.apache.camel.parser.model.CamelEndpointDetails;
+import org.eclipse.lsp4j.Diagnostic;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
+import com.github.cameltooling.lsp.internal.corpus.RouteCorpusGenerator.Flavor;
+import com.github.cameltooling.lsp.internal.corpus.RouteCorpusGenerator.GeneratedFile;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
+
+public class RouteCorpusGeneratorTest {
+	
+	private static CamelCatalog camelCatalog;
+	private static CamelLanguageServer camelLanguageServer;
+	
+	@Rule
+	public TemporaryFolder workspace = new TemporaryFolder();
+	
+	@BeforeClass
+	public static void setUp() {
+		camelCatalog = new CachingCamelCatalog();
+		camelLanguageServer = new CamelLanguageServer();
+	}
+	
+	@AfterClass
+	public static void tearDown() {
+		camelLanguageServer.shutdown();
+	}
+
+	@Test
+	public void testSameSeedGeneratesSameFiles() throws Exception {
+		for (Flavor flavor : Flavor.values()) {
+			assertThat(newGenerator(42).generate(flavor).getText()).isEqualTo(newGenerator(42).generate(flavor).getText());
+			assertThat(newGenerator(42).generate(flavor).getText()).isNotEqualTo(newGenerator(43).generate(flavor).getText());
+		}
+	}
+	
+	@Test
+	public void testEachErrorReportedByOneDiagnostic() throws Exception {
+		RouteCorpusGenerator generator = newGenerator(7).withErrorRatio(0.2);
+		for (Flavor flavor : Flavor.values()) {
+			GeneratedFile file = generator.generate(flavor);
+			
+			assertThat(file.getErrorCount()).isPositive();
+			assertThat(computeDiagnostics(file)).hasSize(file.getErrorCount());
+		}
+	}
+	
+	@Test
+	public void testNoDiagnosticWithoutErrors() throws Exception {
+		RouteCorpusGenerator generator = newGenerator(7).withNestingDepth(4);
+		for (Flavor flavor : Flavor.values()) {
+			GeneratedFile file = generator.generate(flavor);
+			
+			assertThat(file.getErrorCount()).isZero();
+			assertThat(computeDiagnostics(file)).isEmpty();
+		}
+	}
+	
+	@Test
+	public void testNestedEndpointsFoundByCamelParser() throws Exception {
+		GeneratedFile file = newGenerator(3).withNestingDepth(5).generate(Flavor.BLUEPRINT_XML);
+		List<CamelEndpointDetails> endpoints = new ArrayList<>();
+		XmlRouteParser.parseXmlRouteEndpoints(new ByteArrayInputStream(file.getText().getBytes(StandardCharsets.UTF_8)), "", "/" + file.getPath(), endpoints);
+		
+		assertThat(file.getRouteCount()).isEqualTo(20);
+		assertThat(endpoints).hasSize(file.getEndpointCount());
+		assertThat(file.getText()).contains("<choice>");
+	}
+	
+	@Test
+	public void testWorkspaceWritten() throws Exception {
+		Path root = workspace.getRoot().toPath();
+		List<GeneratedFile> files = newGenerator(1).generateWorkspace(root, 6);
+		
+		assertThat(files).hasSize(6);
+		assertThat(files).extracting(GeneratedFile::getFlavor).containsOnly(Flavor.values());
+		for (GeneratedFile file : files) {
+			assertThat(root.resolve(file.getPath())).hasContent(file.getText());
+		}
+	}
+
+	private RouteCorpusGenerator newGenerator(long seed) {
+		return new RouteCorpusGenerator(camelCatalog, seed).withRoutesPerFile(20);
+	}
+	
+	private List<Diagnostic> computeDiagnostics(GeneratedFile file) {
+		DiagnosticService diagnosticService = new DiagnosticService(CompletableFuture.completedFuture(camelCatalog), camelLanguageServer);
+		return diagnosticService.computeDiagnostics("file:///workspace/" + file.getPath(), file.getText());
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.definition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.index.IndexedSymbol;
+
+public class DefinitionProcessorTest extends AbstractCamelLanguageServerTest {
+	
+	private static final String OTHER_FILE = "file:///workspace/OtherRoute.java";
+	private static final Range OTHER_RANGE = new Range(new Position(5, 9), new Position(5, 28));
+	private static final String PRODUCER_ONLY =
+			"<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n" +
+			"  <route id=\"receive\">\n" +
+			"    <from uri=\"file:orders\"/>\n" +
+			"    <to uri=\"direct:processOrder\"/>\n" +
+			"  </route>\n" +
+			"</camelContext>\n";
+	private static final String PRODUCER_AND_CONSUMER =
+			"<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n" +
+			"  <route id=\"receive\">\n" +
+			"    <from uri=\"file:orders\"/>\n" +
+			"    <to uri=\"direct:processOrder\"/>\n" +
+			"  </route>\n" +
+			"  <route id=\"process\">\n" +
+			"    <from uri=\"direct:processOrder\"/>\n" +
+			"    <to uri=\"log:orders\"/>\n" +
+			"  </route>\n" +
+			"</camelContext>\n";
+	
+	@Test
+	public void testConsumerInAnotherFile() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(PRODUCER_ONLY);
+		waitForIndexedSymbols(camelLanguageServer, DUMMY_URI + ".xml");
+		indexOtherConsumer(camelLanguageServer);
+		
+		assertThat(getDefinitions(camelLanguageServer, new Position(3, 20))).containsExactly(new Location(OTHER_FILE, OTHER_RANGE));
+	}
+	
+	@Test
+	public void testConsumerAddedByAnEditIsFoundImmediately() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(PRODUCER_ONLY);
+		waitForIndexedSymbols(camelLanguageServer, DUMMY_URI + ".xml");
+		indexOtherConsumer(camelLanguageServer);
+		
+		DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri(DUMMY_URI + ".xml");
+		textDocument.setVersion(1);
+		params.setTextDocument(textDocument);
+		params.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent(PRODUCER_AND_CONSUMER)));
+		camelLanguageServer.getTextDocumentService().didChange(params);
+		
+		assertThat(getDefinitions(camelLanguageServer, new Position(3, 20))).containsExactly(
+				new Location(DUMMY_URI + ".xml", new Range(new Position(6, 15), new Position(6, 34))),
+				new Location(OTHER_FILE, OTHER_RANGE));
+	}
+	
+	@Test
+	public void testNoDefinitionOutsideOfInternalEndpoints() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(PRODUCER_ONLY);
+		waitForIndexedSymbols(camelLanguageServer, DUMMY_URI + ".xml");
+		indexOtherConsumer(camelLanguageServer);
+		
+		assertThat(getDefinitions(camelLanguageServer, new Position(2, 18))).isEmpty();
+		assertThat(getDefinitions(camelLanguageServer, new Position(0, 3))).isEmpty();
+	}
+	
+	private void indexOtherConsumer(CamelLanguageServer camelLanguageServer) {
+		camelLanguageServer.getWorkspaceSymbolIndex().update(OTHER_FILE,
+				Collections.singletonList(new IndexedSymbol("direct:processOrder", IndexedSymbol.Kind.CONSUMER, OTHER_FILE, OTHER_RANGE)));
+	}
+
+	private List<? extends Location> getDefinitions(CamelLanguageServer camelLanguageServer, Position position) throws Exception {
+		TextDocumentPositionParams params = new TextDocumentPositionParams(new TextDocumentIdentifier(DUMMY_URI + ".xml"), position);
+		return camelLanguageServer.getTextDocumentService().definition(params).get();
+	}
+
+}
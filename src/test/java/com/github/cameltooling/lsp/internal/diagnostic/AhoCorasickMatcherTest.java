@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AhoCorasickMatcherTest {
+	
+	@Test
+	public void testFindAllOccurrencesInOnePass() throws Exception {
+		List<String> matches = scan(Arrays.asList("direct:a", "timer:foo", "direct:ab"), "<to uri=\"direct:ab\"/><from uri=\"timer:foo\"/><to uri=\"direct:a\"/>");
+		assertThat(matches).containsExactly("0@9", "2@9", "1@32", "0@53");
+	}
+	
+	@Test
+	public void testOverlappingPatterns() throws Exception {
+		List<String> matches = scan(Arrays.asList("he", "she", "hers"), "ushers");
+		assertThat(matches).containsExactly("1@1", "0@2", "2@2");
+	}
+	
+	@Test
+	public void testNoMatch() throws Exception {
+		assertThat(scan(Arrays.asList("direct:a"), "<to uri=\"seda:a\"/>")).isEmpty();
+	}
+
+	private List<String> scan(List<String> patterns, String text) {
+		List<String> matches = new ArrayList<>();
+		new AhoCorasickMatcher(patterns).scan(text, (patternIndex, startOffset) -> matches.add(patternIndex + "@" + startOffset));
+		return matches;
+	}
+
+}
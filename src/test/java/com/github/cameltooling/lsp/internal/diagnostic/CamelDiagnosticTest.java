@@ -21,16 +21,31 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
 import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
 import com.github.cameltooling.lsp.internal.CamelLanguageServer;
 
 public class CamelDiagnosticTest extends AbstractCamelLanguageServerTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 
 	@Test
 	public void testNoValidationError() throws Exception {
@@ -42,9 +57,9 @@ public class CamelDiagnosticTest extends AbstractCamelLanguageServerTest {
 		testDiagnostic("camel-with-endpoint-error", 1, ".xml");
 		Range range = lastPublishedDiagnostics.getDiagnostics().get(0).getRange();
 		assertThat(range.getStart().getLine()).isEqualTo(8);
-		assertThat(range.getStart().getCharacter()).isEqualTo(0);
+		assertThat(range.getStart().getCharacter()).isEqualTo(16);
 		assertThat(range.getEnd().getLine()).isEqualTo(8);
-		assertThat(range.getEnd().getCharacter()).isEqualTo(52);
+		assertThat(range.getEnd().getCharacter()).isEqualTo(39);
 	}
 	
 	@Test
@@ -52,6 +67,18 @@ public class CamelDiagnosticTest extends AbstractCamelLanguageServerTest {
 		testDiagnostic("camel-with-endpoint-2-errors", 2, ".xml");
 	}
 	
+	@Test
+	public void testValidationErrorRangeWithEscapedAmpersand() throws Exception {
+		testDiagnostic("camel-with-endpoint-2-errors", 2, ".xml");
+		Range range = lastPublishedDiagnostics.getDiagnostics().stream()
+				.map(Diagnostic::getRange)
+				.filter(diagnosticRange -> diagnosticRange.getStart().getLine() == 10)
+				.findAny().get();
+		assertThat(range.getStart().getCharacter()).isEqualTo(17);
+		assertThat(range.getEnd().getLine()).isEqualTo(10);
+		assertThat(range.getEnd().getCharacter()).isEqualTo(66);
+	}
+	
 	@Test
 	public void testInvalidBoolean() throws Exception {
 		testDiagnostic("camel-with-endpoint-boolean-error", 1, ".xml");
@@ -72,19 +99,52 @@ public class CamelDiagnosticTest extends AbstractCamelLanguageServerTest {
 		testDiagnostic("camel-with-endpoint-error", 1, ".java");
 		Range range = lastPublishedDiagnostics.getDiagnostics().get(0).getRange();
 		assertThat(range.getStart().getLine()).isEqualTo(12);
-		assertThat(range.getStart().getCharacter()).isEqualTo(0);
+		assertThat(range.getStart().getCharacter()).isEqualTo(14);
 		assertThat(range.getEnd().getLine()).isEqualTo(12);
-		assertThat(range.getEnd().getCharacter()).isEqualTo(39);
+		assertThat(range.getEnd().getCharacter()).isEqualTo(37);
+	}
+	
+	@Test
+	public void testValidationOnSaveIsNotDroppedByFollowingEdit() throws Exception {
+		File f = new File("src/test/resources/workspace/diagnostic/camel-with-endpoint-error.xml");
+		String text = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(text, ".xml");
+		
+		camelLanguageServer.getTextDocumentService().didSave(new DidSaveTextDocumentParams(new TextDocumentIdentifier(DUMMY_URI + ".xml")));
+		DidChangeTextDocumentParams changeParams = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri(DUMMY_URI + ".xml");
+		textDocument.setVersion(1);
+		changeParams.setTextDocument(textDocument);
+		changeParams.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent(text)));
+		camelLanguageServer.getTextDocumentService().didChange(changeParams);
+		
+		assertThat(waitForPublishedDiagnostics(DUMMY_URI + ".xml").getDiagnostics()).hasSize(1);
+	}
+	
+	@Test
+	public void testValidationOnSaveOfDocumentClosedMeanwhile() throws Exception {
+		String text = new String(Files.readAllBytes(new File("src/test/resources/workspace/diagnostic/camel-with-endpoint-error.xml").toPath()), StandardCharsets.UTF_8);
+		File savedFile = folder.newFile("saved-and-closed.xml");
+		Files.write(savedFile.toPath(), text.getBytes(StandardCharsets.UTF_8));
+		String uri = savedFile.toPath().toUri().toString();
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(text, ".xml");
+		
+		camelLanguageServer.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, CamelLanguageServer.LANGUAGE_ID, 0, text)));
+		camelLanguageServer.getTextDocumentService().didSave(new DidSaveTextDocumentParams(new TextDocumentIdentifier(uri)));
+		camelLanguageServer.getTextDocumentService().didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(uri)));
+		
+		assertThat(waitForPublishedDiagnostics(uri).getDiagnostics()).hasSize(1);
 	}
 	
-	private void testDiagnostic(String fileUnderTest, int expectedNumberOfError, String extension) throws FileNotFoundException {
+	private void testDiagnostic(String fileUnderTest, int expectedNumberOfError, String extension) throws FileNotFoundException, InterruptedException {
 		File f = new File("src/test/resources/workspace/diagnostic/" + fileUnderTest + extension);
 		CamelLanguageServer camelLanguageServer = initializeLanguageServer(new FileInputStream(f), extension);
 		
 		DidSaveTextDocumentParams params = new DidSaveTextDocumentParams(new TextDocumentIdentifier(DUMMY_URI+extension));
 		camelLanguageServer.getTextDocumentService().didSave(params);
 		
-		assertThat(lastPublishedDiagnostics.getDiagnostics()).hasSize(expectedNumberOfError);
+		assertThat(waitForPublishedDiagnostics(DUMMY_URI+extension).getDiagnostics()).hasSize(expectedNumberOfError);
 	}
 	
 }
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiagnosticCacheTest {
+	
+	private static final String URI = "file:///workspace/camel.xml";
+	
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
+	@Test
+	public void testStoredDiagnosticsAreReloaded() throws Exception {
+		DiagnosticCache cache = new DiagnosticCache(temporaryFolder.getRoot().toPath(), "1.0");
+		Diagnostic diagnostic = new Diagnostic(new Range(new Position(8, 16), new Position(8, 39)), "Invalid duration value: delay=p\n", DiagnosticSeverity.Error, "Apache Camel validation", null);
+		cache.put(URI, "hash", "2.22.0", Arrays.asList(diagnostic));
+		
+		Optional<List<Diagnostic>> reloaded = new DiagnosticCache(temporaryFolder.getRoot().toPath(), "1.0").get(URI, "hash", "2.22.0");
+		
+		assertThat(reloaded).isPresent();
+		assertThat(reloaded.get()).hasSize(1);
+		assertThat(reloaded.get().get(0)).isEqualToComparingFieldByFieldRecursively(diagnostic);
+	}
+	
+	@Test
+	public void testEntryIgnoredWhenContentOrVersionsChanged() throws Exception {
+		DiagnosticCache cache = new DiagnosticCache(temporaryFolder.getRoot().toPath(), "1.0");
+		cache.put(URI, "hash", "2.22.0", Collections.emptyList());
+		
+		assertThat(cache.get(URI, "hash", "2.22.0")).isPresent();
+		assertThat(cache.get(URI, "otherHash", "2.22.0")).isEmpty();
+		assertThat(cache.get(URI, "hash", "2.23.0")).isEmpty();
+		assertThat(new DiagnosticCache(temporaryFolder.getRoot().toPath(), "1.1").get(URI, "hash", "2.22.0")).isEmpty();
+		assertThat(cache.get("file:///workspace/other.xml", "hash", "2.22.0")).isEmpty();
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.diagnostic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.junit.Test;
+
+public class DiagnosticsDispatcherTest {
+	
+	private static final long NO_AUTOMATIC_FLUSH = 3600000;
+	private List<PublishDiagnosticsParams> sent = new ArrayList<>();
+	private DiagnosticsDispatcher dispatcher = new DiagnosticsDispatcher(() -> new RecordingLanguageClient(), NO_AUTOMATIC_FLUSH, 2);
+	
+	@Test
+	public void testOnlyLatestDiagnosticsOfAnUriAreSent() throws Exception {
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("first")));
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("second")));
+		dispatcher.flush();
+		
+		assertThat(sent).hasSize(1);
+		assertThat(sent.get(0).getDiagnostics().get(0).getMessage()).isEqualTo("second");
+	}
+	
+	@Test
+	public void testIdenticalDiagnosticsAreNotSentAgain() throws Exception {
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.flush();
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.submit("b.xml", Collections.emptyList());
+		dispatcher.flush();
+		
+		assertThat(sent).hasSize(1);
+	}
+	
+	@Test
+	public void testNumberOfNotificationsPerFlushIsBounded() throws Exception {
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.submit("b.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.submit("c.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.flush();
+		
+		assertThat(sent).hasSize(2);
+		assertThat(dispatcher.getPendingCount()).isEqualTo(1);
+		dispatcher.flush();
+		assertThat(sent).hasSize(3);
+	}
+	
+	@Test
+	public void testPublishNowReplacesPendingDiagnostics() throws Exception {
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("outdated")));
+		dispatcher.publishNow("a.xml", Collections.emptyList());
+		dispatcher.flush();
+		
+		assertThat(sent).hasSize(1);
+		assertThat(sent.get(0).getDiagnostics()).isEmpty();
+	}
+
+	@Test
+	public void testBulkDiagnosticsComputedBeforePublishNowAreDropped() throws Exception {
+		long publicationSequence = dispatcher.getPublicationSequence("a.xml");
+		dispatcher.publishNow("a.xml", Arrays.asList(createDiagnostic("saved")));
+		dispatcher.submit("a.xml", Arrays.asList(createDiagnostic("outdated")), publicationSequence);
+		dispatcher.flush();
+		
+		assertThat(sent).hasSize(1);
+		assertThat(sent.get(0).getDiagnostics().get(0).getMessage()).isEqualTo("saved");
+		assertThat(dispatcher.getPendingCount()).isZero();
+		
+		dispatcher.submit("a.xml", Collections.emptyList(), dispatcher.getPublicationSequence("a.xml"));
+		dispatcher.flush();
+		assertThat(sent).hasSize(2);
+		assertThat(sent.get(1).getDiagnostics()).isEmpty();
+	}
+
+	@Test
+	public void testOnlyUrisWithoutDiagnosticsAreEvicted() throws Exception {
+		dispatcher.publishNow("a.xml", Arrays.asList(createDiagnostic("error")));
+		dispatcher.publishNow("b.xml", Collections.emptyList());
+		dispatcher.publishNow("c.xml", Collections.emptyList());
+		long estimatedBytes = dispatcher.getEstimatedBytes();
+		
+		assertThat(dispatcher.getEntryCount()).isEqualTo(3);
+		assertThat(dispatcher.evictTo(0)).isEqualTo(2);
+		assertThat(dispatcher.getEntryCount()).isEqualTo(1);
+		assertThat(dispatcher.getEstimatedBytes()).isPositive().isLessThan(estimatedBytes);
+		
+		dispatcher.submit("a.xml", Collections.emptyList());
+		dispatcher.flush();
+		assertThat(sent).hasSize(4);
+		assertThat(sent.get(3).getDiagnostics()).isEmpty();
+	}
+
+	private Diagnostic createDiagnostic(String message) {
+		return new Diagnostic(new Range(new Position(0, 0), new Position(0, 1)), message);
+	}
+	
+	private class RecordingLanguageClient implements LanguageClient {
+
+		@Override
+		public void telemetryEvent(Object object) {
+		}
+
+		@Override
+		public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+			sent.add(diagnostics);
+		}
+
+		@Override
+		public void showMessage(MessageParams messageParams) {
+		}
+
+		@Override
+		public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+			return null;
+		}
+
+		@Override
+		public void logMessage(MessageParams message) {
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.completion.CamelComponentSchemesCompletionsFuture;
+
+public class CancellableRequestTest {
+	
+	private ExecutorService executor = Executors.newSingleThreadExecutor();
+	
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testCancellingTheRequestAbortsTheAnalysis() throws Exception {
+		CountDownLatch analysisStarted = new CountDownLatch(1);
+		CountDownLatch requestCancelled = new CountDownLatch(1);
+		CompletableFuture<Throwable> abortedWith = new CompletableFuture<>();
+		CompletableFuture<String> request = CancellableRequest.computeAsync(executor, cancelChecker -> {
+			analysisStarted.countDown();
+			try {
+				requestCancelled.await();
+				cancelChecker.checkCanceled();
+			} catch (Exception e) {
+				abortedWith.complete(e);
+			}
+			return "not cancelled";
+		});
+		assertThat(analysisStarted.await(10, TimeUnit.SECONDS)).isTrue();
+		request.cancel(true);
+		requestCancelled.countDown();
+		
+		assertThat(abortedWith.get(10, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+	}
+	
+	@Test
+	public void testAnalysisIsSkippedWhenCancelledBeforeStarting() throws Exception {
+		CountDownLatch executorBusy = new CountDownLatch(1);
+		executor.execute(() -> {
+			try {
+				executorBusy.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		AtomicBoolean analysisRan = new AtomicBoolean();
+		CompletableFuture<Boolean> request = CancellableRequest.computeAsync(executor, cancelChecker -> analysisRan.getAndSet(true));
+		request.cancel(true);
+		executorBusy.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		
+		assertThat(analysisRan.get()).isFalse();
+	}
+	
+	@Test
+	public void testCompletionStopsLookingUpComponentModelsOnceCancelled() throws Exception {
+		CancelChecker cancelled = () -> {
+			throw new CancellationException();
+		};
+		CamelComponentSchemesCompletionsFuture completions = new CamelComponentSchemesCompletionsFuture(null, cancelled);
+		
+		assertThatThrownBy(() -> completions.apply(new DefaultCamelCatalog(true))).isInstanceOf(CancellationException.class);
+	}
+
+}
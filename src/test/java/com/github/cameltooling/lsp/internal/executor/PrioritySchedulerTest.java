@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PrioritySchedulerTest {
+	
+	private static final long NO_AGING = TimeUnit.HOURS.toMillis(1);
+	private PriorityScheduler scheduler;
+	private List<String> executed = new CopyOnWriteArrayList<>();
+	
+	@After
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testInteractiveTasksRunFirst() throws Exception {
+		scheduler = new PriorityScheduler(1, NO_AGING);
+		CountDownLatch workerBusy = occupyWorker();
+		scheduler.submit(Workload.BACKGROUND, null, null, record("validation"));
+		scheduler.submit(Workload.STRUCTURAL, null, null, record("symbols"));
+		scheduler.submit(Workload.INTERACTIVE, null, null, record("completion"));
+		workerBusy.countDown();
+		
+		waitForExecutedTasks(3);
+		assertThat(executed).containsExactly("completion", "symbols", "validation");
+	}
+	
+	@Test
+	public void testLongWaitingBackgroundTaskIsPromoted() throws Exception {
+		scheduler = new PriorityScheduler(1, 10);
+		CountDownLatch workerBusy = occupyWorker();
+		scheduler.submit(Workload.BACKGROUND, null, null, record("validation"));
+		Thread.sleep(100);
+		scheduler.submit(Workload.INTERACTIVE, null, null, record("completion"));
+		workerBusy.countDown();
+		
+		waitForExecutedTasks(2);
+		assertThat(executed).containsExactly("validation", "completion");
+	}
+	
+	@Test
+	public void testBackgroundTaskOnStaleVersionIsDropped() throws Exception {
+		scheduler = new PriorityScheduler(1, NO_AGING);
+		CountDownLatch workerBusy = occupyWorker();
+		scheduler.documentVersionChanged("file.xml", 1);
+		scheduler.submit(Workload.BACKGROUND, "file.xml", 1, record("validation of version 1"));
+		scheduler.submit(Workload.BACKGROUND, "other.xml", 1, record("validation of other file"));
+		scheduler.documentVersionChanged("file.xml", 2);
+		scheduler.submit(Workload.BACKGROUND, "file.xml", 2, record("validation of version 2"));
+		workerBusy.countDown();
+		
+		waitForExecutedTasks(2);
+		assertThat(executed).containsExactly("validation of other file", "validation of version 2");
+		assertThat(scheduler.getMetrics(Workload.BACKGROUND).getDroppedCount()).isEqualTo(1);
+	}
+
+	private CountDownLatch occupyWorker() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		scheduler.submit(Workload.INTERACTIVE, null, null, () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		return release;
+	}
+	
+	private Runnable record(String name) {
+		return () -> executed.add(name);
+	}
+
+	private void waitForExecutedTasks(int count) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (executed.size() < count && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(50);
+	}
+
+}
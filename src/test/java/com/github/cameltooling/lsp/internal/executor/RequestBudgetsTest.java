@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.metrics.RequestMetrics;
+
+public class RequestBudgetsTest {
+	
+	private static final String METHOD = "test";
+	private RequestMetrics requestMetrics = new RequestMetrics();
+	private RequestBudgets requestBudgets = new RequestBudgets(requestMetrics);
+	
+	@After
+	public void tearDown() {
+		requestBudgets.shutdown();
+		System.clearProperty(RequestBudgets.PROPERTY_PREFIX + METHOD);
+	}
+
+	@Test
+	public void testFallbackReturnedWhenBudgetExceeded() throws Exception {
+		System.setProperty(RequestBudgets.PROPERTY_PREFIX + METHOD, "50");
+		CompletableFuture<String> request = requestBudgets.withBudget(METHOD, new CompletableFuture<>(), () -> "partial");
+		
+		assertThat(request.get(10, TimeUnit.SECONDS)).isEqualTo("partial");
+		assertThat(requestMetrics.getBudgetExceededCount(METHOD)).isEqualTo(1);
+	}
+	
+	@Test
+	public void testResultReturnedWithinBudget() throws Exception {
+		System.setProperty(RequestBudgets.PROPERTY_PREFIX + METHOD, "50");
+		CompletableFuture<String> request = requestBudgets.withBudget(METHOD, new CompletableFuture<>(), () -> "partial");
+		request.complete("complete");
+		Thread.sleep(100);
+		
+		assertThat(request.get()).isEqualTo("complete");
+		assertThat(requestMetrics.getBudgetExceededCount(METHOD)).isZero();
+	}
+	
+	@Test
+	public void testAnalysisAbortedOnceBudgetExceeded() throws Exception {
+		System.setProperty(RequestBudgets.PROPERTY_PREFIX + METHOD, "50");
+		CompletableFuture<Boolean> aborted = new CompletableFuture<>();
+		CompletableFuture<String> analysis = CancellableRequest.computeAsync(command -> new Thread(command).start(), cancelChecker -> {
+			long timeout = System.currentTimeMillis() + 10000;
+			try {
+				while (System.currentTimeMillis() < timeout) {
+					cancelChecker.checkCanceled();
+					Thread.sleep(10);
+				}
+				aborted.complete(false);
+			} catch (CancellationException e) {
+				aborted.complete(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "complete";
+		});
+		CompletableFuture<String> request = requestBudgets.withBudget(METHOD, analysis, () -> "partial");
+		
+		assertThat(request.get(10, TimeUnit.SECONDS)).isEqualTo("partial");
+		assertThat(aborted.get(20, TimeUnit.SECONDS)).isTrue();
+	}
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class EndpointKeysTest {
+	
+	@Test
+	public void testOptionsAndSlashesAreIgnored() throws Exception {
+		assertThat(EndpointKeys.of("direct:processOrder")).isEqualTo("direct:processOrder");
+		assertThat(EndpointKeys.of("direct:processOrder?timeout=5")).isEqualTo("direct:processOrder");
+		assertThat(EndpointKeys.of("direct://processOrder")).isEqualTo("direct:processOrder");
+		assertThat(EndpointKeys.of("seda:orders?concurrentConsumers=5")).isEqualTo("seda:orders");
+		assertThat(EndpointKeys.of("vm:orders")).isEqualTo("vm:orders");
+		assertThat(EndpointKeys.of("direct-vm:orders")).isEqualTo("direct-vm:orders");
+	}
+	
+	@Test
+	public void testNameIsCaseSensitive() throws Exception {
+		assertThat(EndpointKeys.of("DIRECT:Orders")).isEqualTo("direct:Orders");
+	}
+	
+	@Test
+	public void testOtherEndpointsHaveNoKey() throws Exception {
+		assertThat(EndpointKeys.of("file:orders")).isNull();
+		assertThat(EndpointKeys.of("jms:queue:orders")).isNull();
+		assertThat(EndpointKeys.of("direct:")).isNull();
+		assertThat(EndpointKeys.of("direct:?block=false")).isNull();
+		assertThat(EndpointKeys.of("orders")).isNull();
+		assertThat(EndpointKeys.of(null)).isNull();
+	}
+
+}
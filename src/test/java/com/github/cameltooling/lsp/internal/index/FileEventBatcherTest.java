@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.junit.After;
+import org.junit.Test;
+
+public class FileEventBatcherTest {
+	
+	private final List<Map<String, FileChangeType>> flushed = Collections.synchronizedList(new ArrayList<>());
+	private FileEventBatcher batcher;
+	
+	@After
+	public void tearDown() {
+		if (batcher != null) {
+			batcher.stop();
+		}
+	}
+	
+	@Test
+	public void testCoalesce() throws Exception {
+		assertThat(FileEventBatcher.coalesce(FileChangeType.Created, FileChangeType.Changed)).isEqualTo(FileChangeType.Created);
+		assertThat(FileEventBatcher.coalesce(FileChangeType.Created, FileChangeType.Deleted)).isEqualTo(FileChangeType.Deleted);
+		assertThat(FileEventBatcher.coalesce(FileChangeType.Changed, FileChangeType.Deleted)).isEqualTo(FileChangeType.Deleted);
+		assertThat(FileEventBatcher.coalesce(FileChangeType.Deleted, FileChangeType.Created)).isEqualTo(FileChangeType.Changed);
+		assertThat(FileEventBatcher.coalesce(FileChangeType.Changed, FileChangeType.Changed)).isEqualTo(FileChangeType.Changed);
+	}
+	
+	@Test
+	public void testBurstIsFlushedOnceAsASingleChangeSet() throws Exception {
+		batcher = new FileEventBatcher(50, flushed::add);
+		batcher.submit(Arrays.asList(event("a.xml", FileChangeType.Created), event("b.xml", FileChangeType.Changed), event("a.xml", FileChangeType.Changed)));
+		batcher.submit(Arrays.asList(event("b.xml", FileChangeType.Deleted), event("c.xml", FileChangeType.Deleted), event("c.xml", FileChangeType.Created)));
+		
+		waitForFlushes(1);
+		Thread.sleep(200);
+		
+		assertThat(flushed).hasSize(1);
+		assertThat(flushed.get(0)).containsExactly(
+				entry("a.xml", FileChangeType.Created),
+				entry("b.xml", FileChangeType.Deleted),
+				entry("c.xml", FileChangeType.Changed));
+		assertThat(batcher.getPendingCount()).isZero();
+	}
+	
+	@Test
+	public void testContinuousEventsAreFlushedAfterMaximumDelay() throws Exception {
+		batcher = new FileEventBatcher(20, flushed::add);
+		long end = System.currentTimeMillis() + 1000;
+		int i = 0;
+		while (System.currentTimeMillis() < end && flushed.isEmpty()) {
+			batcher.submit(Collections.singletonList(event("file" + i++ + ".xml", FileChangeType.Changed)));
+			Thread.sleep(5);
+		}
+		assertThat(flushed).isNotEmpty();
+	}
+	
+	@Test
+	public void testExplicitFlush() throws Exception {
+		batcher = new FileEventBatcher(60000, flushed::add);
+		batcher.submit(Collections.singletonList(event("a.xml", FileChangeType.Deleted)));
+		batcher.flush();
+		assertThat(flushed).hasSize(1);
+		batcher.flush();
+		assertThat(flushed).hasSize(1);
+	}
+
+	private void waitForFlushes(int count) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (flushed.size() < count && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+	}
+	
+	private static FileEvent event(String uri, FileChangeType type) {
+		return new FileEvent(uri, type);
+	}
+
+}
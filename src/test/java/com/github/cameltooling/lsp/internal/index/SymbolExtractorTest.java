@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Test;
+
+public class SymbolExtractorTest {
+	
+	@Test
+	public void testXmlRouteIdsAndEndpoints() throws Exception {
+		String uri = "file:///workspace/routes.xml";
+		String text =
+				"<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n" +
+				"  <route id=\"orders\">\n" +
+				"    <from uri=\"direct:orders\"/>\n" +
+				"    <to uri=\"log:orders\"/>\n" +
+				"  </route>\n" +
+				"</camelContext>\n";
+		
+		List<IndexedSymbol> symbols = new SymbolExtractor().extract(uri, text);
+		
+		assertThat(symbols).extracting(IndexedSymbol::getName).containsExactly("orders", "direct:orders", "log:orders");
+		assertThat(symbols).extracting(IndexedSymbol::getKind).containsExactly(IndexedSymbol.Kind.ROUTE, IndexedSymbol.Kind.CONSUMER, IndexedSymbol.Kind.PRODUCER);
+		assertThat(symbols).extracting(IndexedSymbol::getUri).containsOnly(uri);
+		assertThat(symbols.get(0).getRange()).isEqualTo(new Range(new Position(1, 13), new Position(1, 19)));
+		assertThat(symbols.get(1).getRange()).isEqualTo(new Range(new Position(2, 15), new Position(2, 28)));
+	}
+	
+	@Test
+	public void testJavaRouteIdsAndEndpoints() throws Exception {
+		String uri = "file:///workspace/MyRouteBuilder.java";
+		String text =
+				"import org.apache.camel.builder.RouteBuilder;\n" +
+				"public class MyRouteBuilder extends RouteBuilder {\n" +
+				"  public void configure() {\n" +
+				"    from(\"timer:tick\").routeId(\"ticker\")\n" +
+				"      .to(\"direct:ticks\");\n" +
+				"  }\n" +
+				"}\n";
+		
+		List<IndexedSymbol> symbols = new SymbolExtractor().extract(uri, text);
+		
+		assertThat(symbols).extracting(IndexedSymbol::getName).containsExactly("ticker", "timer:tick", "direct:ticks");
+		assertThat(symbols.get(0).getRange()).isEqualTo(new Range(new Position(3, 32), new Position(3, 38)));
+		assertThat(symbols.get(2).getRange()).isEqualTo(new Range(new Position(4, 11), new Position(4, 23)));
+	}
+	
+	@Test
+	public void testNonCamelFileIsSkipped() throws Exception {
+		assertThat(new SymbolExtractor().extract("file:///workspace/pom.xml", "<project><id>not a route</id></project>")).isEmpty();
+	}
+
+}
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SymbolIndexStoreTest {
+	
+	private static final String FILE_A = "file:///workspace/a.xml";
+	private static final String FILE_B = "file:///workspace/B.java";
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void testPersistedFilesAreLoadedAfterRestart() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		assertThat(store.load(directory)).isEmpty();
+		store.put(FILE_A, 42L, "hashA", Arrays.asList(
+				new IndexedSymbol("orders", IndexedSymbol.Kind.ROUTE, FILE_A, range(1, 13, 1, 19)),
+				new IndexedSymbol("direct:orders", IndexedSymbol.Kind.CONSUMER, FILE_A, range(2, 15, 2, 28))));
+		store.put(FILE_B, 43L, "hashB", Collections.emptyList());
+		store.persist();
+		
+		Map<String, SymbolIndexStore.StoredFile> loaded = new SymbolIndexStore("1.0").load(directory);
+		
+		assertThat(loaded).containsOnlyKeys(FILE_A, FILE_B);
+		SymbolIndexStore.StoredFile fileA = loaded.get(FILE_A);
+		assertThat(fileA.getModificationTime()).isEqualTo(42L);
+		assertThat(fileA.getContentHash()).isEqualTo("hashA");
+		List<IndexedSymbol> symbols = fileA.getSymbols();
+		assertThat(symbols).extracting(IndexedSymbol::getName).containsExactly("orders", "direct:orders");
+		assertThat(symbols).extracting(IndexedSymbol::getKind).containsExactly(IndexedSymbol.Kind.ROUTE, IndexedSymbol.Kind.CONSUMER);
+		assertThat(symbols).extracting(IndexedSymbol::getUri).containsOnly(FILE_A);
+		assertThat(symbols.get(1).getRange()).isEqualTo(range(2, 15, 2, 28));
+		assertThat(loaded.get(FILE_B).getSymbols()).isEmpty();
+	}
+	
+	@Test
+	public void testRemovedFileIsNotPersisted() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		store.load(directory);
+		store.put(FILE_A, 42L, "hashA", Collections.emptyList());
+		store.persist();
+		store.remove(FILE_A);
+		store.persist();
+		
+		assertThat(new SymbolIndexStore("1.0").load(directory)).isEmpty();
+		try (Stream<Path> segments = Files.list(directory)) {
+			assertThat(segments).isEmpty();
+		}
+	}
+	
+	@Test
+	public void testSegmentsOfAnotherVersionAreIgnored() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		store.load(directory);
+		store.put(FILE_A, 42L, "hashA", Collections.emptyList());
+		store.persist();
+		
+		assertThat(new SymbolIndexStore("2.0").load(directory)).isEmpty();
+	}
+	
+	@Test
+	public void testCorruptedSegmentIsIgnored() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		store.load(directory);
+		store.put(FILE_A, 42L, "hashA", Collections.emptyList());
+		store.persist();
+		Path segment = listSegments(directory).get(0);
+		byte[] content = Files.readAllBytes(segment);
+		Files.write(segment, Arrays.copyOf(content, content.length - 4));
+		
+		SymbolIndexStore restartedStore = new SymbolIndexStore("1.0");
+		assertThat(restartedStore.load(directory)).isEmpty();
+		// the segment is rewritten on next persist
+		restartedStore.persist();
+		assertThat(Files.exists(segment)).isFalse();
+	}
+	
+	@Test
+	public void testSegmentRewrittenInSessionReplacesPreviousOne() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		store.load(directory);
+		store.put(FILE_A, 42L, "hashA", Collections.emptyList());
+		store.persist();
+		Path firstSegment = listSegments(directory).get(0);
+		
+		SymbolIndexStore restartedStore = new SymbolIndexStore("1.0");
+		restartedStore.load(directory);
+		restartedStore.put(FILE_A, 43L, "newHashA", Collections.emptyList());
+		restartedStore.persist();
+		
+		List<Path> segments = listSegments(directory);
+		assertThat(segments).hasSize(1).doesNotContain(firstSegment);
+		assertThat(new SymbolIndexStore("1.0").load(directory).get(FILE_A).getContentHash()).isEqualTo("newHashA");
+	}
+	
+	@Test
+	public void testLatestGenerationOfSegmentIsRead() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("symbols");
+		SymbolIndexStore store = new SymbolIndexStore("1.0");
+		store.load(directory);
+		store.put(FILE_A, 42L, "hashA", Collections.emptyList());
+		store.persist();
+		Path firstSegment = listSegments(directory).get(0);
+		byte[] firstContent = Files.readAllBytes(firstSegment);
+		store.put(FILE_A, 43L, "newHashA", Collections.emptyList());
+		store.persist();
+		// as left behind by a session which could not delete the segment it had mapped
+		Files.write(firstSegment, firstContent);
+		
+		assertThat(new SymbolIndexStore("1.0").load(directory).get(FILE_A).getContentHash()).isEqualTo("newHashA");
+		assertThat(Files.exists(firstSegment)).isFalse();
+	}
+	
+	private static List<Path> listSegments(Path directory) throws IOException {
+		try (Stream<Path> segments = Files.list(directory)) {
+			return segments.collect(Collectors.toList());
+		}
+	}
+	
+	private static Range range(int startLine, int startCharacter, int endLine, int endCharacter) {
+		return new Range(new Position(startLine, startCharacter), new Position(endLine, endCharacter));
+	}
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+
+public class WorkspaceIndexerTest extends AbstractCamelLanguageServerTest {
+	
+	private static final String ROUTE_TEMPLATE = "<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n"
+			+ "  <route id=\"%s\">\n"
+			+ "    <from uri=\"direct:%s\"/>\n"
+			+ "  </route>\n"
+			+ "</camelContext>\n";
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Rule
+	public TemporaryFolder cacheFolder = new TemporaryFolder();
+	
+	@Before
+	public void setUp() {
+		System.setProperty(WorkspaceCacheDirectory.CACHE_DIRECTORY_PROPERTY, cacheFolder.getRoot().getAbsolutePath());
+	}
+	
+	@After
+	public void tearDown() {
+		System.clearProperty(WorkspaceCacheDirectory.CACHE_DIRECTORY_PROPERTY);
+	}
+	
+	@Test
+	public void testNotOpenedFilesAreIndexed() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		camelLanguageServer.initialized(new InitializedParams());
+		
+		List<? extends SymbolInformation> symbols = waitForSymbols(camelLanguageServer, "cbr", result -> !result.isEmpty());
+		
+		assertThat(symbols).extracting(SymbolInformation::getName).contains("cbr-route");
+		SymbolInformation route = symbols.stream().filter(symbol -> symbol.getName().equals("cbr-route")).findAny().get();
+		assertThat(route.getKind()).isEqualTo(SymbolKind.Field);
+		assertThat(route.getLocation().getUri()).endsWith("cbr-blueprint.xml");
+		assertThat(route.getContainerName()).isEqualTo("cbr-blueprint.xml");
+		assertThat(waitForSymbols(camelLanguageServer, "file:work/cbr/output", result -> result.size() == 3)).hasSize(3);
+		camelLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testIndexIsLoadedFromCacheAfterRestart() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		camelLanguageServer.initialized(new InitializedParams());
+		waitForSymbols(camelLanguageServer, "cbr-route", result -> !result.isEmpty());
+		camelLanguageServer.shutdown();
+		Path segments = new WorkspaceCacheDirectory(getTestResource("/workspace/").toURI().toString()).resolve("symbols");
+		try (Stream<Path> segmentFiles = Files.list(segments)) {
+			assertThat(segmentFiles).isNotEmpty();
+		}
+		
+		CamelLanguageServer restartedLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		restartedLanguageServer.initialized(new InitializedParams());
+		
+		List<? extends SymbolInformation> symbols = waitForSymbols(restartedLanguageServer, "cbr-route", result -> !result.isEmpty());
+		assertThat(symbols).extracting(SymbolInformation::getName).containsExactly("cbr-route");
+		restartedLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testOpenedDocumentIsIndexedOnEdit() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(String.format(ROUTE_TEMPLATE, "firstName", "firstName"));
+		
+		assertThat(waitForSymbols(camelLanguageServer, "firstName", result -> result.size() == 2)).hasSize(2);
+		
+		DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri(DUMMY_URI + ".xml");
+		textDocument.setVersion(1);
+		params.setTextDocument(textDocument);
+		params.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent(String.format(ROUTE_TEMPLATE, "secondName", "secondName"))));
+		camelLanguageServer.getTextDocumentService().didChange(params);
+		
+		assertThat(waitForSymbols(camelLanguageServer, "secondName", result -> result.size() == 2)).hasSize(2);
+		assertThat(camelLanguageServer.getWorkspaceService().symbol(new WorkspaceSymbolParams("firstName")).get()).isEmpty();
+		camelLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testWatchedFilesAreIndexed() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		File file = folder.newFile("watched.xml");
+		Files.write(file.toPath(), String.format(ROUTE_TEMPLATE, "watchedRoute", "watched").getBytes(StandardCharsets.UTF_8));
+		String uri = file.toPath().toUri().toString();
+		
+		camelLanguageServer.getWorkspaceService().didChangeWatchedFiles(new DidChangeWatchedFilesParams(Collections.singletonList(new FileEvent(uri, FileChangeType.Created))));
+		assertThat(waitForSymbols(camelLanguageServer, "watched", result -> result.size() == 2)).hasSize(2);
+		
+		Files.delete(file.toPath());
+		camelLanguageServer.getWorkspaceService().didChangeWatchedFiles(new DidChangeWatchedFilesParams(Collections.singletonList(new FileEvent(uri, FileChangeType.Deleted))));
+		assertThat(waitForSymbols(camelLanguageServer, "watched", List::isEmpty)).isEmpty();
+		camelLanguageServer.shutdown();
+	}
+
+	@Test
+	public void testBranchSwitchReindexesOnlyChangedFiles() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		WorkspaceSymbolIndex index = camelLanguageServer.getWorkspaceSymbolIndex();
+		File unchanged = writeRoute("unchanged.xml", "unchangedRoute");
+		File modified = writeRoute("modified.xml", "beforeSwitch");
+		notifyAndFlush(camelLanguageServer, new FileEvent(uri(unchanged), FileChangeType.Created), new FileEvent(uri(modified), FileChangeType.Created));
+		List<IndexedSymbol> unchangedSymbols = index.getSymbols(uri(unchanged));
+		assertThat(unchangedSymbols).hasSize(2);
+		
+		// a checkout rewrites both files, only one of them differs
+		writeRoute("unchanged.xml", "unchangedRoute");
+		writeRoute("modified.xml", "afterSwitch");
+		notifyAndFlush(camelLanguageServer,
+				new FileEvent(uri(unchanged), FileChangeType.Deleted), new FileEvent(uri(unchanged), FileChangeType.Created),
+				new FileEvent(uri(modified), FileChangeType.Changed), new FileEvent(uri(modified), FileChangeType.Changed));
+		
+		assertThat(index.getSymbols(uri(modified))).extracting(IndexedSymbol::getName).containsExactly("afterSwitch", "direct:afterSwitch");
+		assertThat(index.search("beforeSwitch", 10)).isEmpty();
+		assertThat(index.getSymbols(uri(unchanged))).isSameAs(unchangedSymbols);
+		camelLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testDeletedFolderRemovesItsFiles() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		WorkspaceSymbolIndex index = camelLanguageServer.getWorkspaceSymbolIndex();
+		File subFolder = folder.newFolder("module");
+		File first = writeRoute("module/first.xml", "firstInModule");
+		File second = writeRoute("module/second.xml", "secondInModule");
+		File outside = writeRoute("outside.xml", "outsideModule");
+		notifyAndFlush(camelLanguageServer, new FileEvent(uri(subFolder), FileChangeType.Created), new FileEvent(uri(outside), FileChangeType.Created));
+		assertThat(index.search("module", 10)).hasSize(6);
+		
+		Files.delete(first.toPath());
+		Files.delete(second.toPath());
+		Files.delete(subFolder.toPath());
+		notifyAndFlush(camelLanguageServer, new FileEvent(uri(subFolder).replaceAll("/$", ""), FileChangeType.Deleted));
+		
+		assertThat(index.search("module", 10)).extracting(IndexedSymbol::getName).containsExactly("direct:outsideModule", "outsideModule");
+		camelLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testChangeDiscardedByCloseIsNotIndexed() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		File file = writeRoute("closed.xml", "savedRoute");
+		String diskText = String.format(ROUTE_TEMPLATE, "savedRoute", "savedRoute");
+		camelLanguageServer.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri(file), CamelLanguageServer.LANGUAGE_ID, 0, diskText)));
+		
+		DidChangeTextDocumentParams params = new DidChangeTextDocumentParams();
+		VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+		textDocument.setUri(uri(file));
+		textDocument.setVersion(1);
+		params.setTextDocument(textDocument);
+		params.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent(String.format(ROUTE_TEMPLATE, "discardedRoute", "discardedRoute"))));
+		camelLanguageServer.getTextDocumentService().didChange(params);
+		camelLanguageServer.getTextDocumentService().didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(uri(file))));
+		camelLanguageServer.getWorkspaceIndexer().flushFileEvents();
+		
+		assertThat(waitForSymbols(camelLanguageServer, "savedRoute", result -> result.size() == 2)).hasSize(2);
+		// leaves time to a change task queued before the close
+		Thread.sleep(500);
+		assertThat(camelLanguageServer.getWorkspaceService().symbol(new WorkspaceSymbolParams("discardedRoute")).get()).isEmpty();
+		
+		TextDocumentItem reopened = new TextDocumentItem(uri(file), CamelLanguageServer.LANGUAGE_ID, 1, diskText);
+		camelLanguageServer.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(reopened));
+		assertThat(camelLanguageServer.getWorkspaceIndexer().getDocumentSymbols(uri(file), reopened)).extracting(IndexedSymbol::getName).containsExactly("savedRoute", "direct:savedRoute");
+		camelLanguageServer.shutdown();
+	}
+	
+	private File writeRoute(String fileName, String routeId) throws Exception {
+		File file = new File(folder.getRoot(), fileName);
+		Files.write(file.toPath(), String.format(ROUTE_TEMPLATE, routeId, routeId).getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	private String uri(File file) {
+		return file.toPath().toUri().toString();
+	}
+	
+	private void notifyAndFlush(CamelLanguageServer camelLanguageServer, FileEvent... events) {
+		camelLanguageServer.getWorkspaceService().didChangeWatchedFiles(new DidChangeWatchedFilesParams(Arrays.asList(events)));
+		camelLanguageServer.getWorkspaceIndexer().flushFileEvents();
+	}
+
+	private List<? extends SymbolInformation> waitForSymbols(CamelLanguageServer camelLanguageServer, String query, Predicate<List<? extends SymbolInformation>> expected) throws Exception {
+		long timeout = System.currentTimeMillis() + 30000;
+		List<? extends SymbolInformation> symbols = camelLanguageServer.getWorkspaceService().symbol(new WorkspaceSymbolParams(query)).get();
+		while (!expected.test(symbols) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+			symbols = camelLanguageServer.getWorkspaceService().symbol(new WorkspaceSymbolParams(query)).get();
+		}
+		return symbols;
+	}
+
+}
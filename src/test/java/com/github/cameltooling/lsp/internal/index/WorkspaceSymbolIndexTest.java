@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Test;
+
+public class WorkspaceSymbolIndexTest {
+	
+	private static final String FILE_A = "file:///workspace/a.xml";
+	private static final String FILE_B = "file:///workspace/b.java";
+	
+	private final WorkspaceSymbolIndex index = new WorkspaceSymbolIndex();
+	
+	@Test
+	public void testNamesAreSplitOnSeparatorsAndCamelCase() throws Exception {
+		assertThat(WorkspaceSymbolIndex.tokenize("direct:processOrder?timeout=5")).containsOnly("direct", "processorder", "process", "order", "timeout", "5");
+	}
+	
+	@Test
+	public void testSearchByPrefixOfAnyToken() throws Exception {
+		index.update(FILE_A, Arrays.asList(route("processOrder", FILE_A), endpoint("direct:processOrder", FILE_A)));
+		index.update(FILE_B, Arrays.asList(route("cancelOrder", FILE_B), endpoint("jms:queue:orders", FILE_B)));
+		
+		assertThat(names(index.search("order", 10))).containsExactly("cancelOrder", "direct:processOrder", "jms:queue:orders", "processOrder");
+		assertThat(names(index.search("PROC", 10))).containsExactly("processOrder", "direct:processOrder");
+		assertThat(names(index.search("direct:proc", 10))).containsExactly("direct:processOrder");
+		assertThat(names(index.search("direct:cancel", 10))).isEmpty();
+		assertThat(names(index.search("", 10))).hasSize(4);
+		assertThat(index.search("order", 2)).hasSize(2);
+	}
+	
+	@Test
+	public void testSameNameInSeveralFiles() throws Exception {
+		index.update(FILE_A, Collections.singletonList(endpoint("direct:shared", FILE_A)));
+		index.update(FILE_B, Collections.singletonList(endpoint("direct:shared", FILE_B)));
+		
+		assertThat(index.search("shared", 10)).extracting(IndexedSymbol::getUri).containsExactly(FILE_A, FILE_B);
+		
+		index.remove(FILE_A);
+		assertThat(index.search("shared", 10)).extracting(IndexedSymbol::getUri).containsExactly(FILE_B);
+	}
+	
+	@Test
+	public void testUpdateReplacesSymbolsOfFile() throws Exception {
+		index.update(FILE_A, Arrays.asList(route("oldRoute", FILE_A), endpoint("direct:old", FILE_A)));
+		index.update(FILE_A, Collections.singletonList(route("newRoute", FILE_A)));
+		
+		assertThat(index.search("old", 10)).isEmpty();
+		assertThat(names(index.search("route", 10))).containsExactly("newRoute");
+		assertThat(index.getEntryCount()).isEqualTo(1);
+		assertThat(index.getFileCount()).isEqualTo(1);
+		
+		index.remove(FILE_A);
+		assertThat(index.search("", 10)).isEmpty();
+		assertThat(index.getFileCount()).isZero();
+	}
+	
+	@Test
+	public void testEndpointOccurrencesAcrossFiles() throws Exception {
+		IndexedSymbol consumer = new IndexedSymbol("direct:processOrder", IndexedSymbol.Kind.CONSUMER, FILE_A, new Range(new Position(2, 10), new Position(2, 29)));
+		IndexedSymbol producer = new IndexedSymbol("direct:processOrder?timeout=5", IndexedSymbol.Kind.PRODUCER, FILE_B, new Range(new Position(7, 8), new Position(7, 37)));
+		index.update(FILE_A, Arrays.asList(route("processOrder", FILE_A), consumer, endpoint("log:orders", FILE_A)));
+		index.update(FILE_B, Collections.singletonList(producer));
+		
+		assertThat(index.getEndpointOccurrences("direct:processOrder")).containsExactly(consumer, producer);
+		assertThat(index.getEndpointOccurrences("direct:other")).isEmpty();
+		assertThat(index.getEndpointConsumers("direct:processOrder", null, Collections.emptyList())).containsExactly(consumer);
+		assertThat(IndexedSymbol.findAt(index.getSymbols(FILE_B), new Position(7, 20))).isSameAs(producer);
+		assertThat(IndexedSymbol.findAt(index.getSymbols(FILE_B), new Position(7, 37))).isSameAs(producer);
+		assertThat(IndexedSymbol.findAt(index.getSymbols(FILE_B), new Position(7, 38))).isNull();
+		assertThat(IndexedSymbol.findAt(index.getSymbols(FILE_B), new Position(8, 20))).isNull();
+		
+		index.remove(FILE_B);
+		assertThat(index.getEndpointOccurrences("direct:processOrder")).containsExactly(consumer);
+	}
+	
+	@Test
+	public void testDocumentSymbolsOverlayIndexedOnes() throws Exception {
+		IndexedSymbol consumer = new IndexedSymbol("direct:processOrder", IndexedSymbol.Kind.CONSUMER, FILE_A, new Range(new Position(2, 10), new Position(2, 29)));
+		IndexedSymbol producer = new IndexedSymbol("direct:processOrder", IndexedSymbol.Kind.PRODUCER, FILE_B, new Range(new Position(7, 8), new Position(7, 27)));
+		index.update(FILE_A, Collections.singletonList(consumer));
+		index.update(FILE_B, Collections.singletonList(producer));
+		IndexedSymbol editedConsumer = new IndexedSymbol("direct:processOrder", IndexedSymbol.Kind.CONSUMER, FILE_B, new Range(new Position(9, 10), new Position(9, 29)));
+		List<IndexedSymbol> editedSymbols = Arrays.asList(producer, editedConsumer);
+		
+		assertThat(index.getEndpointConsumers("direct:processOrder", FILE_B, editedSymbols)).containsExactly(consumer, editedConsumer);
+		assertThat(index.getEndpointOccurrences("direct:processOrder", FILE_B, editedSymbols)).containsExactly(consumer, producer, editedConsumer);
+		assertThat(index.getEndpointConsumers("direct:processOrder", FILE_A, Collections.emptyList())).isEmpty();
+		assertThat(index.getEndpointConsumers("direct:processOrder", null, Collections.emptyList())).containsExactly(consumer);
+	}
+	
+	@Test
+	public void testMemoryIsAccounted() throws Exception {
+		assertThat(index.getEstimatedBytes()).isZero();
+		index.update(FILE_A, Collections.singletonList(route("aRoute", FILE_A)));
+		assertThat(index.getEstimatedBytes()).isPositive();
+		index.remove(FILE_A);
+		assertThat(index.getEstimatedBytes()).isZero();
+	}
+
+	private static IndexedSymbol route(String name, String uri) {
+		return new IndexedSymbol(name, IndexedSymbol.Kind.ROUTE, uri, new Range(new Position(0, 0), new Position(0, name.length())));
+	}
+	
+	private static IndexedSymbol endpoint(String name, String uri) {
+		return new IndexedSymbol(name, IndexedSymbol.Kind.ENDPOINT, uri, new Range(new Position(1, 0), new Position(1, name.length())));
+	}
+	
+	private static List<String> names(List<IndexedSymbol> symbols) {
+		return symbols.stream().map(IndexedSymbol::getName).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.liveness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ParentProcessMonitorTest {
+	
+	private static final long NOT_RUNNING_PID = 999999999L;
+	private ParentProcessMonitor monitor;
+	
+	@After
+	public void tearDown() {
+		monitor.stop();
+	}
+
+	@Test
+	public void testExitOfParentProcessIsNotified() throws Exception {
+		monitor = new ParentProcessMonitor();
+		CountDownLatch parentExited = new CountDownLatch(1);
+		assertThat(monitor.start(NOT_RUNNING_PID, parentExited::countDown)).isNotNull();
+		
+		assertThat(parentExited.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+	
+	@Test
+	public void testRunningParentProcessIsNotReportedAsExited() throws Exception {
+		monitor = new ParentProcessMonitor(Arrays.asList(new ProcFileSystemStrategy(10), new CommandLivenessStrategy(10)));
+		CountDownLatch parentExited = new CountDownLatch(1);
+		monitor.start(currentProcessId(), parentExited::countDown);
+		
+		assertThat(parentExited.await(500, TimeUnit.MILLISECONDS)).isFalse();
+	}
+	
+	@Test
+	public void testFallbackToNextStrategyWhenWatchingFails() throws Exception {
+		ProcessLivenessStrategy failing = new FailingStrategy();
+		ProcessLivenessStrategy fallback = new CommandLivenessStrategy(10);
+		monitor = new ParentProcessMonitor(Arrays.asList(failing, fallback));
+		CountDownLatch parentExited = new CountDownLatch(1);
+		
+		assertThat(monitor.start(NOT_RUNNING_PID, parentExited::countDown)).isEqualTo(fallback.getName());
+		assertThat(parentExited.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private long currentProcessId() {
+		return Long.parseLong(ManagementFactory.getRuntimeMXBean().getName().split("@")[0]);
+	}
+	
+	private static final class FailingStrategy implements ProcessLivenessStrategy {
+
+		@Override
+		public String getName() {
+			return "failing";
+		}
+
+		@Override
+		public boolean isAvailable() {
+			return true;
+		}
+
+		@Override
+		public CompletableFuture<Void> onExit(long pid) {
+			CompletableFuture<Void> failure = new CompletableFuture<>();
+			failure.completeExceptionally(new IllegalStateException("cannot watch"));
+			return failure;
+		}
+
+		@Override
+		public void stop() {
+			// nothing to release
+		}
+	}
+
+}
@@ -0,0 +1,424 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.load;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.TextDocumentService;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.catalog.CachingCamelCatalog;
+import com.github.cameltooling.lsp.internal.corpus.RouteCorpusGenerator;
+import com.github.cameltooling.lsp.internal.corpus.RouteCorpusGenerator.Flavor;
+import com.github.cameltooling.lsp.internal.corpus.RouteCorpusGenerator.GeneratedFile;
+import com.github.cameltooling.lsp.internal.metrics.LatencyHistogram;
+import com.github.cameltooling.lsp.internal.trace.RequestSpan;
+
+/**
+ * Opens many generated documents in one {@link CamelLanguageServer} and sends interleaved completion, hover,
+ * document symbols, change and save traffic from several client threads for a given duration.
+ * It measures the throughput, the latency of each operation and the heap usage over time,
+ * and collects every failure, including the failed background validations still in the trace ring.
+ * 
+ * Usage: LoadTestDriver [--documents 200] [--threads 4] [--seconds 30] [--seed 1]
+ */
+public class LoadTestDriver {
+	
+	private static final Pattern ENDPOINT_URI_START = Pattern.compile("uri=\"|from\\(\"|to\\(\"");
+	private static final long REQUEST_TIMEOUT_SECONDS = 60;
+	
+	public enum Operation {
+		COMPLETION(4), HOVER(2), DOCUMENT_SYMBOL(1), CHANGE(4), SAVE(1);
+		
+		private final int weight;
+		
+		Operation(int weight) {
+			this.weight = weight;
+		}
+	}
+	
+	private int documentCount = 200;
+	private int clientThreads = 4;
+	private long durationMillis = TimeUnit.SECONDS.toMillis(30);
+	private long heapSampleIntervalMillis = 1000;
+	private long seed = 1;
+	
+	public LoadTestDriver withDocuments(int documentCount) {
+		this.documentCount = documentCount;
+		return this;
+	}
+	
+	public LoadTestDriver withClientThreads(int clientThreads) {
+		this.clientThreads = clientThreads;
+		return this;
+	}
+	
+	public LoadTestDriver withDuration(long duration, TimeUnit unit) {
+		this.durationMillis = unit.toMillis(duration);
+		return this;
+	}
+	
+	public LoadTestDriver withHeapSampleInterval(long interval, TimeUnit unit) {
+		this.heapSampleIntervalMillis = unit.toMillis(interval);
+		return this;
+	}
+	
+	public LoadTestDriver withSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+	
+	public static void main(String[] args) throws Exception {
+		LoadTestDriver driver = new LoadTestDriver();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			int value = Integer.parseInt(args[i + 1]);
+			if ("--documents".equals(args[i])) {
+				driver.withDocuments(value);
+			} else if ("--threads".equals(args[i])) {
+				driver.withClientThreads(value);
+			} else if ("--seconds".equals(args[i])) {
+				driver.withDuration(value, TimeUnit.SECONDS);
+			} else if ("--seed".equals(args[i])) {
+				driver.withSeed(value);
+			}
+		}
+		LoadTestResult result = driver.run();
+		result.report(System.out);
+		System.exit(result.getFailures().isEmpty() ? 0 : 1);
+	}
+	
+	public LoadTestResult run() throws Exception {
+		CountingLanguageClient client = new CountingLanguageClient();
+		CamelLanguageServer server = new CamelLanguageServer();
+		server.setExitHandler(() -> {});
+		server.connect(client);
+		ExecutorService clients = Executors.newFixedThreadPool(clientThreads);
+		ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			server.initialize(new InitializeParams()).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			server.initialized(new InitializedParams());
+			server.getTextDocumentService().getCatalogLoader().getFullyLoaded().get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			List<LoadedDocument> documents = openDocuments(server);
+			
+			LoadTestResult result = new LoadTestResult(documents.size(), clientThreads);
+			MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+			memory.gc();
+			result.retainedHeapBefore = memory.getHeapMemoryUsage().getUsed();
+			long start = System.nanoTime();
+			heapSampler.scheduleAtFixedRate(() -> result.heapSamples.add(new HeapSample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), memory.getHeapMemoryUsage().getUsed())),
+					0, heapSampleIntervalMillis, TimeUnit.MILLISECONDS);
+			long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+			List<Future<?>> workers = new ArrayList<>();
+			for (int thread = 0; thread < clientThreads; thread++) {
+				Random random = new Random(seed + thread);
+				workers.add(clients.submit(() -> sendTraffic(server.getTextDocumentService(), documents, random, deadline, result)));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+			result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			heapSampler.shutdown();
+			heapSampler.awaitTermination(heapSampleIntervalMillis, TimeUnit.MILLISECONDS);
+			memory.gc();
+			result.retainedHeapAfter = memory.getHeapMemoryUsage().getUsed();
+			result.publishedDiagnostics = client.publishedDiagnostics.get();
+			for (RequestSpan span : server.getRequestTracer().getSpans()) {
+				if (RequestSpan.FAILED.equals(span.getOutcome())) {
+					result.failures.add(span.getMethod() + " failed in background: " + span);
+				}
+			}
+			return result;
+		} finally {
+			clients.shutdownNow();
+			heapSampler.shutdownNow();
+			server.shutdown();
+		}
+	}
+
+	private List<LoadedDocument> openDocuments(CamelLanguageServer server) {
+		CamelCatalog camelCatalog = new CachingCamelCatalog();
+		RouteCorpusGenerator generator = new RouteCorpusGenerator(camelCatalog, seed).withErrorRatio(0.1);
+		List<LoadedDocument> documents = new ArrayList<>();
+		for (int index = 0; index < documentCount; index++) {
+			GeneratedFile file = generator.generate(Flavor.values()[index % Flavor.values().length]);
+			LoadedDocument document = new LoadedDocument("file:///load/" + file.getPath(), file.getText());
+			server.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(document.uri, CamelLanguageServer.LANGUAGE_ID, 1, document.text)));
+			documents.add(document);
+		}
+		return documents;
+	}
+
+	private void sendTraffic(TextDocumentService textDocumentService, List<LoadedDocument> documents, Random random, long deadline, LoadTestResult result) {
+		while (System.nanoTime() < deadline) {
+			LoadedDocument document = documents.get(random.nextInt(documents.size()));
+			Operation operation = pickOperation(random);
+			long start = System.nanoTime();
+			try {
+				send(textDocumentService, document, operation, random);
+				result.latencies.get(operation).record(System.nanoTime() - start);
+			} catch (ExecutionException e) {
+				result.failures.add(operation + " on " + document.uri + ": " + e.getCause());
+			} catch (TimeoutException e) {
+				result.failures.add(operation + " on " + document.uri + ": no response after " + REQUEST_TIMEOUT_SECONDS + " seconds");
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				result.failures.add(operation + " on " + document.uri + ": " + e);
+			}
+		}
+	}
+
+	private Operation pickOperation(Random random) {
+		int totalWeight = 0;
+		for (Operation operation : Operation.values()) {
+			totalWeight += operation.weight;
+		}
+		int pick = random.nextInt(totalWeight);
+		for (Operation operation : Operation.values()) {
+			pick -= operation.weight;
+			if (pick < 0) {
+				return operation;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private void send(TextDocumentService textDocumentService, LoadedDocument document, Operation operation, Random random)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		TextDocumentIdentifier identifier = new TextDocumentIdentifier(document.uri);
+		switch (operation) {
+		case COMPLETION:
+			await(textDocumentService.completion(new CompletionParams(identifier, document.randomEndpointPosition(random))));
+			break;
+		case HOVER:
+			await(textDocumentService.hover(new TextDocumentPositionParams(identifier, document.randomEndpointPosition(random))));
+			break;
+		case DOCUMENT_SYMBOL:
+			await(textDocumentService.documentSymbol(new DocumentSymbolParams(identifier)));
+			break;
+		case CHANGE:
+			VersionedTextDocumentIdentifier versionedIdentifier = new VersionedTextDocumentIdentifier();
+			versionedIdentifier.setUri(document.uri);
+			versionedIdentifier.setVersion(document.version.incrementAndGet());
+			DidChangeTextDocumentParams changeEvent = new DidChangeTextDocumentParams();
+			changeEvent.setTextDocument(versionedIdentifier);
+			changeEvent.setContentChanges(Collections.singletonList(new TextDocumentContentChangeEvent(document.text)));
+			textDocumentService.didChange(changeEvent);
+			break;
+		case SAVE:
+			textDocumentService.didSave(new DidSaveTextDocumentParams(identifier));
+			break;
+		default:
+			throw new IllegalArgumentException(operation.name());
+		}
+	}
+	
+	private static void await(CompletableFuture<?> request) throws InterruptedException, ExecutionException, TimeoutException {
+		request.get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+	
+	private static final class LoadedDocument {
+		
+		private final String uri;
+		private final String text;
+		private final List<Position> endpointPositions = new ArrayList<>();
+		private final AtomicInteger version = new AtomicInteger(1);
+		
+		private LoadedDocument(String uri, String text) {
+			this.uri = uri;
+			this.text = text;
+			String[] lines = text.split("\n", -1);
+			for (int line = 0; line < lines.length; line++) {
+				Matcher matcher = ENDPOINT_URI_START.matcher(lines[line]);
+				while (matcher.find()) {
+					// inside the scheme, where both completion and hover answer
+					endpointPositions.add(new Position(line, matcher.end() + 1));
+				}
+			}
+		}
+		
+		private Position randomEndpointPosition(Random random) {
+			return endpointPositions.get(random.nextInt(endpointPositions.size()));
+		}
+	}
+	
+	public static final class HeapSample {
+		
+		private final long elapsedMillis;
+		private final long usedBytes;
+		
+		private HeapSample(long elapsedMillis, long usedBytes) {
+			this.elapsedMillis = elapsedMillis;
+			this.usedBytes = usedBytes;
+		}
+		
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+		
+		public long getUsedBytes() {
+			return usedBytes;
+		}
+	}
+	
+	public static final class LoadTestResult {
+		
+		private final int documentCount;
+		private final int clientThreads;
+		private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+		private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+		private final Queue<HeapSample> heapSamples = new ConcurrentLinkedQueue<>();
+		private long elapsedMillis;
+		private long retainedHeapBefore;
+		private long retainedHeapAfter;
+		private long publishedDiagnostics;
+		
+		private LoadTestResult(int documentCount, int clientThreads) {
+			this.documentCount = documentCount;
+			this.clientThreads = clientThreads;
+			for (Operation operation : Operation.values()) {
+				latencies.put(operation, new LatencyHistogram());
+			}
+		}
+		
+		public long getOperationCount() {
+			return latencies.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+		}
+		
+		/**
+		 * @return operations per second, all client threads together
+		 */
+		public double getThroughput() {
+			return elapsedMillis == 0 ? 0 : getOperationCount() * 1000.0 / elapsedMillis;
+		}
+		
+		public LatencyHistogram getLatency(Operation operation) {
+			return latencies.get(operation);
+		}
+		
+		public List<String> getFailures() {
+			return new ArrayList<>(failures);
+		}
+		
+		public List<HeapSample> getHeapSamples() {
+			return new ArrayList<>(heapSamples);
+		}
+		
+		/**
+		 * @return the growth of the heap still used after a garbage collection, from the start to the end of the traffic
+		 */
+		public long getRetainedHeapGrowth() {
+			return retainedHeapAfter - retainedHeapBefore;
+		}
+		
+		public long getPublishedDiagnostics() {
+			return publishedDiagnostics;
+		}
+		
+		public void report(PrintStream out) {
+			out.println(String.format("%d documents, %d client threads, %d operations in %d ms: %.1f operations/s, %d diagnostics published",
+					documentCount, clientThreads, getOperationCount(), elapsedMillis, getThroughput(), publishedDiagnostics));
+			out.println(String.format("%-16s %8s %10s %10s %10s %10s", "Operation", "Count", "p50 (ms)", "p99 (ms)", "p99.9 (ms)", "max (ms)"));
+			for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+				LatencyHistogram latency = entry.getValue();
+				out.println(String.format("%-16s %8d %10.1f %10.1f %10.1f %10.1f", entry.getKey(), latency.getCount(),
+						latency.getPercentileMicros(50) / 1000.0, latency.getPercentileMicros(99) / 1000.0,
+						latency.getPercentileMicros(99.9) / 1000.0, latency.getMaxMicros() / 1000.0));
+			}
+			out.println("Heap used (s: MB):");
+			for (HeapSample sample : heapSamples) {
+				out.println(String.format("  %6.1f: %d", sample.elapsedMillis / 1000.0, sample.usedBytes >> 20));
+			}
+			out.println(String.format("Retained heap growth: %d MB", getRetainedHeapGrowth() >> 20));
+			out.println(failures.size() + " failures");
+			failures.stream().limit(20).forEach(failure -> out.println("  " + failure));
+		}
+	}
+	
+	private static final class CountingLanguageClient implements LanguageClient {
+		
+		private final AtomicLong publishedDiagnostics = new AtomicLong();
+
+		@Override
+		public void telemetryEvent(Object object) {
+			// not measured
+		}
+
+		@Override
+		public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+			publishedDiagnostics.incrementAndGet();
+		}
+
+		@Override
+		public void showMessage(MessageParams messageParams) {
+			// not measured
+		}
+
+		@Override
+		public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public void logMessage(MessageParams message) {
+			// not measured
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.load.LoadTestDriver.LoadTestResult;
+import com.github.cameltooling.lsp.internal.load.LoadTestDriver.Operation;
+
+public class LoadTestDriverTest {
+
+	@Test
+	public void testConcurrentTrafficWithoutFailure() throws Exception {
+		LoadTestResult result = new LoadTestDriver()
+				.withDocuments(30)
+				.withClientThreads(4)
+				.withDuration(3, TimeUnit.SECONDS)
+				.withHeapSampleInterval(500, TimeUnit.MILLISECONDS)
+				.run();
+		
+		assertThat(result.getFailures()).isEmpty();
+		for (Operation operation : Operation.values()) {
+			assertThat(result.getLatency(operation).getCount()).as(operation.name()).isPositive();
+		}
+		assertThat(result.getThroughput()).isPositive();
+		assertThat(result.getHeapSamples()).isNotEmpty();
+	}
+
+}
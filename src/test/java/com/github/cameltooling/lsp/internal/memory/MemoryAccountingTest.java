@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class MemoryAccountingTest {
+	
+	private static final String POOL = "test";
+	private static final long MEGABYTE = 1 << 20;
+	
+	private MemoryAccounting memoryAccounting = new MemoryAccounting();
+	
+	@After
+	public void clearSoftLimit() {
+		System.clearProperty(MemoryAccounting.SOFT_LIMIT_PROPERTY_PREFIX + POOL);
+	}
+
+	@Test
+	public void testPoolMembersAreAdded() throws Exception {
+		memoryAccounting.register(new FixedSizeAccountable(2, 3 * MEGABYTE));
+		memoryAccounting.register(new FixedSizeAccountable(1, MEGABYTE));
+		
+		Map<String, Object> pool = pool(memoryAccounting.toMap());
+		assertThat(pool).containsEntry("entries", 3).containsEntry("estimatedBytes", 4 * MEGABYTE).containsEntry("softLimitBytes", 0L);
+		assertThat(memoryAccounting.isOverSoftLimit(POOL)).isFalse();
+	}
+	
+	@Test
+	public void testPoolOverSoftLimitTrimmedInProportion() throws Exception {
+		System.setProperty(MemoryAccounting.SOFT_LIMIT_PROPERTY_PREFIX + POOL, "2");
+		FixedSizeAccountable large = new FixedSizeAccountable(3, 3 * MEGABYTE);
+		FixedSizeAccountable small = new FixedSizeAccountable(1, MEGABYTE);
+		memoryAccounting.register(large);
+		memoryAccounting.register(small);
+		
+		assertThat(memoryAccounting.isOverSoftLimit(POOL)).isTrue();
+		memoryAccounting.enforceSoftLimits();
+		
+		assertThat(large.lastTarget).isEqualTo(3 * MEGABYTE / 2);
+		assertThat(small.lastTarget).isEqualTo(MEGABYTE / 2);
+		assertThat(memoryAccounting.getEstimatedBytes(POOL)).isEqualTo(2 * MEGABYTE);
+		assertThat(pool(memoryAccounting.toMap())).containsEntry("evictedEntries", 2L);
+	}
+	
+	@Test
+	public void testPoolWithoutSoftLimitNotEstimated() throws Exception {
+		FixedSizeAccountable accountable = new FixedSizeAccountable(3, 3 * MEGABYTE);
+		memoryAccounting.register(accountable);
+		
+		assertThat(memoryAccounting.enforceSoftLimits()).isZero();
+		
+		assertThat(accountable.estimations).isZero();
+		assertThat(accountable.lastTarget).isEqualTo(-1);
+	}
+	
+	@Test
+	public void testUnregisteredMemberNotAccounted() throws Exception {
+		FixedSizeAccountable accountable = new FixedSizeAccountable(1, MEGABYTE);
+		memoryAccounting.register(accountable);
+		memoryAccounting.unregister(accountable);
+		
+		assertThat(memoryAccounting.getEstimatedBytes(POOL)).isZero();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> pool(Map<String, Object> report) {
+		return (Map<String, Object>) ((Map<String, Object>) report.get("pools")).get(POOL);
+	}
+	
+	private static final class FixedSizeAccountable implements MemoryAccountable {
+		
+		private int entries;
+		private long bytes;
+		private long lastTarget = -1;
+		private int estimations;
+		
+		private FixedSizeAccountable(int entries, long bytes) {
+			this.entries = entries;
+			this.bytes = bytes;
+		}
+
+		@Override
+		public String getMemoryPoolName() {
+			return POOL;
+		}
+
+		@Override
+		public int getEntryCount() {
+			return entries;
+		}
+
+		@Override
+		public long getEstimatedBytes() {
+			estimations++;
+			return bytes;
+		}
+		
+		@Override
+		public int evictTo(long targetBytes) {
+			lastTarget = targetBytes;
+			bytes = targetBytes;
+			entries--;
+			return 1;
+		}
+	}
+
+}
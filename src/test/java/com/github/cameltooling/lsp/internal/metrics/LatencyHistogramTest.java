@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmptyHistogram() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		
+		assertThat(histogram.getCount()).isZero();
+		assertThat(histogram.getPercentileMicros(99)).isZero();
+	}
+	
+	@Test
+	public void testPercentiles() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int millis = 1; millis <= 100; millis++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+		}
+		
+		assertThat(histogram.getCount()).isEqualTo(100);
+		assertThat(histogram.getMaxMicros()).isEqualTo(100000);
+		assertThat(histogram.getMeanMicros()).isEqualTo(50500);
+		assertThat(histogram.getPercentileMicros(50)).isBetween(50000L, 53200L);
+		assertThat(histogram.getPercentileMicros(99)).isBetween(99000L, 100000L);
+		assertThat(histogram.getPercentileMicros(100)).isEqualTo(100000);
+	}
+	
+	@Test
+	public void testBucketsCoverAllValues() throws Exception {
+		for (long micros : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE}) {
+			int index = LatencyHistogram.bucketIndex(micros);
+			
+			assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(micros);
+			if (index > 0) {
+				assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(micros);
+			}
+		}
+	}
+
+}
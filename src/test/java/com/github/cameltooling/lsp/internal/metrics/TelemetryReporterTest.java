@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.trace.RequestTracer;
+
+public class TelemetryReporterTest {
+	
+	private final List<Object> sent = new ArrayList<>();
+	private final RequestTracer requestTracer = new RequestTracer(1, 16, LatencyMetrics.getInstance());
+	private final TelemetryReporter reporter = new TelemetryReporter(Collections::emptyMap, requestTracer::getFinishedCount, sent::add);
+
+	@Test
+	public void testNothingSentWithoutRequest() throws Exception {
+		reporter.report();
+		
+		assertThat(sent).isEmpty();
+	}
+	
+	@Test
+	public void testNothingSentAgainWithoutNewRequest() throws Exception {
+		requestTracer.trace("hover", null, null);
+		reporter.report();
+		// the serialization of the event itself is not a request of the session
+		LatencyMetrics.recordPhase(LatencyMetrics.SERIALIZATION, System.nanoTime());
+		reporter.report();
+		
+		assertThat(sent).hasSize(1);
+		
+		requestTracer.trace("hover", null, null);
+		reporter.report();
+		assertThat(sent).hasSize(2);
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.references;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.ReferenceContext;
+import org.eclipse.lsp4j.ReferenceParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.Test;
+
+import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.index.IndexedSymbol;
+
+public class ReferencesProcessorTest extends AbstractCamelLanguageServerTest {
+	
+	private static final String OTHER_FILE = "file:///workspace/OtherRoute.java";
+	private static final String ROUTES =
+			"<camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n" +
+			"  <route id=\"receive\">\n" +
+			"    <from uri=\"file:orders\"/>\n" +
+			"    <to uri=\"direct:processOrder\"/>\n" +
+			"  </route>\n" +
+			"  <route id=\"process\">\n" +
+			"    <from uri=\"direct:processOrder\"/>\n" +
+			"    <to uri=\"log:orders\"/>\n" +
+			"  </route>\n" +
+			"</camelContext>\n";
+	
+	@Test
+	public void testProducersAndConsumersInAllFiles() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(ROUTES);
+		waitForIndexedSymbols(camelLanguageServer, DUMMY_URI + ".xml");
+		Range otherRange = new Range(new Position(5, 9), new Position(5, 38));
+		camelLanguageServer.getWorkspaceSymbolIndex().update(OTHER_FILE,
+				Collections.singletonList(new IndexedSymbol("direct:processOrder?timeout=5", IndexedSymbol.Kind.PRODUCER, OTHER_FILE, otherRange)));
+		
+		List<? extends Location> references = getReferences(camelLanguageServer, new Position(3, 20), true);
+		
+		assertThat(references).containsExactly(
+				new Location(DUMMY_URI + ".xml", new Range(new Position(3, 13), new Position(3, 32))),
+				new Location(DUMMY_URI + ".xml", new Range(new Position(6, 15), new Position(6, 34))),
+				new Location(OTHER_FILE, otherRange));
+		assertThat(getReferences(camelLanguageServer, new Position(6, 20), false)).containsExactly(
+				new Location(DUMMY_URI + ".xml", new Range(new Position(3, 13), new Position(3, 32))),
+				new Location(OTHER_FILE, otherRange));
+	}
+	
+	@Test
+	public void testNoReferenceOutsideOfInternalEndpoints() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer(ROUTES);
+		waitForIndexedSymbols(camelLanguageServer, DUMMY_URI + ".xml");
+		
+		assertThat(getReferences(camelLanguageServer, new Position(2, 18), true)).isEmpty();
+		assertThat(getReferences(camelLanguageServer, new Position(0, 3), true)).isEmpty();
+	}
+
+	private List<? extends Location> getReferences(CamelLanguageServer camelLanguageServer, Position position, boolean includeDeclaration) throws Exception {
+		ReferenceParams params = new ReferenceParams(new ReferenceContext(includeDeclaration));
+		params.setTextDocument(new TextDocumentIdentifier(DUMMY_URI + ".xml"));
+		params.setPosition(position);
+		return camelLanguageServer.getTextDocumentService().references(params).get();
+	}
+
+}
@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.liveness.ParentProcessMonitor;
+import com.github.cameltooling.lsp.internal.metrics.LatencyHistogram;
+import com.github.cameltooling.lsp.internal.metrics.SerializationTiming;
+import com.google.gson.JsonParser;
+
+/**
+ * Replays the client side of a session recorded by {@link SessionRecorder} against an in-process {@link CamelLanguageServer},
+ * connected through a loopback socket so that the JSON-RPC serialization is part of the measure.
+ * Messages are sent at their original pace divided by the speed factor, or as fast as possible with a speed of 0.
+ * The latency of each request is measured from the moment it is sent to the moment its response is read,
+ * and reported per method next to the latency found in the recording.
+ * 
+ * Usage: SessionReplay path/to/recording.jsonl [--speed factor]
+ */
+public class SessionReplay {
+	
+	private static final long TIMEOUT_SECONDS = 60;
+	
+	private final List<RecordedMessage> recording;
+	private final double speed;
+	private final Map<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> recordedLatencies = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> replayedLatencies = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param speed factor applied to the pace of the recording, 0 to send the messages without waiting
+	 */
+	public SessionReplay(List<RecordedMessage> recording, double speed) {
+		this.recording = recording;
+		this.speed = speed;
+	}
+	
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("Usage: SessionReplay path/to/recording.jsonl [--speed factor]");
+			System.exit(1);
+		}
+		double speed = 1;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			if ("--speed".equals(args[i])) {
+				speed = Double.parseDouble(args[i + 1]);
+			}
+		}
+		// the client which was recorded is gone
+		System.setProperty(ParentProcessMonitor.ENABLED_PROPERTY, Boolean.FALSE.toString());
+		SessionReplay replay = new SessionReplay(read(Paths.get(args[0])), speed);
+		replay.run();
+		replay.report(System.out);
+		System.exit(0);
+	}
+	
+	public static List<RecordedMessage> read(Path recording) throws IOException {
+		return Files.readAllLines(recording, StandardCharsets.UTF_8).stream()
+				.filter(line -> !line.trim().isEmpty())
+				.map(RecordedMessage::parse)
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Replays the recording and waits for the responses to all requests, or for the timeout.
+	 */
+	public void run() throws IOException, InterruptedException {
+		computeRecordedLatencies();
+		CamelLanguageServer server = new CamelLanguageServer();
+		server.setExitHandler(() -> {});
+		ExecutorService messageExecutor = Executors.newCachedThreadPool();
+		try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+				Socket clientSocket = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+				Socket serverSideSocket = serverSocket.accept()) {
+			Launcher<LanguageClient> launcher = Launcher.createLauncher(server, LanguageClient.class, serverSideSocket.getInputStream(), serverSideSocket.getOutputStream(),
+					messageExecutor, new SerializationTiming());
+			server.connect(launcher.getRemoteProxy());
+			launcher.startListening();
+			startReader(clientSocket.getInputStream());
+			send(clientSocket.getOutputStream());
+			awaitResponses();
+		} finally {
+			server.shutdown();
+			messageExecutor.shutdown();
+		}
+	}
+
+	private void computeRecordedLatencies() {
+		Map<String, RecordedMessage> requests = new HashMap<>();
+		for (RecordedMessage message : recording) {
+			if (message.isFromClient() && message.isRequest()) {
+				requests.put(message.getId(), message);
+			} else if (!message.isFromClient() && message.isResponse()) {
+				RecordedMessage request = requests.remove(message.getId());
+				if (request != null) {
+					histogram(recordedLatencies, request.getMethod()).record(TimeUnit.MILLISECONDS.toNanos(message.getTimeMillis() - request.getTimeMillis()));
+				}
+			}
+		}
+	}
+
+	private void startReader(InputStream fromServer) {
+		MessageFrameParser parser = new MessageFrameParser(this::onServerMessage);
+		Thread reader = new Thread(() -> {
+			byte[] buffer = new byte[8192];
+			try {
+				int read;
+				while ((read = fromServer.read(buffer)) >= 0) {
+					parser.write(buffer, 0, read);
+				}
+			} catch (IOException e) {
+				// the socket is closed at the end of the replay
+			}
+		}, "Camel LSP replay reader");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	private void onServerMessage(String json) {
+		RecordedMessage message = new RecordedMessage(0, RecordedMessage.SERVER_TO_CLIENT, new JsonParser().parse(json).getAsJsonObject());
+		if (message.isResponse()) {
+			PendingRequest request = pendingRequests.remove(message.getId());
+			if (request != null) {
+				histogram(replayedLatencies, request.method).record(System.nanoTime() - request.sentNanos);
+			}
+		}
+	}
+
+	private void send(OutputStream toServer) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		for (RecordedMessage message : recording) {
+			if (!message.isFromClient()) {
+				continue;
+			}
+			if (speed > 0) {
+				long delayNanos = (long) (TimeUnit.MILLISECONDS.toNanos(message.getTimeMillis()) / speed) - (System.nanoTime() - start);
+				if (delayNanos > 0) {
+					TimeUnit.NANOSECONDS.sleep(delayNanos);
+				}
+			}
+			if (message.isRequest()) {
+				pendingRequests.put(message.getId(), new PendingRequest(message.getMethod(), System.nanoTime()));
+			}
+			toServer.write(MessageFrameParser.frame(message.getMessage().toString()));
+			toServer.flush();
+		}
+	}
+
+	private void awaitResponses() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+		while (!pendingRequests.isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+	
+	private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String method) {
+		return histograms.computeIfAbsent(method, key -> new LatencyHistogram());
+	}
+	
+	/**
+	 * @return the latencies of the replayed requests, by method
+	 */
+	public Map<String, LatencyHistogram> getReplayedLatencies() {
+		return new TreeMap<>(replayedLatencies);
+	}
+	
+	/**
+	 * @return the latencies found in the recording, by method, with a millisecond resolution
+	 */
+	public Map<String, LatencyHistogram> getRecordedLatencies() {
+		return new TreeMap<>(recordedLatencies);
+	}
+	
+	/**
+	 * @return the number of requests which did not get a response before the timeout
+	 */
+	public int getUnansweredCount() {
+		return pendingRequests.size();
+	}
+	
+	public void report(PrintStream out) {
+		out.println(String.format("%-36s %6s  %-22s %s", "Method", "Count", "recorded p50/p99 (ms)", "replayed p50/p90/p99/max (ms)"));
+		for (Map.Entry<String, LatencyHistogram> entry : getReplayedLatencies().entrySet()) {
+			LatencyHistogram replayed = entry.getValue();
+			LatencyHistogram recorded = recordedLatencies.getOrDefault(entry.getKey(), new LatencyHistogram());
+			out.println(String.format("%-36s %6d  %8.1f / %-11.1f %8.1f / %.1f / %.1f / %.1f", entry.getKey(), replayed.getCount(),
+					millis(recorded.getPercentileMicros(50)), millis(recorded.getPercentileMicros(99)),
+					millis(replayed.getPercentileMicros(50)), millis(replayed.getPercentileMicros(90)),
+					millis(replayed.getPercentileMicros(99)), millis(replayed.getMaxMicros())));
+		}
+		if (!pendingRequests.isEmpty()) {
+			out.println(pendingRequests.size() + " requests without response after " + TIMEOUT_SECONDS + " seconds");
+		}
+	}
+	
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+	
+	private static final class PendingRequest {
+		
+		private final String method;
+		private final long sentNanos;
+		
+		private PendingRequest(String method, long sentNanos) {
+			this.method = method;
+			this.sentNanos = sentNanos;
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
+
+public class SessionReplayTest extends AbstractCamelLanguageServerTest {
+	
+	private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":{\"capabilities\":{}}}";
+	private static final String DID_OPEN = "{\"jsonrpc\":\"2.0\",\"method\":\"textDocument/didOpen\",\"params\":{\"textDocument\":"
+			+ "{\"uri\":\"file:///replay.xml\",\"languageId\":\"xml\",\"version\":1,"
+			+ "\"text\":\"<from uri=\\\"\\\" xmlns=\\\"http://camel.apache.org/schema/spring\\\"></from>\\n\"}}}";
+	private static final String COMPLETION = "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"textDocument/completion\",\"params\":"
+			+ "{\"textDocument\":{\"uri\":\"file:///replay.xml\"},\"position\":{\"line\":0,\"character\":11}}}";
+	private static final String SHUTDOWN = "{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"shutdown\"}";
+	
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testFramesSplitAcrossWrites() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(MessageFrameParser.frame(INITIALIZE));
+		stream.write(MessageFrameParser.frame("{\"jsonrpc\":\"2.0\",\"method\":\"initialized\",\"params\":{\"text\":\"\u00e9t\u00e9\"}}"));
+		byte[] bytes = stream.toByteArray();
+		StringBuilder messages = new StringBuilder();
+		MessageFrameParser parser = new MessageFrameParser(message -> messages.append(message).append('|'));
+		
+		for (int offset = 0; offset < bytes.length; offset += 7) {
+			parser.write(bytes, offset, Math.min(7, bytes.length - offset));
+		}
+		
+		assertThat(messages.toString()).isEqualTo(INITIALIZE + "|{\"jsonrpc\":\"2.0\",\"method\":\"initialized\",\"params\":{\"text\":\"\u00e9t\u00e9\"}}|");
+	}
+	
+	@Test
+	public void testRecordedTrafficIsPassedThrough() throws Exception {
+		Path recording = temporaryFolder.newFile("session.jsonl").toPath();
+		byte[] traffic = clientTraffic();
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		try (SessionRecorder recorder = new SessionRecorder(recording); InputStream in = recorder.record(new ByteArrayInputStream(traffic))) {
+			byte[] buffer = new byte[100];
+			int length;
+			while ((length = in.read(buffer)) >= 0) {
+				read.write(buffer, 0, length);
+			}
+		}
+		
+		assertThat(read.toByteArray()).isEqualTo(traffic);
+		List<RecordedMessage> messages = SessionReplay.read(recording);
+		assertThat(messages).extracting(RecordedMessage::getMethod).containsExactly("initialize", "textDocument/didOpen", "textDocument/completion", "shutdown");
+		assertThat(messages).allMatch(RecordedMessage::isFromClient);
+		assertThat(messages.get(2).getId()).isEqualTo("2");
+	}
+	
+	@Test
+	public void testReplayMeasuresEachRequest() throws Exception {
+		Path recording = temporaryFolder.newFile("session.jsonl").toPath();
+		try (SessionRecorder recorder = new SessionRecorder(recording); InputStream in = recorder.record(new ByteArrayInputStream(clientTraffic()))) {
+			while (in.read() >= 0) {
+				// recorded while read
+			}
+		}
+		SessionReplay replay = new SessionReplay(SessionReplay.read(recording), 0);
+		
+		replay.run();
+		
+		assertThat(replay.getUnansweredCount()).isZero();
+		assertThat(replay.getReplayedLatencies()).containsOnlyKeys("initialize", "textDocument/completion", "shutdown");
+		assertThat(replay.getReplayedLatencies().get("textDocument/completion").getCount()).isEqualTo(1);
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		replay.report(new PrintStream(report, true, "UTF-8"));
+		assertThat(report.toString("UTF-8")).contains("textDocument/completion");
+	}
+
+	private byte[] clientTraffic() throws Exception {
+		ByteArrayOutputStream traffic = new ByteArrayOutputStream();
+		for (String message : new String[] {INITIALIZE, DID_OPEN, COMPLETION, SHUTDOWN}) {
+			traffic.write(MessageFrameParser.frame(message));
+		}
+		return traffic.toByteArray();
+	}
+
+}
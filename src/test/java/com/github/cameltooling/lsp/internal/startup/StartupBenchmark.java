@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.startup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.Runner;
+
+/**
+ * Measures the startup of the server in fresh JVMs talking LSP over standard input and output:
+ * the time from the process launch to the initialize response, and to the first non-empty completion.
+ * 
+ * Usage: StartupBenchmark [--runs N] [--archive path/to/archive.jsa]
+ * When an archive is given, each run is done once without and once with the class data sharing archive.
+ */
+public class StartupBenchmark {
+	
+	private static final String DOCUMENT_URI = "file:///benchmark/camel-context.xml";
+	private static final String DOCUMENT = "<from uri=\"\" xmlns=\"http://camel.apache.org/schema/spring\"></from>\n";
+	private static final Position COMPLETION_POSITION = new Position(0, 11);
+	private static final long TIMEOUT_SECONDS = 120;
+	
+	private final List<Long> initializeMillis = new ArrayList<>();
+	private final List<Long> firstCompletionMillis = new ArrayList<>();
+	private final List<String> jvmOptions;
+	
+	public StartupBenchmark(List<String> jvmOptions) {
+		this.jvmOptions = jvmOptions;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int runs = 5;
+		String archive = null;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if ("--runs".equals(args[i])) {
+				runs = Integer.parseInt(args[i + 1]);
+			} else if ("--archive".equals(args[i])) {
+				archive = args[i + 1];
+			}
+		}
+		StartupBenchmark baseline = new StartupBenchmark(Collections.singletonList("-Xshare:auto"));
+		StartupBenchmark withArchive = archive != null ? new StartupBenchmark(Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archive)) : null;
+		for (int run = 0; run < runs; run++) {
+			baseline.measure();
+			if (withArchive != null) {
+				withArchive.measure();
+			}
+		}
+		System.out.println("Configuration          initialize (median/min ms)  first completion (median/min ms)");
+		baseline.report("default");
+		if (withArchive != null) {
+			withArchive.report("class data sharing");
+		}
+	}
+	
+	private void measure() throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(jvmOptions);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(Runner.class.getName());
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		try {
+			Launcher<LanguageServer> launcher = Launcher.createLauncher(new BenchmarkClient(), LanguageServer.class, process.getInputStream(), process.getOutputStream());
+			launcher.startListening();
+			LanguageServer server = launcher.getRemoteProxy();
+			server.initialize(new InitializeParams()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			initializeMillis.add(elapsedMillis(start));
+			server.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(DOCUMENT_URI, CamelLanguageServer.LANGUAGE_ID, 1, DOCUMENT)));
+			while (!isComplete(server.getTextDocumentService().completion(new CompletionParams(new TextDocumentIdentifier(DOCUMENT_URI), COMPLETION_POSITION)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS))) {
+				Thread.sleep(10);
+			}
+			firstCompletionMillis.add(elapsedMillis(start));
+			server.shutdown().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			server.exit();
+			process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} finally {
+			process.destroy();
+		}
+	}
+
+	private boolean isComplete(Either<List<CompletionItem>, CompletionList> completion) {
+		if (completion.isLeft()) {
+			return !completion.getLeft().isEmpty();
+		}
+		return !completion.getRight().isIncomplete() && !completion.getRight().getItems().isEmpty();
+	}
+
+	private void report(String configuration) {
+		System.out.println(String.format("%-22s %12d / %-14d %14d / %d", configuration,
+				median(initializeMillis), Collections.min(initializeMillis), median(firstCompletionMillis), Collections.min(firstCompletionMillis)));
+	}
+
+	private static long median(List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+
+	private static long elapsedMillis(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+	
+	private static final class BenchmarkClient implements LanguageClient {
+
+		@Override
+		public void telemetryEvent(Object object) {
+			// not measured
+		}
+
+		@Override
+		public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+			// not measured
+		}
+
+		@Override
+		public void showMessage(MessageParams messageParams) {
+			// not measured
+		}
+
+		@Override
+		public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public void logMessage(MessageParams message) {
+			// not measured
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.Test;
+
+public class RequestTracerTest {
+	
+	private static final String URI = "file:///camel.xml";
+
+	@Test
+	public void testSpanRecordedWhenFinished() throws Exception {
+		RequestTracer tracer = new RequestTracer(1, 8);
+		RequestSpan span = tracer.start("completion", URI, 3);
+		span.started();
+		
+		assertThat(tracer.getSpans()).isEmpty();
+		
+		span.finished();
+		
+		assertThat(tracer.getSpans()).containsExactly(span);
+		assertThat(span.getMethod()).isEqualTo("completion");
+		assertThat(span.getUriHash()).isEqualTo(URI.hashCode());
+		assertThat(span.getVersion()).isEqualTo(3);
+		assertThat(span.getOutcome()).isEqualTo(RequestSpan.COMPLETED);
+		assertThat(span.toString()).doesNotContain(URI);
+	}
+	
+	@Test
+	public void testOnlyLastSpansKept() throws Exception {
+		RequestTracer tracer = new RequestTracer(1, 3);
+		for (int version = 1; version <= 10; version++) {
+			tracer.trace("didChange", URI, version);
+		}
+		
+		assertThat(tracer.getRecordedCount()).isEqualTo(10);
+		assertThat(tracer.getSpans()).extracting(RequestSpan::getVersion).containsExactly(7, 8, 9, 10);
+	}
+	
+	@Test
+	public void testNothingRecordedWhenDisabled() throws Exception {
+		RequestTracer tracer = new RequestTracer(0, 8);
+		RequestSpan span = tracer.start("hover", URI, 1);
+		span.finished();
+		
+		assertThat(span).isSameAs(RequestSpan.NOT_SAMPLED);
+		assertThat(tracer.getSpans()).isEmpty();
+	}
+	
+	@Test
+	public void testOutcomes() throws Exception {
+		RequestTracer tracer = new RequestTracer(1, 8);
+		tracer.start("completion", URI, 1).finished(new CancellationException());
+		tracer.start("completion", URI, 1).finished(new IllegalStateException());
+		RequestSpan span = tracer.start("completion", URI, 1);
+		span.budgetExceeded();
+		span.finished();
+		
+		assertThat(tracer.getSpans()).extracting(RequestSpan::getOutcome)
+			.containsExactly(RequestSpan.CANCELLED, RequestSpan.FAILED, RequestSpan.BUDGET_EXCEEDED);
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cameltooling.lsp.internal.workspace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.cameltooling.lsp.internal.AbstractCamelLanguageServerTest;
+import com.github.cameltooling.lsp.internal.CamelLanguageServer;
+import com.github.cameltooling.lsp.internal.cache.WorkspaceCacheDirectory;
+import com.github.cameltooling.lsp.internal.diagnostic.DiagnosticService;
+
+public class WorkspaceValidatorTest extends AbstractCamelLanguageServerTest {
+	
+	@Rule
+	public TemporaryFolder cacheFolder = new TemporaryFolder();
+	
+	@Before
+	public void setUp() {
+		System.setProperty(WorkspaceCacheDirectory.CACHE_DIRECTORY_PROPERTY, cacheFolder.getRoot().getAbsolutePath());
+	}
+	
+	@After
+	public void tearDown() {
+		System.clearProperty(WorkspaceCacheDirectory.CACHE_DIRECTORY_PROPERTY);
+	}
+	
+	@Test
+	public void testNotOpenedFilesAreValidated() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		camelLanguageServer.initialized(new InitializedParams());
+		
+		assertThat(waitForDiagnostics("diagnostic/camel-with-endpoint-error.xml").getDiagnostics()).hasSize(1);
+		assertThat(waitForDiagnostics("diagnostic/camel-with-endpoint-2-errors.xml").getDiagnostics()).hasSize(2);
+		assertThat(waitForDiagnostics("diagnostic/camel-with-endpoint-error.java").getDiagnostics()).hasSize(1);
+		assertThat(findDiagnostics("diagnostic/non-camel-file.xml")).isEmpty();
+		camelLanguageServer.shutdown();
+	}
+	
+	@Test
+	public void testUnchangedFilesAreRepublishedFromCacheAfterRestart() throws Exception {
+		CamelLanguageServer camelLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		camelLanguageServer.initialized(new InitializedParams());
+		waitForDiagnostics("diagnostic/camel-with-endpoint-error.xml");
+		camelLanguageServer.shutdown();
+		publishedDiagnostics.clear();
+		
+		CamelLanguageServer restartedLanguageServer = initializeLanguageServer("<camelContext xmlns=\"http://camel.apache.org/schema/spring\"/>\n");
+		Optional<List<Diagnostic>> cachedDiagnostics = new DiagnosticService(restartedLanguageServer.getTextDocumentService().getCamelCatalog(), restartedLanguageServer)
+				.getCachedDiagnostics(toWorkspaceUri("diagnostic/camel-with-endpoint-error.xml"), readTestResource("/workspace/diagnostic/camel-with-endpoint-error.xml"));
+		assertThat(cachedDiagnostics).isEmpty();
+		restartedLanguageServer.initialized(new InitializedParams());
+		cachedDiagnostics = new DiagnosticService(restartedLanguageServer.getTextDocumentService().getCamelCatalog(), restartedLanguageServer)
+				.getCachedDiagnostics(toWorkspaceUri("diagnostic/camel-with-endpoint-error.xml"), readTestResource("/workspace/diagnostic/camel-with-endpoint-error.xml"));
+		assertThat(cachedDiagnostics).isPresent();
+		assertThat(cachedDiagnostics.get()).hasSize(1);
+		assertThat(waitForDiagnostics("diagnostic/camel-with-endpoint-error.xml").getDiagnostics()).hasSize(1);
+		restartedLanguageServer.shutdown();
+	}
+
+	private PublishDiagnosticsParams waitForDiagnostics(String fileName) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 30000;
+		Optional<PublishDiagnosticsParams> diagnostics = findDiagnostics(fileName);
+		while (!diagnostics.isPresent() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+			diagnostics = findDiagnostics(fileName);
+		}
+		assertThat(diagnostics).isPresent();
+		return diagnostics.get();
+	}
+
+	private String toWorkspaceUri(String fileName) throws Exception {
+		return getTestResource("/workspace/" + fileName).toPath().toUri().toString();
+	}
+	
+	private String readTestResource(String name) throws Exception {
+		return new String(Files.readAllBytes(getTestResource(name).toPath()), StandardCharsets.UTF_8);
+	}
+
+	private Optional<PublishDiagnosticsParams> findDiagnostics(String fileName) {
+		return publishedDiagnostics.entrySet().stream()
+				.filter(entry -> entry.getKey().endsWith(fileName))
+				.map(entry -> entry.getValue())
+				.findAny();
+	}
+
+}